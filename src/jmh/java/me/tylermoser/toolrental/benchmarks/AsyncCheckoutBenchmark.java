@@ -0,0 +1,77 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.AsyncCheckoutService;
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.tools.Jackhammer;
+
+/**
+ * Measures what the async pipeline adds to a checkout. A single checkout shows
+ * the cost of handing it to the pipeline and waiting for it. A burst of 256
+ * checkouts, waited on together, shows the cost per checkout when the pipeline
+ * is kept busy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncCheckoutBenchmark {
+
+	private static final LocalDate CHECKOUT_DATE = LocalDate.of(2020, 7, 2);
+	private static final int BURST_SIZE = 256;
+
+	private CheckoutService checkoutService;
+	private AsyncCheckoutService asyncCheckoutService;
+	private final CompletableFuture<?>[] burst = new CompletableFuture<?>[BURST_SIZE];
+
+	@Setup
+	public void setup() {
+		checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		asyncCheckoutService = new AsyncCheckoutService(checkoutService);
+	}
+
+	@TearDown
+	public void teardown() {
+		asyncCheckoutService.close();
+	}
+
+	@Benchmark
+	public RentalAgreement checkout() {
+		return checkoutService.checkout("JAKR", 9, 10, CHECKOUT_DATE);
+	}
+
+	@Benchmark
+	public RentalAgreement checkoutAsync() {
+		return asyncCheckoutService.checkoutAsync("JAKR", 9, 10, CHECKOUT_DATE).join();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BURST_SIZE)
+	public Object checkoutAsyncBurst() {
+		for (int i = 0; i < BURST_SIZE; i++) {
+			burst[i] = asyncCheckoutService.checkoutAsync("JAKR", 9, 10, CHECKOUT_DATE);
+		}
+		return CompletableFuture.allOf(burst).join();
+	}
+
+}
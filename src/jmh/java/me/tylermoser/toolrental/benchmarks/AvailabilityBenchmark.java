@@ -0,0 +1,68 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.availability.AvailabilityIndex;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures finding the free tools of a type when every tool has five years of
+ * weekly rentals behind it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+	private static final LocalDate FIRST_RENTAL = LocalDate.of(2015, 1, 1);
+	private static final int WEEKS_OF_HISTORY = 52 * 5;
+
+	@Param({ "100", "1000" })
+	public int toolCount;
+
+	private final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+	private final List<Tool> tools = new ArrayList<>();
+	private final LocalDate queryDate = FIRST_RENTAL.plusWeeks(WEEKS_OF_HISTORY / 2).plusDays(3);
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < toolCount; i++) {
+			final Tool tool = i % 2 == 0 ? new Jackhammer("J" + i, "Ridgid") : new Ladder("L" + i, "Werner");
+			tools.add(tool);
+			for (int week = i % 3; week < WEEKS_OF_HISTORY; week += 2) {
+				availabilityIndex.reserve(tool.getCode(), FIRST_RENTAL.plusWeeks(week), 5);
+			}
+		}
+	}
+
+	@Benchmark
+	public List<Tool> findAvailableJackhammers() {
+		return availabilityIndex.findAvailableTools(tools, "Jackhammer", queryDate, 3);
+	}
+
+	@Benchmark
+	public boolean isAvailable() {
+		return availabilityIndex.isAvailable("J0", queryDate, 3);
+	}
+
+}
@@ -0,0 +1,107 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures a complete checkout, from validation through to the rental
+ * agreement, at several inventory sizes. The invalid checkouts show the cost of
+ * rejecting bad input compared to a successful checkout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+
+	private static final int CODES_TO_CHECKOUT = 1024;
+	private static final LocalDate CHECKOUT_DATE = LocalDate.of(2020, 7, 2);
+	private static final String UNKNOWN_CODE = "UNKNOWN";
+
+	@Param({ "10", "1000", "100000" })
+	private int inventorySize;
+
+	private CheckoutService checkoutService;
+	private String[] codes;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		checkoutService = new CheckoutService();
+		for (int i = 0; i < inventorySize; i++) {
+			checkoutService.addToolToInventory(createTool(i));
+		}
+
+		// Pick the codes ahead of time, so that building them is not measured
+		final SplittableRandom random = new SplittableRandom(inventorySize);
+		codes = new String[CODES_TO_CHECKOUT];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = createCode(random.nextInt(inventorySize));
+		}
+	}
+
+	@Benchmark
+	public RentalAgreement checkout() {
+		final String code = codes[next++ & (CODES_TO_CHECKOUT - 1)];
+		return checkoutService.checkout(code, 9, 10, CHECKOUT_DATE);
+	}
+
+	@Benchmark
+	public Object checkoutInvalidDiscount() {
+		try {
+			return checkoutService.checkout(codes[next++ & (CODES_TO_CHECKOUT - 1)], 9, 101, CHECKOUT_DATE);
+		} catch (ToolRentalValidationException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object checkoutUnknownTool() {
+		try {
+			return checkoutService.checkout(UNKNOWN_CODE, 9, 10, CHECKOUT_DATE);
+		} catch (ToolRentalValidationException e) {
+			return e;
+		}
+	}
+
+	private static Tool createTool(int index) {
+		final String code = createCode(index);
+		switch (index % 3) {
+		case 0:
+			return new Chainsaw(code, "Stihl");
+		case 1:
+			return new Ladder(code, "Werner");
+		default:
+			return new Jackhammer(code, "Ridgid");
+		}
+	}
+
+	private static String createCode(int index) {
+		return "T" + index;
+	}
+
+}
@@ -0,0 +1,106 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.LocalDate;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.http.CheckoutHttpServer;
+import me.tylermoser.toolrental.metrics.LatencyHistogram;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+/**
+ * A load test for the HTTP endpoint. It keeps a fixed number of quote requests
+ * in flight for a number of seconds, then reports the throughput and latency.
+ * 
+ * Arguments, all optional: the number of requests in flight (default 1000), the
+ * number of seconds to run (default 10), and the base URL of a running server.
+ * Without a URL, a server is started in this JVM. For example:
+ * 
+ * mvn -P benchmarks test-compile exec:exec -Dexec.classpathScope=test
+ * -Dexec.executable=java -Dexec.args="-classpath %classpath
+ * me.tylermoser.toolrental.benchmarks.CheckoutLoadTest 5000 30"
+ * 
+ * Note: A single client machine runs out of ephemeral ports and file handles
+ * well before the server does, so the operating system limits (ulimit -n) may
+ * need to be raised for the largest tests.
+ */
+public class CheckoutLoadTest {
+
+	private static final String[] CODES = { "CHNS", "LADW", "JAKD", "JAKR" };
+	private static final LocalDate FIRST_CHECKOUT = LocalDate.of(2015, 1, 1);
+
+	public static void main(String[] args) throws Exception {
+		final int inFlight = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		CheckoutHttpServer localServer = null;
+		String baseUrl;
+		if (args.length > 2) {
+			baseUrl = args[2];
+		} else {
+			final CheckoutService checkoutService = new CheckoutService();
+			checkoutService.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
+			checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+			checkoutService.addToolToInventory(new Jackhammer("JAKD", "DeWalt"));
+			checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+			localServer = new CheckoutHttpServer(checkoutService, new InetSocketAddress("127.0.0.1", 0));
+			localServer.start();
+			baseUrl = "http://127.0.0.1:" + localServer.getPort();
+			System.out.println("Started a local server" + (localServer.isUsingVirtualThreads()
+					? " with virtual threads." : " with platform threads."));
+		}
+
+		final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		final Semaphore permits = new Semaphore(inFlight);
+		final LatencyHistogram latency = new LatencyHistogram();
+		final LongAdder successes = new LongAdder();
+		final LongAdder failures = new LongAdder();
+
+		final long startNanos = System.nanoTime();
+		final long endNanos = startNanos + TimeUnit.SECONDS.toNanos(seconds);
+		while (System.nanoTime() < endNanos) {
+			permits.acquire();
+			final long requestStartNanos = System.nanoTime();
+			client.sendAsync(HttpRequest.newBuilder(randomQuote(baseUrl)).build(), BodyHandlers.discarding())
+					.whenComplete((response, error) -> {
+						latency.record(System.nanoTime() - requestStartNanos);
+						if (error == null && response.statusCode() == 200) {
+							successes.increment();
+						} else {
+							failures.increment();
+						}
+						permits.release();
+					});
+		}
+		permits.acquire(inFlight);
+		final double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+		System.out.printf("%d requests in flight for %.1f seconds: %d succeeded, %d failed, %.0f requests/s%n",
+				inFlight, elapsedSeconds, successes.sum(), failures.sum(),
+				(successes.sum() + failures.sum()) / elapsedSeconds);
+		System.out.println("Latency: " + latency.snapshot());
+
+		if (localServer != null) {
+			localServer.stop(0);
+		}
+	}
+
+	private static URI randomQuote(String baseUrl) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		return URI.create(baseUrl + "/quote?code=" + CODES[random.nextInt(CODES.length)] + "&days="
+				+ (1 + random.nextInt(30)) + "&discount=" + random.nextInt(101) + "&date="
+				+ FIRST_CHECKOUT.plusDays(random.nextInt(3650)));
+	}
+
+}
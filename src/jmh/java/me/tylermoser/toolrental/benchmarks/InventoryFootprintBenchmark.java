@@ -0,0 +1,115 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.tylermoser.toolrental.inventory.ColumnarInventory;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures the heap retained per unit by the hash indexed Inventory of Tool
+ * objects, compared to the ColumnarInventory.
+ * 
+ * Each run builds one inventory and reports the growth in used heap after a
+ * full GC, divided by the number of units, as the bytesPerUnit counter. The
+ * time taken to build the inventory is reported as the score.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class InventoryFootprintBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Catalog {
+
+		@Param({ "100000", "1000000" })
+		private int units;
+
+		private String[] codes;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			// The codes are created up front and shared by both inventories, since
+			// the caller owns them in both cases
+			codes = new String[units];
+			for (int i = 0; i < units; i++) {
+				codes[i] = String.format("T%07d", i);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public double bytesPerUnit;
+	}
+
+	@Benchmark
+	public void objectInventory(Catalog catalog, Footprint footprint, Blackhole blackhole) {
+		final long before = usedHeapAfterGc();
+		final Inventory inventory = new Inventory();
+		for (int i = 0; i < catalog.units; i++) {
+			inventory.addTool(createTool(catalog.codes[i], i));
+		}
+		footprint.bytesPerUnit = (double) (usedHeapAfterGc() - before) / catalog.units;
+		blackhole.consume(inventory);
+	}
+
+	@Benchmark
+	public void columnarInventory(Catalog catalog, Footprint footprint, Blackhole blackhole) {
+		final List<Tool> tools = new ArrayList<>(catalog.units);
+		for (int i = 0; i < catalog.units; i++) {
+			tools.add(createTool(catalog.codes[i], i));
+		}
+		final long before = usedHeapAfterGc();
+		final ColumnarInventory inventory = new ColumnarInventory(tools);
+		tools.clear();
+		footprint.bytesPerUnit = (double) (usedHeapAfterGc() - before) / catalog.units;
+		blackhole.consume(inventory);
+	}
+
+	private static Tool createTool(String code, int index) {
+		switch (index % 3) {
+		case 0:
+			return new Chainsaw(code, "Stihl");
+		case 1:
+			return new Ladder(code, "Werner");
+		default:
+			return new Jackhammer(code, "Ridgid");
+		}
+	}
+
+	private static long usedHeapAfterGc() {
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+}
@@ -0,0 +1,84 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.journal.JournalCursor;
+import me.tylermoser.toolrental.journal.RentalAgreementJournal;
+import me.tylermoser.toolrental.tools.Ladder;
+
+/**
+ * Measures appending to the rental agreement journal, and scanning it from
+ * start to end as a billing export would. The scan is reported per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+	private static final int SCANNED_RECORDS = 1_000_000;
+
+	private final RentalAgreement rentalAgreement = new RentalAgreement(new Ladder("LADW", "Werner"), 3,
+			LocalDate.of(2020, 7, 2), 2, 10);
+
+	private Path directory;
+	private RentalAgreementJournal scannedJournal;
+	private RentalAgreementJournal appendedJournal;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("journal-benchmark");
+		scannedJournal = new RentalAgreementJournal(directory.resolve("scanned.journal"));
+		for (int i = 0; i < SCANNED_RECORDS; i++) {
+			scannedJournal.append(rentalAgreement);
+		}
+		appendedJournal = new RentalAgreementJournal(directory.resolve("appended.journal"));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		scannedJournal.close();
+		appendedJournal.close();
+		Files.delete(directory.resolve("scanned.journal"));
+		Files.delete(directory.resolve("appended.journal"));
+		Files.delete(directory);
+	}
+
+	@Benchmark
+	public long append() throws IOException {
+		return appendedJournal.append(rentalAgreement);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCANNED_RECORDS)
+	public long scanFinalCharges() {
+		long total = 0;
+		final JournalCursor cursor = scannedJournal.cursor();
+		while (cursor.next()) {
+			total += cursor.getFinalChargeCents();
+		}
+		return total;
+	}
+
+}
@@ -0,0 +1,49 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.metrics.CheckoutMetrics;
+
+/**
+ * Measures the instrumentation that is added to every checkout, from one
+ * thread and from several threads recording into the same metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+	private final CheckoutMetrics metrics = new CheckoutMetrics();
+
+	@Benchmark
+	public void recordCheckout() {
+		recordTimedRental();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void recordCheckoutContended() {
+		recordTimedRental();
+	}
+
+	private void recordTimedRental() {
+		final long startNanos = System.nanoTime();
+		metrics.recordRental("LADW");
+		metrics.recordLatency(System.nanoTime() - startNanos);
+	}
+
+}
@@ -0,0 +1,87 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.ColumnarInventory;
+import me.tylermoser.toolrental.pricing.RangePricer;
+import me.tylermoser.toolrental.pricing.RentalRange;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures pricing a whole catalog for one rental period, one tool at a time
+ * and all at once through a RentalRange.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangePricingBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int inventorySize;
+
+	private final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+	private final int dayCount = 14;
+	private final HolidayCalendar holidayCalendar = HolidayCalendar.getDefault();
+
+	private List<Tool> tools;
+	private ColumnarInventory inventory;
+	private long[] chargeCents;
+
+	@Setup
+	public void setup() {
+		tools = new ArrayList<>(inventorySize);
+		for (int i = 0; i < inventorySize; i++) {
+			switch (i % 3) {
+			case 0:
+				tools.add(new Chainsaw("CHN" + i, "Stihl"));
+				break;
+			case 1:
+				tools.add(new Ladder("LAD" + i, "Werner"));
+				break;
+			default:
+				tools.add(new Jackhammer("JAK" + i, "Ridgid"));
+			}
+		}
+		inventory = new ColumnarInventory(tools);
+		chargeCents = new long[inventorySize];
+	}
+
+	@Benchmark
+	public long[] eachTool() {
+		for (int i = 0; i < inventorySize; i++) {
+			final Tool tool = tools.get(i);
+			chargeCents[i] = tool.getNumberOfRentalDays(checkoutDate, dayCount, holidayCalendar)
+					* tool.getDailyChargeCents();
+		}
+		return chargeCents;
+	}
+
+	@Benchmark
+	public long[] rangePricer() {
+		RangePricer.priceAll(inventory, new RentalRange(checkoutDate, dayCount, holidayCalendar), chargeCents);
+		return chargeCents;
+	}
+
+}
@@ -0,0 +1,72 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.pricing.QuoteCache;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+/**
+ * Measures the charge day calculation for rentals from a single day up to ten
+ * years. The checkout date is just before the 4th of July, so every rental
+ * crosses at least one holiday. The cached quote shows the cost of a quote
+ * cache hit for comparison, and the capped pricing shows the cost of a weekly
+ * cap and minimum charge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalDaysBenchmark {
+
+	@Param({ "1", "7", "30", "365", "3650" })
+	private int dayCount;
+
+	private final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+	private final Tool jackhammer = new Jackhammer("JAKR", "Ridgid");
+	private final Tool ladder = new Ladder("LADW", "Werner");
+	private final QuoteCache quoteCache = new QuoteCache(1024);
+	private final ToolPricing cappedPricing = new ToolPricing(999, true, true, false,
+			Arrays.asList(ChargeRules.weeklyCap(5), ChargeRules.minimumChargeDays(2)));
+
+	@Benchmark
+	public int weekdaysOnly() {
+		return jackhammer.getNumberOfRentalDays(checkoutDate, dayCount);
+	}
+
+	@Benchmark
+	public int weekdaysAndWeekends() {
+		return ladder.getNumberOfRentalDays(checkoutDate, dayCount);
+	}
+
+	@Benchmark
+	public int weeklyCapped() {
+		return cappedPricing.getNumberOfRentalDays(checkoutDate, dayCount, HolidayCalendar.getDefault());
+	}
+
+	@Benchmark
+	public int cachedQuote() {
+		return quoteCache.getQuote(jackhammer.getPricing(), checkoutDate, dayCount, HolidayCalendar.getDefault())
+				.getChargeDays();
+	}
+
+}
@@ -0,0 +1,63 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures rendering a rental agreement report for the first time, and reusing
+ * the cached report afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+
+	private final Tool ladder = new Ladder("LADW", "Werner");
+	private final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+
+	private RentalAgreement cachedAgreement;
+	private ByteBuffer buffer;
+
+	@Setup
+	public void setup() {
+		cachedAgreement = new RentalAgreement(ladder, 3, checkoutDate, 2, 10);
+		buffer = ByteBuffer.allocate(cachedAgreement.getReportByteLength());
+	}
+
+	@Benchmark
+	public String firstReport() {
+		return new RentalAgreement(ladder, 3, checkoutDate, 2, 10).getReport();
+	}
+
+	@Benchmark
+	public String cachedReport() {
+		return cachedAgreement.getReport();
+	}
+
+	@Benchmark
+	public ByteBuffer cachedReportToByteBuffer() {
+		buffer.clear();
+		cachedAgreement.writeReport(buffer);
+		return buffer;
+	}
+
+}
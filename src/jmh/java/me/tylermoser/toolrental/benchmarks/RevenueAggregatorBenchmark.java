@@ -0,0 +1,70 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.metrics.RevenueAggregator;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+/**
+ * Measures recording rental agreements into the revenue totals, from one
+ * thread and from several threads recording into the same aggregator, and the
+ * cost of reading a single total back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevenueAggregatorBenchmark {
+
+	private final RevenueAggregator aggregator = new RevenueAggregator();
+	private final RentalAgreement[] agreements = new RentalAgreement[64];
+	private int next;
+
+	@Setup
+	public void setup() {
+		final LocalDate firstCheckout = LocalDate.of(2020, 1, 1);
+		for (int i = 0; i < agreements.length; i++) {
+			final int kind = i % 3;
+			final String code = "T" + i;
+			agreements[i] = new RentalAgreement(
+					kind == 0 ? new Ladder(code, "Werner")
+							: kind == 1 ? new Chainsaw(code, "Stihl") : new Jackhammer(code, "Ridgid"),
+					1 + i % 10, firstCheckout.plusDays(i * 5), 1 + i % 7, i % 20);
+		}
+	}
+
+	@Benchmark
+	public void record() {
+		aggregator.record(agreements[next++ & (agreements.length - 1)]);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void recordContended() {
+		aggregator.record(agreements[(int) (Thread.currentThread().getId() & (agreements.length - 1))]);
+	}
+
+	@Benchmark
+	public long revenueByToolType() {
+		return aggregator.getRevenueCentsByToolType("Ladder");
+	}
+
+}
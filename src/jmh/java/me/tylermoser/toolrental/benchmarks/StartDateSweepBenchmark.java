@@ -0,0 +1,67 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.pricing.PriceCurve;
+import me.tylermoser.toolrental.pricing.StartDateSweep;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures finding the cheapest checkout date for a rental among thousands of
+ * candidate dates, with a sweep and by creating an agreement for every date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StartDateSweepBenchmark {
+
+	@Param({ "7", "30" })
+	private int dayCount;
+
+	private final int checkoutDateCount = 5000;
+	private final LocalDate firstCheckoutDate = LocalDate.of(2020, 1, 1);
+	private final Tool jackhammer = new Jackhammer("JAKR", "Ridgid");
+	private final HolidayCalendar holidayCalendar = HolidayCalendar.getDefault();
+
+	@Benchmark
+	public LocalDate sweep() {
+		final PriceCurve curve = StartDateSweep.sweep(jackhammer.getPricing(), firstCheckoutDate, checkoutDateCount,
+				dayCount, holidayCalendar);
+		return curve.getCheapestCheckoutDates(1).get(0);
+	}
+
+	@Benchmark
+	public LocalDate agreementPerDate() {
+		LocalDate cheapestDate = null;
+		long cheapestCents = Long.MAX_VALUE;
+		for (int i = 0; i < checkoutDateCount; i++) {
+			final LocalDate checkoutDate = firstCheckoutDate.plusDays(i);
+			final RentalAgreement agreement = new RentalAgreement(jackhammer, dayCount, checkoutDate,
+					jackhammer.getNumberOfRentalDays(checkoutDate, dayCount), 0);
+			if (agreement.getFinalChargeCents() < cheapestCents) {
+				cheapestCents = agreement.getFinalChargeCents();
+				cheapestDate = checkoutDate;
+			}
+		}
+		return cheapestDate;
+	}
+
+}
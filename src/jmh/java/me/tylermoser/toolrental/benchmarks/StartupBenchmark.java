@@ -0,0 +1,132 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.snapshot.InventorySnapshot;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Measures how long a fresh JVM takes to serve its first checkout, when the
+ * inventory is rebuilt one tool at a time and when it is loaded from an
+ * inventory snapshot.
+ * 
+ * Startup can only be measured in a JVM that has not run anything yet, so each
+ * run starts a new java process. Two times are reported: from main() to the
+ * first checkout inside the child, and from starting the process to the child
+ * reporting that checkout, which includes booting the JVM.
+ * 
+ * Arguments, all optional: the number of tools (default 100000) and the number
+ * of runs of each kind (default 5). For example:
+ * 
+ * mvn -P benchmarks test-compile exec:exec -Dexec.classpathScope=test
+ * -Dexec.executable=java -Dexec.args="-classpath %classpath
+ * me.tylermoser.toolrental.benchmarks.StartupBenchmark 100000 5"
+ */
+public class StartupBenchmark {
+
+	private static final String CHILD_OPTION = "--child";
+	private static final String REBUILD = "rebuild";
+	private static final String SNAPSHOT = "snapshot";
+	private static final LocalDate CHECKOUT_DATE = LocalDate.of(2020, 7, 2);
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && CHILD_OPTION.equals(args[0])) {
+			runChild(args[1], Integer.parseInt(args[2]), args.length > 3 ? Paths.get(args[3]) : null);
+			return;
+		}
+
+		final int toolCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		final Path snapshotPath = Files.createTempFile("inventory", ".snapshot");
+		try {
+			final CheckoutService service = new CheckoutService();
+			service.reloadInventory(createTools(toolCount));
+			InventorySnapshot.write(snapshotPath, service.getInventory().getTools(), service.getHolidayCalendar());
+			System.out.println("Wrote a snapshot of " + toolCount + " tools in " + Files.size(snapshotPath)
+					+ " bytes.");
+
+			report(REBUILD, runs, toolCount, null);
+			report(SNAPSHOT, runs, toolCount, snapshotPath);
+		} finally {
+			Files.deleteIfExists(snapshotPath);
+		}
+	}
+
+	private static void report(String mode, int runs, int toolCount, Path snapshotPath) throws Exception {
+		final double[] insideMillis = new double[runs];
+		final double[] processMillis = new double[runs];
+		for (int run = 0; run < runs; run++) {
+			final List<String> command = new ArrayList<>(Arrays.asList(
+					Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-classpath",
+					System.getProperty("java.class.path"), StartupBenchmark.class.getName(), CHILD_OPTION, mode,
+					Integer.toString(toolCount)));
+			if (snapshotPath != null) {
+				command.add(snapshotPath.toString());
+			}
+
+			final long startNanos = System.nanoTime();
+			final Process process = new ProcessBuilder(command).redirectError(new File("/dev/null")).start();
+			try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+				insideMillis[run] = Double.parseDouble(output.readLine());
+				processMillis[run] = (System.nanoTime() - startNanos) / 1e6;
+			}
+			process.waitFor();
+		}
+		Arrays.sort(insideMillis);
+		Arrays.sort(processMillis);
+		System.out.printf("%-8s median from main() %7.1f ms, from process start %7.1f ms%n", mode,
+				insideMillis[runs / 2], processMillis[runs / 2]);
+	}
+
+	private static void runChild(String mode, int toolCount, Path snapshotPath) throws IOException {
+		final long startNanos = System.nanoTime();
+		final CheckoutService service;
+		if (SNAPSHOT.equals(mode)) {
+			final InventorySnapshot snapshot = InventorySnapshot.load(snapshotPath);
+			service = new CheckoutService(new Inventory(), snapshot.getHolidayCalendar());
+			service.reloadInventory(snapshot.getTools());
+		} else {
+			service = new CheckoutService();
+			for (Tool tool : createTools(toolCount)) {
+				service.addToolToInventory(tool);
+			}
+		}
+		service.checkout("T" + (toolCount - 1), 5, 10, CHECKOUT_DATE);
+		System.out.println((System.nanoTime() - startNanos) / 1e6);
+	}
+
+	private static List<Tool> createTools(int toolCount) {
+		final List<Tool> tools = new ArrayList<>(toolCount);
+		for (int i = 0; i < toolCount; i++) {
+			final String code = "T" + i;
+			switch (i % 3) {
+			case 0:
+				tools.add(new Ladder(code, "Werner"));
+				break;
+			case 1:
+				tools.add(new Chainsaw(code, "Stihl"));
+				break;
+			default:
+				tools.add(new Jackhammer(code, "Ridgid"));
+			}
+		}
+		return tools;
+	}
+
+}
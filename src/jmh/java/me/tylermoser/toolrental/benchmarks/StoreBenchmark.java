@@ -0,0 +1,67 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.stores.Store;
+import me.tylermoser.toolrental.stores.StoreCheckoutService;
+import me.tylermoser.toolrental.stores.StoreMatch;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+/**
+ * Measures finding the nearest store with a free jackhammer, when only every
+ * tenth store stocks them, and looking up a single store's checkout service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+	private static final LocalDate CHECKOUT_DATE = LocalDate.of(2020, 7, 2);
+	private static final int TOOLS_PER_STORE = 50;
+
+	@Param({ "10", "200" })
+	public int storeCount;
+
+	private final StoreCheckoutService storeCheckoutService = new StoreCheckoutService();
+
+	@Setup
+	public void setup() {
+		for (int s = 0; s < storeCount; s++) {
+			final CheckoutService checkoutService = storeCheckoutService
+					.addStore(new Store("S" + s, "Store " + s, 30 + s % 20, -120 + s / 20));
+			for (int i = 0; i < TOOLS_PER_STORE; i++) {
+				checkoutService.addToolToInventory(s % 10 == 0 && i % 5 == 0 ? new Jackhammer("J" + i, "Ridgid")
+						: new Ladder("L" + i, "Werner"));
+			}
+		}
+	}
+
+	@Benchmark
+	public StoreMatch findNearestStoreWithJackhammer() {
+		return storeCheckoutService.findNearestStoreWithTool("Jackhammer", CHECKOUT_DATE, 3, 40, -100);
+	}
+
+	@Benchmark
+	public CheckoutService getCheckoutService() {
+		return storeCheckoutService.getCheckoutService("S3");
+	}
+
+}
@@ -0,0 +1,88 @@
+package me.tylermoser.toolrental.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.wire.RentalAgreementEncoder;
+import me.tylermoser.toolrental.wire.RentalAgreementFlyweight;
+
+/**
+ * Compares the binary wire format with the text report, for encoding a new
+ * agreement and for reading the final charge back out of the encoded bytes.
+ * The ladder agreement used here is 63 bytes in the binary format and 245
+ * bytes as text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	private static final String FINAL_CHARGE_LABEL = "Final charge: $";
+
+	private final Tool ladder = new Ladder("LADW", "Werner");
+	private final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+	private final RentalAgreementFlyweight flyweight = new RentalAgreementFlyweight();
+
+	private ByteBuffer binaryBuffer;
+	private ByteBuffer encodedBinary;
+	private String encodedText;
+
+	@Setup
+	public void setup() {
+		final RentalAgreement rentalAgreement = new RentalAgreement(ladder, 3, checkoutDate, 2, 10);
+		binaryBuffer = ByteBuffer.allocateDirect(256);
+		encodedBinary = ByteBuffer.allocateDirect(256);
+		RentalAgreementEncoder.encode(rentalAgreement, encodedBinary);
+		encodedText = rentalAgreement.getReport();
+	}
+
+	@Benchmark
+	public ByteBuffer encodeBinary() {
+		binaryBuffer.clear();
+		RentalAgreementEncoder.encode(new RentalAgreement(ladder, 3, checkoutDate, 2, 10),
+				binaryBuffer);
+		return binaryBuffer;
+	}
+
+	@Benchmark
+	public String encodeText() {
+		return new RentalAgreement(ladder, 3, checkoutDate, 2, 10).getReport();
+	}
+
+	@Benchmark
+	public long decodeBinaryFinalCharge() {
+		return flyweight.wrap(encodedBinary, 0).getFinalChargeCents();
+	}
+
+	@Benchmark
+	public long decodeTextFinalCharge() {
+		// What a downstream service has to do with the report today
+		final int start = encodedText.indexOf(FINAL_CHARGE_LABEL) + FINAL_CHARGE_LABEL.length();
+		int end = encodedText.indexOf('\n', start);
+		if (end < 0) {
+			end = encodedText.length();
+		}
+		final String amount = encodedText.substring(start, end).replace(",", "");
+		final int point = amount.indexOf('.');
+		return Long.parseLong(amount.substring(0, point)) * 100 + Long.parseLong(amount.substring(point + 1));
+	}
+
+}
@@ -0,0 +1,300 @@
+package me.tylermoser.toolrental;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checkouts that return a CompletableFuture instead of blocking the caller, for
+ * callers that are themselves event-driven.
+ * 
+ * Each checkout runs as a pipeline of two stages, each on its own fixed pool of
+ * threads:
+ * 
+ * 1. The checkout stage runs CheckoutService.checkout, which validates the
+ * request, looks up the tool, calculates the charge days and reserves the tool.
+ * These steps each take well under a microsecond, so they are kept in one
+ * stage. Handing a request between threads costs more than any of them.
+ * 
+ * 2. The notification stage gives the agreement to the async rental listeners,
+ * such as a journal that persists it, and publishes it to the subscribers of
+ * getAgreementPublisher(). This stage is skipped, without changing threads,
+ * when there is nobody to notify.
+ * 
+ * The future completes with the agreement once both stages are done. A
+ * validation failure completes it exceptionally with the
+ * ToolRentalValidationException as the cause, so the caller never has to catch
+ * it on the calling thread. If an async listener fails, the future fails with
+ * the listener's exception, but the rental has still been made.
+ * 
+ * Only a fixed number of checkouts can be in flight at once. When that many are
+ * already in flight, checkoutAsync returns a future that has already failed
+ * with a RejectedExecutionException, rather than queueing the request. A burst
+ * of requests therefore cannot queue without limit, and the caller can decide
+ * whether to retry, slow down or report the failure. The same limit bounds the
+ * queues of both thread pools.
+ * 
+ * The agreement publisher delivers to its subscribers on its own fixed pool of
+ * threads, and buffers as many agreements per subscriber as can be in flight,
+ * rounded up to a power of two.
+ * A subscriber that falls behind fills its buffer, after which the
+ * notification stage waits up to 100 milliseconds for room. That holds on to
+ * the checkouts in flight, so a slow subscriber also slows down new checkouts
+ * rather than letting agreements pile up in memory. If there is still no room,
+ * the agreement is dropped for that subscriber and counted by
+ * getDroppedCount(), so a subscriber that stops requesting cannot stall
+ * checkouts forever. The rental itself still succeeds.
+ * 
+ * Closing the service waits up to 30 seconds for the checkouts in flight. Any
+ * still in flight after that, such as ones held up by a listener that never
+ * returns, are interrupted and their futures fail with a
+ * RejectedExecutionException, although their rentals may have been made.
+ */
+public class AsyncCheckoutService implements AutoCloseable {
+
+	private static final Logger LOGGER = Logger.getLogger(AsyncCheckoutService.class.getName());
+	private static final int DEFAULT_MAXIMUM_IN_FLIGHT = 1024;
+	private static final long PUBLISH_TIMEOUT_MILLIS = 100;
+	private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+	private final CheckoutService checkoutService;
+	private final int maximumInFlight;
+	private final Semaphore inFlightPermits;
+	private final ExecutorService checkoutExecutor;
+	private final ExecutorService notificationExecutor;
+	private final ExecutorService publisherExecutor;
+	private final SubmissionPublisher<RentalAgreement> agreementPublisher;
+	private final List<Consumer<? super RentalAgreement>> asyncRentalListeners = new CopyOnWriteArrayList<>();
+	private final Set<CompletableFuture<RentalAgreement>> inFlight = ConcurrentHashMap.newKeySet();
+	private final LongAdder rejections = new LongAdder();
+	private final LongAdder drops = new LongAdder();
+
+	/**
+	 * Creates a pipeline with a checkout thread per processor, a single
+	 * notification thread, and up to 1024 checkouts in flight
+	 * 
+	 * @param checkoutService The service to checkout with
+	 */
+	public AsyncCheckoutService(CheckoutService checkoutService) {
+		this(checkoutService, Runtime.getRuntime().availableProcessors(), 1, DEFAULT_MAXIMUM_IN_FLIGHT);
+	}
+
+	/**
+	 * @param checkoutService     The service to checkout with
+	 * @param checkoutThreads     The number of threads for the checkout stage
+	 * @param notificationThreads The number of threads for the notification
+	 *                            stage, and for delivering agreements to
+	 *                            subscribers. With one thread, listeners are
+	 *                            given agreements one at a time.
+	 * @param maximumInFlight     The most checkouts that can be accepted but not
+	 *                            yet completed, and the most agreements buffered
+	 *                            for each subscriber
+	 */
+	public AsyncCheckoutService(CheckoutService checkoutService, int checkoutThreads, int notificationThreads,
+			int maximumInFlight) {
+		if (checkoutThreads < 1 || notificationThreads < 1 || maximumInFlight < 1) {
+			throw new IllegalArgumentException("Thread counts and the maximum in flight must be at least one.");
+		}
+		this.checkoutService = checkoutService;
+		this.maximumInFlight = maximumInFlight;
+		this.inFlightPermits = new Semaphore(maximumInFlight);
+		this.checkoutExecutor = Executors.newFixedThreadPool(checkoutThreads, newThreadFactory("checkout-async-"));
+		this.notificationExecutor = Executors.newFixedThreadPool(notificationThreads,
+				newThreadFactory("checkout-notify-"));
+		this.publisherExecutor = Executors.newFixedThreadPool(notificationThreads,
+				newThreadFactory("checkout-publish-"));
+		this.agreementPublisher = new SubmissionPublisher<>(publisherExecutor, maximumInFlight);
+	}
+
+	/**
+	 * Starts a checkout without waiting for it
+	 * 
+	 * @param code            The code for the tool being rented
+	 * @param dayCount        The number of days the tool will be rented
+	 * @param discountPercent The discount applied at checkout
+	 * @param checkoutDate    The date that the rental will begin
+	 * @return A future for the RentalAgreement. It fails with a
+	 *         RejectedExecutionException if too many checkouts are in flight or
+	 *         the service is closed.
+	 */
+	public CompletableFuture<RentalAgreement> checkoutAsync(String code, int dayCount, int discountPercent,
+			LocalDate checkoutDate) {
+		if (!inFlightPermits.tryAcquire()) {
+			rejections.increment();
+			return CompletableFuture.failedFuture(
+					new RejectedExecutionException("There are already " + maximumInFlight + " checkouts in flight."));
+		}
+
+		final CompletableFuture<RentalAgreement> checkedOut;
+		try {
+			checkedOut = CompletableFuture.supplyAsync(
+					() -> checkoutService.checkout(code, dayCount, discountPercent, checkoutDate), checkoutExecutor);
+		} catch (RejectedExecutionException e) {
+			inFlightPermits.release();
+			rejections.increment();
+			return CompletableFuture.failedFuture(e);
+		}
+
+		final CompletableFuture<RentalAgreement> result = checkedOut.thenCompose(this::notifyAsync)
+				.whenComplete((rentalAgreement, failure) -> inFlightPermits.release());
+		inFlight.add(result);
+		result.whenComplete((rentalAgreement, failure) -> inFlight.remove(result));
+		return result;
+	}
+
+	/**
+	 * Adds a listener that is given every agreement checked out through this
+	 * pipeline, on a notification thread, before its future completes. This is
+	 * the place for slower work such as persisting the agreement.
+	 * 
+	 * @param listener The listener, which must be thread safe if there is more
+	 *                 than one notification thread
+	 */
+	public void addAsyncRentalListener(Consumer<? super RentalAgreement> listener) {
+		asyncRentalListeners.add(Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Removes a listener added with addAsyncRentalListener
+	 * 
+	 * @param listener The listener to remove
+	 * @return True if the listener was removed
+	 */
+	public boolean removeAsyncRentalListener(Consumer<? super RentalAgreement> listener) {
+		return asyncRentalListeners.remove(listener);
+	}
+
+	/**
+	 * Stops accepting checkouts, waits up to 30 seconds for the checkouts in
+	 * flight to finish both stages, and then completes the agreement publisher
+	 */
+	@Override
+	public void close() {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT_SECONDS);
+		// The checkout stage hands work to the notification stage, so it has to
+		// finish first
+		final boolean finished = awaitShutdown(checkoutExecutor, deadline)
+				&& awaitShutdown(notificationExecutor, deadline);
+		if (!finished) {
+			checkoutExecutor.shutdownNow();
+			notificationExecutor.shutdownNow();
+			failInFlight();
+		}
+		agreementPublisher.close();
+		publisherExecutor.shutdown();
+	}
+
+	/**
+	 * Runs the notification stage for an agreement, or skips it when there are no
+	 * listeners or subscribers
+	 */
+	private CompletableFuture<RentalAgreement> notifyAsync(RentalAgreement rentalAgreement) {
+		if (asyncRentalListeners.isEmpty() && !agreementPublisher.hasSubscribers()) {
+			return CompletableFuture.completedFuture(rentalAgreement);
+		}
+		return CompletableFuture.supplyAsync(() -> notifyListeners(rentalAgreement), notificationExecutor);
+	}
+
+	/**
+	 * Gives an agreement to every async listener and subscriber. Publishing waits
+	 * a short time while a subscriber's buffer is full, and then drops the
+	 * agreement for that subscriber.
+	 */
+	private RentalAgreement notifyListeners(RentalAgreement rentalAgreement) {
+		for (Consumer<? super RentalAgreement> listener : asyncRentalListeners) {
+			listener.accept(rentalAgreement);
+		}
+		if (agreementPublisher.hasSubscribers()) {
+			agreementPublisher.offer(rentalAgreement, PUBLISH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS,
+					(subscriber, dropped) -> {
+						drops.increment();
+						return false;
+					});
+		}
+		return rentalAgreement;
+	}
+
+	/**
+	 * Fails the future of every checkout still in flight after the service gave
+	 * up waiting for it
+	 */
+	private void failInFlight() {
+		LOGGER.log(Level.WARNING, inFlight.size() + " checkouts were still in flight when the service closed.");
+		for (CompletableFuture<RentalAgreement> future : inFlight) {
+			future.completeExceptionally(
+					new RejectedExecutionException("The service closed before the checkout finished."));
+		}
+	}
+
+	/**
+	 * Shuts down an executor and waits for its tasks to finish
+	 * 
+	 * @param deadline The System.nanoTime() to stop waiting at
+	 * @return True if every task finished
+	 */
+	private static boolean awaitShutdown(ExecutorService executor, long deadline) {
+		executor.shutdown();
+		try {
+			return executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static ThreadFactory newThreadFactory(String namePrefix) {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return runnable -> {
+			final Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/*
+	 * The agreement publisher only sees agreements checked out after a subscriber
+	 * subscribes.
+	 */
+
+	public CheckoutService getCheckoutService() {
+		return checkoutService;
+	}
+
+	public Flow.Publisher<RentalAgreement> getAgreementPublisher() {
+		return agreementPublisher;
+	}
+
+	public int getMaximumInFlight() {
+		return maximumInFlight;
+	}
+
+	public int getInFlightCount() {
+		return maximumInFlight - inFlightPermits.availablePermits();
+	}
+
+	public long getRejectedCount() {
+		return rejections.sum();
+	}
+
+	public long getDroppedCount() {
+		return drops.sum();
+	}
+
+}
@@ -0,0 +1,280 @@
+package me.tylermoser.toolrental;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+import me.tylermoser.toolrental.journal.RentalAgreementJournal;
+
+/**
+ * Runs checkouts from a file of requests, such as a day of point-of-sale
+ * transactions, and writes every agreement or error to an output file.
+ * 
+ * Each line of the input is a request in the form
+ * "code,dayCount,discountPercent,MM/dd/yy". Blank lines and lines starting
+ * with # are skipped.
+ * 
+ * The input is read in chunks of lines. Each chunk is checked out and rendered
+ * to text on a worker thread, and the rendered chunks are written in the same
+ * order they were read. Only a fixed number of chunks are in flight at once, so
+ * memory use is bounded no matter how large the input is.
+ * 
+ * Given a journal, every agreement is appended to it before its row counts as
+ * a rental. A row whose append fails is reported as a failure and its rental
+ * is cancelled, and run() does not return until every appended agreement is on
+ * disk.
+ * 
+ * Note: Rows run in parallel, so if the service tracks availability, the row
+ * that wins an overlapping rental is not necessarily the first in the file.
+ */
+public class BulkCheckoutRunner {
+
+	private static final DateTimeFormatter DATE_FORMATTER = ofPattern("MM/dd/yy");
+	private static final String COMMENT_PREFIX = "#";
+	private static final int FIELD_COUNT = 4;
+
+	private final CheckoutService checkoutService;
+	private final RentalAgreementJournal journal;
+	private final int chunkSize;
+	private final int parallelism;
+
+	/**
+	 * Creates a runner with 1024 line chunks, and one worker per processor, that
+	 * does not journal its rentals
+	 * 
+	 * @param checkoutService The service to checkout with
+	 */
+	public BulkCheckoutRunner(CheckoutService checkoutService) {
+		this(checkoutService, null);
+	}
+
+	/**
+	 * Creates a runner with 1024 line chunks, and one worker per processor
+	 * 
+	 * @param checkoutService The service to checkout with
+	 * @param journal         The journal to record every rental in, or null to
+	 *                        not journal rentals
+	 */
+	public BulkCheckoutRunner(CheckoutService checkoutService, RentalAgreementJournal journal) {
+		this(checkoutService, journal, 1024, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a runner that does not journal its rentals
+	 * 
+	 * @param checkoutService The service to checkout with
+	 * @param chunkSize       The number of lines given to a worker at once
+	 * @param parallelism     The number of worker threads
+	 */
+	public BulkCheckoutRunner(CheckoutService checkoutService, int chunkSize, int parallelism) {
+		this(checkoutService, null, chunkSize, parallelism);
+	}
+
+	/**
+	 * @param checkoutService The service to checkout with
+	 * @param journal         The journal to record every rental in, or null to
+	 *                        not journal rentals
+	 * @param chunkSize       The number of lines given to a worker at once
+	 * @param parallelism     The number of worker threads
+	 * @throws IllegalArgumentException If the chunk size or parallelism is less
+	 *                                  than one
+	 */
+	public BulkCheckoutRunner(CheckoutService checkoutService, RentalAgreementJournal journal, int chunkSize,
+			int parallelism) {
+		if (chunkSize < 1 || parallelism < 1) {
+			throw new IllegalArgumentException("The chunk size and parallelism must be at least one.");
+		}
+		this.checkoutService = checkoutService;
+		this.journal = journal;
+		this.chunkSize = chunkSize;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Checks out every request in the input
+	 * 
+	 * @param input  The requests, one per line
+	 * @param output Where to write the agreements and errors, in input order
+	 * @return The totals for the run
+	 * @throws IOException          If reading or writing fails, or the journal
+	 *                              could not be forced to disk
+	 * @throws InterruptedException If the thread is interrupted while waiting on
+	 *                              the workers
+	 */
+	public BulkCheckoutSummary run(BufferedReader input, Writer output) throws IOException, InterruptedException {
+		final long startNanos = System.nanoTime();
+		final ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+		final Queue<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+		final int maximumInFlight = parallelism * 2;
+		long rowCount = 0;
+		long rentalCount = 0;
+		long failureCount = 0;
+		long lineNumber = 0;
+		long lastSequence = -1;
+
+		try {
+			boolean endOfInput = false;
+			while (!endOfInput || !inFlight.isEmpty()) {
+				while (!endOfInput && inFlight.size() < maximumInFlight) {
+					final long firstLineNumber = lineNumber + 1;
+					final List<String> lines = new ArrayList<>(chunkSize);
+					String line;
+					while (lines.size() < chunkSize && (line = input.readLine()) != null) {
+						lines.add(line);
+					}
+					lineNumber += lines.size();
+					endOfInput = lines.size() < chunkSize;
+					if (!lines.isEmpty()) {
+						inFlight.add(workers.submit(() -> checkoutChunk(firstLineNumber, lines)));
+					}
+				}
+
+				if (!inFlight.isEmpty()) {
+					final ChunkResult result = getResult(inFlight.remove());
+					output.write(result.output);
+					rowCount += result.rentalCount + result.failureCount;
+					rentalCount += result.rentalCount;
+					failureCount += result.failureCount;
+					lastSequence = Math.max(lastSequence, result.lastSequence);
+				}
+			}
+			output.flush();
+		} finally {
+			workers.shutdownNow();
+		}
+
+		// The workers' appends share group commits, so only the last one is waited on
+		if (lastSequence >= 0) {
+			journal.awaitDurable(lastSequence);
+		}
+
+		return new BulkCheckoutSummary(rowCount, rentalCount, failureCount, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Checks out and renders every request in a chunk of lines
+	 */
+	private ChunkResult checkoutChunk(long firstLineNumber, List<String> lines) {
+		final StringBuilder output = new StringBuilder(lines.size() * 320);
+		int rentalCount = 0;
+		int failureCount = 0;
+		long lastSequence = -1;
+
+		for (int i = 0; i < lines.size(); i++) {
+			final String line = lines.get(i).trim();
+			if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+				continue;
+			}
+			try {
+				final CheckoutRequest request = parseRequest(line);
+				final RentalAgreement rentalAgreement = checkoutService.checkout(request.getCode(),
+						request.getDayCount(), request.getDiscountPercent(), request.getCheckoutDate());
+				if (journal != null) {
+					lastSequence = Math.max(lastSequence, appendToJournal(rentalAgreement));
+				}
+				rentalAgreement.writeReport(output);
+				rentalCount++;
+			} catch (ToolRentalValidationException | IllegalArgumentException | DateTimeParseException e) {
+				appendFailure(output, firstLineNumber + i, e.getMessage());
+				failureCount++;
+			} catch (JournalAppendException e) {
+				appendFailure(output, firstLineNumber + i, "The rental could not be journaled. " + e.getMessage());
+				failureCount++;
+			} catch (IOException e) {
+				// A StringBuilder never throws an IOException
+				throw new IllegalStateException(e);
+			}
+			output.append("\n\n");
+		}
+		return new ChunkResult(output.toString(), rentalCount, failureCount, lastSequence);
+	}
+
+	/**
+	 * Appends an agreement to the journal, cancelling its rental if the append
+	 * fails
+	 * 
+	 * @return The sequence number of the record
+	 */
+	private long appendToJournal(RentalAgreement rentalAgreement) throws JournalAppendException {
+		try {
+			return journal.append(rentalAgreement);
+		} catch (IOException | RuntimeException e) {
+			checkoutService.cancelRental(rentalAgreement);
+			throw new JournalAppendException(e);
+		}
+	}
+
+	private static void appendFailure(StringBuilder output, long lineNumber, String message) {
+		output.append("Line ").append(lineNumber).append(": ").append(message);
+	}
+
+	/**
+	 * Parses a line in the form "code,dayCount,discountPercent,MM/dd/yy"
+	 */
+	private static CheckoutRequest parseRequest(String line) {
+		final String[] fields = line.split(",", -1);
+		if (fields.length != FIELD_COUNT) {
+			throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields but found " + fields.length
+					+ " in \"" + line + "\".");
+		}
+		return new CheckoutRequest(fields[0].trim(), Integer.parseInt(fields[1].trim()),
+				Integer.parseInt(fields[2].trim()), LocalDate.parse(fields[3].trim(), DATE_FORMATTER));
+	}
+
+	private static ChunkResult getResult(Future<ChunkResult> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * The rendered output of a chunk of lines
+	 */
+	private static final class ChunkResult {
+
+		private final String output;
+		private final int rentalCount;
+		private final int failureCount;
+		private final long lastSequence;
+
+		ChunkResult(String output, int rentalCount, int failureCount, long lastSequence) {
+			this.output = output;
+			this.rentalCount = rentalCount;
+			this.failureCount = failureCount;
+			this.lastSequence = lastSequence;
+		}
+	}
+
+	/**
+	 * Thrown when an agreement could not be appended to the journal, so that the
+	 * failure is reported separately from a rejected request
+	 */
+	private static final class JournalAppendException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		JournalAppendException(Exception cause) {
+			super(cause.getMessage(), cause, false, false);
+		}
+	}
+
+}
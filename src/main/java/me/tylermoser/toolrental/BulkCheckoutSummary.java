@@ -0,0 +1,51 @@
+package me.tylermoser.toolrental;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The totals from a bulk checkout run
+ */
+public class BulkCheckoutSummary {
+
+	private final long rowCount;
+	private final long rentalCount;
+	private final long failureCount;
+	private final long elapsedNanos;
+
+	public BulkCheckoutSummary(long rowCount, long rentalCount, long failureCount, long elapsedNanos) {
+		this.rowCount = rowCount;
+		this.rentalCount = rentalCount;
+		this.failureCount = failureCount;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns the number of rows processed per second of the run
+	 */
+	public double getRowsPerSecond() {
+		return elapsedNanos == 0 ? 0 : rowCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	public long getRentalCount() {
+		return rentalCount;
+	}
+
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Processed %d rows (%d rentals, %d failures) in %.3f seconds, %.0f rows per second.",
+				rowCount, rentalCount, failureCount, elapsedNanos / 1e9, getRowsPerSecond());
+	}
+
+}
@@ -0,0 +1,44 @@
+package me.tylermoser.toolrental;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The information needed to checkout a single tool, used when many checkouts
+ * are submitted at once.
+ */
+public class CheckoutRequest {
+
+	private final String code;
+	private final int dayCount;
+	private final int discountPercent;
+	private final LocalDate checkoutDate;
+
+	public CheckoutRequest(String code, int dayCount, int discountPercent, LocalDate checkoutDate) {
+		this.code = code;
+		this.dayCount = dayCount;
+		this.discountPercent = discountPercent;
+		this.checkoutDate = Objects.requireNonNull(checkoutDate, "checkoutDate");
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public int getDayCount() {
+		return dayCount;
+	}
+
+	public int getDiscountPercent() {
+		return discountPercent;
+	}
+
+	public LocalDate getCheckoutDate() {
+		return checkoutDate;
+	}
+
+	public String toString() {
+		return code + " for " + dayCount + " days at " + discountPercent + "% from " + checkoutDate;
+	}
+
+}
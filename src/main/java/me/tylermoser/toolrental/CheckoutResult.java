@@ -0,0 +1,73 @@
+package me.tylermoser.toolrental;
+
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+
+/**
+ * The outcome of a single checkout within a batch. Either a rental agreement
+ * was created, or the request failed and the reason is kept here instead of
+ * being thrown. Most failures are validation failures, but any other exception
+ * from a single request, such as a charge too large to represent, is kept here
+ * too.
+ */
+public class CheckoutResult {
+
+	private final CheckoutRequest request;
+	private final RentalAgreement rentalAgreement;
+	private final RuntimeException failure;
+
+	private CheckoutResult(CheckoutRequest request, RentalAgreement rentalAgreement, RuntimeException failure) {
+		this.request = request;
+		this.rentalAgreement = rentalAgreement;
+		this.failure = failure;
+	}
+
+	/**
+	 * Creates the result of a checkout that produced a rental agreement
+	 */
+	public static CheckoutResult success(CheckoutRequest request, RentalAgreement rentalAgreement) {
+		return new CheckoutResult(request, rentalAgreement, null);
+	}
+
+	/**
+	 * Creates the result of a checkout that failed
+	 */
+	public static CheckoutResult failure(CheckoutRequest request, RuntimeException failure) {
+		return new CheckoutResult(request, null, failure);
+	}
+
+	public boolean isSuccessful() {
+		return rentalAgreement != null;
+	}
+
+	public CheckoutRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * Returns the rental agreement, or null if the checkout failed
+	 */
+	public RentalAgreement getRentalAgreement() {
+		return rentalAgreement;
+	}
+
+	/**
+	 * Returns the reason the checkout failed validation, or null if it succeeded
+	 * or failed for another reason
+	 */
+	public ToolRentalValidationException getValidationFailure() {
+		return failure instanceof ToolRentalValidationException ? (ToolRentalValidationException) failure : null;
+	}
+
+	/**
+	 * Returns the reason the checkout failed, whether or not it was a validation
+	 * failure, or null if it succeeded
+	 */
+	public RuntimeException getFailure() {
+		return failure;
+	}
+
+	public String toString() {
+		return isSuccessful() ? rentalAgreement.toString() : failure.toString();
+	}
+
+}
@@ -2,12 +2,31 @@ package me.tylermoser.toolrental;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import me.tylermoser.toolrental.availability.AvailabilityIndex;
+import me.tylermoser.toolrental.exceptions.InvalidCheckoutDateCountException;
 import me.tylermoser.toolrental.exceptions.InvalidDayCountException;
 import me.tylermoser.toolrental.exceptions.InvalidDiscountException;
 import me.tylermoser.toolrental.exceptions.ToolNotFoundException;
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.metrics.CheckoutMetrics;
+import me.tylermoser.toolrental.pricing.PriceCurve;
+import me.tylermoser.toolrental.pricing.StartDateSweep;
 import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
 
 /**
  * The primary service used to create a rental.
@@ -19,18 +38,95 @@ import me.tylermoser.toolrental.tools.Tool;
  * While the requirements do not explicitly state it, I would prefer that this
  * application be able to handle many different sets of tools. Tools can be
  * added and removed from the inventory at will.
+ * 
+ * Each instance of the service has its own inventory, so separate stores can
+ * each run their own service. The configuration of a service never changes
+ * after it is created, and the inventory is safe for concurrent use, so a
+ * single instance can be shared by any number of request threads without
+ * locking on the checkout path.
+ * 
+ * Every checkout is recorded in the service's CheckoutMetrics.
+ * 
+ * A service created with an AvailabilityIndex reserves each tool for the
+ * rental period at checkout, and rejects a checkout that overlaps an existing
+ * rental of the same tool. Without one, availability is not tracked.
+ * 
+ * Rental listeners, such as a RevenueAggregator, are given each agreement as it
+ * is created, on the thread that checked it out. The rental has already been
+ * made by then, so a listener that throws is logged and counted in the metrics,
+ * and the checkout still returns its agreement.
  */
 public class CheckoutService {
 
-	private static List<Tool> inventory = new ArrayList<>();
+	private static final Logger LOGGER = Logger.getLogger(CheckoutService.class.getName());
+
+	// Nothing is ever reserved in this index, so every tool in it is available
+	private static final AvailabilityIndex NO_RESERVATIONS = new AvailabilityIndex();
+
+	// A hundred years of checkout dates, far more than anyone picks a start date from
+	private static final int MAX_CHECKOUT_DATE_COUNT = 36_500;
+
+	private final Inventory inventory;
+	private final HolidayCalendar holidayCalendar;
+	private final CheckoutMetrics metrics;
+	private final AvailabilityIndex availabilityIndex;
+	private final List<Consumer<? super RentalAgreement>> rentalListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a service with an empty inventory that observes the standard
+	 * holidays
+	 */
+	public CheckoutService() {
+		this(new Inventory(), HolidayCalendar.getDefault());
+	}
+
+	/**
+	 * Creates a service over an existing inventory and holiday calendar
+	 * 
+	 * @param inventory       The tools available to rent
+	 * @param holidayCalendar The holidays observed when calculating charge days
+	 */
+	public CheckoutService(Inventory inventory, HolidayCalendar holidayCalendar) {
+		this(inventory, holidayCalendar, new CheckoutMetrics());
+	}
+
+	/**
+	 * Creates a service over an existing inventory and holiday calendar, that
+	 * records its checkouts in existing metrics
+	 * 
+	 * @param inventory       The tools available to rent
+	 * @param holidayCalendar The holidays observed when calculating charge days
+	 * @param metrics         The metrics to record checkouts in
+	 */
+	public CheckoutService(Inventory inventory, HolidayCalendar holidayCalendar, CheckoutMetrics metrics) {
+		this(inventory, holidayCalendar, metrics, null);
+	}
+
+	/**
+	 * Creates a service that records its checkouts in existing metrics, and
+	 * reserves tools in an availability index
+	 * 
+	 * @param inventory         The tools available to rent
+	 * @param holidayCalendar   The holidays observed when calculating charge days
+	 * @param metrics           The metrics to record checkouts in
+	 * @param availabilityIndex The reservations of each tool, or null to allow
+	 *                          overlapping rentals of the same tool
+	 */
+	public CheckoutService(Inventory inventory, HolidayCalendar holidayCalendar, CheckoutMetrics metrics,
+			AvailabilityIndex availabilityIndex) {
+		this.inventory = inventory;
+		this.holidayCalendar = holidayCalendar;
+		this.metrics = metrics;
+		this.availabilityIndex = availabilityIndex;
+	}
 
 	/**
 	 * Add a single tool to the rental inventory
 	 * 
 	 * @param tool The tool to add
 	 */
-	public static void addToolToInventory(Tool tool) {
-		inventory.add(tool);
+	public void addToolToInventory(Tool tool) {
+		inventory.addTool(tool);
 	}
 
 	/**
@@ -38,8 +134,18 @@ public class CheckoutService {
 	 * 
 	 * @param tool The tool to remove from the inventory
 	 */
-	public static void removeToolFromInventory(Tool tool) {
-		inventory.remove(tool);
+	public void removeToolFromInventory(Tool tool) {
+		inventory.removeTool(tool);
+	}
+
+	/**
+	 * Replace the entire rental inventory at once. Checkouts running at the same
+	 * time see either the old inventory or the new one, never a mix of the two.
+	 * 
+	 * @param tools The complete catalog of tools
+	 */
+	public void reloadInventory(Collection<? extends Tool> tools) {
+		inventory.reload(tools);
 	}
 
 	/**
@@ -51,15 +157,228 @@ public class CheckoutService {
 	 * @param checkoutDate    The date that the rental will begin
 	 * @return A RentalAgreement used to view all the information for a rental
 	 */
-	public static RentalAgreement checkout(String code, int dayCount, int discountPercent, LocalDate checkoutDate) {
+	public RentalAgreement checkout(String code, int dayCount, int discountPercent, LocalDate checkoutDate) {
+		final long startNanos = System.nanoTime();
+		try {
+			validateDayCount(dayCount);
+			validateDiscount(discountPercent);
+
+			final Tool toolToCheckout = inventory.findTool(code);
+			validateTool(toolToCheckout, code);
+
+			// Prices can be reloaded at any time, so read them once for the whole checkout
+			final ToolPricing pricing = toolToCheckout.getPricing();
+			final int chargeDays = pricing.getNumberOfRentalDays(checkoutDate, dayCount, holidayCalendar);
+			reserve(code, checkoutDate, dayCount);
+			final RentalAgreement rentalAgreement = new RentalAgreement(toolToCheckout, pricing, dayCount,
+					checkoutDate, chargeDays, discountPercent);
+			metrics.recordRental(code);
+			notifyRentalListeners(rentalAgreement);
+			return rentalAgreement;
+		} catch (ToolRentalValidationException e) {
+			metrics.recordValidationFailure(e);
+			throw e;
+		} finally {
+			metrics.recordLatency(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Creates the rental agreement that a checkout would produce, without
+	 * reserving the tool or recording a rental. This is meant for showing prices
+	 * to a customer before they commit to a rental.
+	 * 
+	 * @param code            The code for the tool that would be rented
+	 * @param dayCount        The number of days the tool would be rented
+	 * @param discountPercent The discount that would be applied at checkout
+	 * @param checkoutDate    The date that the rental would begin
+	 * @return A RentalAgreement showing what the rental would cost
+	 */
+	public RentalAgreement quote(String code, int dayCount, int discountPercent, LocalDate checkoutDate) {
 		validateDayCount(dayCount);
 		validateDiscount(discountPercent);
 
-		final Tool toolToCheckout = findTool(code);
-		validateTool(toolToCheckout, code);
+		final Tool toolToQuote = inventory.findTool(code);
+		validateTool(toolToQuote, code);
+
+		final ToolPricing pricing = toolToQuote.getPricing();
+		return new RentalAgreement(toolToQuote, pricing, dayCount, checkoutDate,
+				pricing.getNumberOfRentalDays(checkoutDate, dayCount, holidayCalendar), discountPercent);
+	}
+
+	/**
+	 * Prices a rental for each of a range of consecutive checkout dates, without
+	 * reserving the tool, so that a customer can pick the cheapest day to start
+	 * 
+	 * @param code              The code for the tool that would be rented
+	 * @param dayCount          The number of days the tool would be rented
+	 * @param firstCheckoutDate The earliest checkout date to price
+	 * @param checkoutDateCount The number of consecutive checkout dates to price,
+	 *                          from 1 to 36500
+	 * @return The charges for each checkout date, before any discount
+	 */
+	public PriceCurve quoteCheckoutDates(String code, int dayCount, LocalDate firstCheckoutDate,
+			int checkoutDateCount) {
+		validateDayCount(dayCount);
+		validateCheckoutDateCount(checkoutDateCount);
+
+		final Tool toolToQuote = inventory.findTool(code);
+		validateTool(toolToQuote, code);
+
+		return StartDateSweep.sweep(toolToQuote.getPricing(), firstCheckoutDate, checkoutDateCount, dayCount,
+				holidayCalendar);
+	}
+
+	/**
+	 * Creates rental agreements for many checkouts at once.
+	 * 
+	 * The requests are grouped by tool code, so each tool is looked up once per
+	 * batch, and within each tool by rental period, so the charge days for a
+	 * repeated period are only calculated once. The groups are then processed in
+	 * parallel on the common fork/join pool.
+	 * 
+	 * A request that fails does not stop the rest of the batch. Its result holds
+	 * the failure instead of an agreement. A null request, or an exception other
+	 * than a validation failure, is also logged and counted in the metrics as an
+	 * unexpected failure.
+	 * 
+	 * Each request is counted in the metrics, but latency is not recorded since
+	 * the time is shared across the whole batch.
+	 * 
+	 * @param requests The checkouts to perform
+	 * @return One result per request, in the same order as the requests
+	 */
+	public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests) {
+		final CheckoutRequest[] orderedRequests = requests.toArray(new CheckoutRequest[0]);
+		final CheckoutResult[] results = new CheckoutResult[orderedRequests.length];
+
+		final Map<String, List<Integer>> requestIndexesByCode = new HashMap<>();
+		for (int i = 0; i < orderedRequests.length; i++) {
+			if (orderedRequests[i] == null) {
+				results[i] = CheckoutResult.failure(null, new NullPointerException("The checkout request is null."));
+				metrics.recordUnexpectedFailure();
+				continue;
+			}
+			requestIndexesByCode.computeIfAbsent(orderedRequests[i].getCode(), code -> new ArrayList<>()).add(i);
+		}
+
+		// Each group writes to its own slots in the results array, and the parallel
+		// stream's terminal operation makes those writes visible to this thread
+		requestIndexesByCode.entrySet().parallelStream()
+				.forEach(group -> checkoutGroup(group.getKey(), group.getValue(), orderedRequests, results));
+
+		return Collections.unmodifiableList(Arrays.asList(results));
+	}
+
+	/**
+	 * Performs the checkouts for every request in a batch that shares a tool code
+	 */
+	private void checkoutGroup(String code, List<Integer> requestIndexes, CheckoutRequest[] requests,
+			CheckoutResult[] results) {
+		final Tool toolToCheckout = inventory.findTool(code);
+		final ToolPricing pricing = toolToCheckout == null ? null : toolToCheckout.getPricing();
+		final Map<RentalPeriod, Integer> chargeDaysByPeriod = new HashMap<>();
+
+		for (int index : requestIndexes) {
+			final CheckoutRequest request = requests[index];
+			try {
+				validateDayCount(request.getDayCount());
+				validateDiscount(request.getDiscountPercent());
+				validateTool(toolToCheckout, code);
+
+				final RentalPeriod period = new RentalPeriod(request.getCheckoutDate(), request.getDayCount());
+				final int chargeDays = chargeDaysByPeriod.computeIfAbsent(period,
+						p -> pricing.getNumberOfRentalDays(p.checkoutDate, p.dayCount, holidayCalendar));
+				// The agreement is created before the tool is reserved, so a charge that
+				// cannot be represented does not leave a reservation behind
+				final RentalAgreement rentalAgreement = new RentalAgreement(toolToCheckout, pricing,
+						request.getDayCount(), request.getCheckoutDate(), chargeDays, request.getDiscountPercent());
+				reserve(code, request.getCheckoutDate(), request.getDayCount());
+
+				results[index] = CheckoutResult.success(request, rentalAgreement);
+				metrics.recordRental(code);
+				notifyRentalListeners(rentalAgreement);
+			} catch (ToolRentalValidationException e) {
+				results[index] = CheckoutResult.failure(request, e);
+				metrics.recordValidationFailure(e);
+			} catch (RuntimeException e) {
+				results[index] = CheckoutResult.failure(request, e);
+				metrics.recordUnexpectedFailure();
+				LOGGER.log(Level.WARNING, "The checkout of " + request + " failed.", e);
+			}
+		}
+	}
+
+	/**
+	 * Adds a listener that is given every rental agreement this service creates
+	 * from now on. Quotes are not passed to listeners.
+	 * 
+	 * @param listener The listener, which must be thread safe and should be quick
+	 */
+	public void addRentalListener(Consumer<? super RentalAgreement> listener) {
+		rentalListeners.add(Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Removes a listener added with addRentalListener
+	 * 
+	 * @param listener The listener to remove
+	 * @return True if the listener was removed
+	 */
+	public boolean removeRentalListener(Consumer<? super RentalAgreement> listener) {
+		return rentalListeners.remove(listener);
+	}
 
-		final int chargeDays = toolToCheckout.getNumberOfRentalDays(checkoutDate, dayCount);
-		return new RentalAgreement(toolToCheckout, dayCount, checkoutDate, chargeDays, discountPercent);
+	/**
+	 * Cancels a rental, so that its tool can be checked out again for the same
+	 * days. This does nothing if the service does not track availability.
+	 * 
+	 * @param rentalAgreement The agreement created for the rental
+	 * @return True if a reservation for the rental was released
+	 */
+	public boolean cancelRental(RentalAgreement rentalAgreement) {
+		return availabilityIndex != null && availabilityIndex.release(rentalAgreement.getToolCode(),
+				LocalDate.ofEpochDay(rentalAgreement.getCheckoutEpochDay()), rentalAgreement.getRentalDays());
+	}
+
+	/**
+	 * Finds the tools of a type in the inventory that could be checked out for an
+	 * entire rental period
+	 * 
+	 * @param toolType     The name of the tool type, such as Ladder
+	 * @param checkoutDate The date that the rental would begin
+	 * @param dayCount     The number of days the tool would be rented
+	 * @return The tools of the type that are not rented during the period, or
+	 *         every tool of the type if this service does not track availability
+	 */
+	public List<Tool> findAvailableTools(String toolType, LocalDate checkoutDate, int dayCount) {
+		validateDayCount(dayCount);
+		final AvailabilityIndex index = availabilityIndex == null ? NO_RESERVATIONS : availabilityIndex;
+		return index.findAvailableTools(inventory.getToolsOfType(toolType), toolType, checkoutDate, dayCount);
+	}
+
+	/**
+	 * Passes a new rental agreement to every listener. A failing listener does not
+	 * stop the others from being notified.
+	 */
+	private void notifyRentalListeners(RentalAgreement rentalAgreement) {
+		for (Consumer<? super RentalAgreement> listener : rentalListeners) {
+			try {
+				listener.accept(rentalAgreement);
+			} catch (RuntimeException e) {
+				metrics.recordListenerFailure();
+				LOGGER.log(Level.WARNING, "A rental listener failed for tool " + rentalAgreement.getToolCode(), e);
+			}
+		}
+	}
+
+	/**
+	 * Reserves a tool for a rental period, if this service tracks availability
+	 */
+	private void reserve(String code, LocalDate checkoutDate, int dayCount) {
+		if (availabilityIndex != null) {
+			availabilityIndex.reserve(code, checkoutDate, dayCount);
+		}
 	}
 
 	/**
@@ -72,6 +391,12 @@ public class CheckoutService {
 		}
 	}
 
+	private static void validateCheckoutDateCount(int checkoutDateCount) {
+		if (checkoutDateCount < 1 || checkoutDateCount > MAX_CHECKOUT_DATE_COUNT) {
+			throw new InvalidCheckoutDateCountException(checkoutDateCount, MAX_CHECKOUT_DATE_COUNT);
+		}
+	}
+
 	/**
 	 * Note: This can be done more elegantly with annotations, but I'm keeping
 	 * things straightforward for the demo.
@@ -92,16 +417,49 @@ public class CheckoutService {
 		}
 	}
 
+	public Inventory getInventory() {
+		return inventory;
+	}
+
+	public HolidayCalendar getHolidayCalendar() {
+		return holidayCalendar;
+	}
+
+	public CheckoutMetrics getMetrics() {
+		return metrics;
+	}
+
+	public AvailabilityIndex getAvailabilityIndex() {
+		return availabilityIndex;
+	}
+
 	/**
-	 * Get a tool in the inventory by code
+	 * The dates of a rental, used to share charge day calculations between
+	 * requests in a batch
 	 */
-	private static Tool findTool(String code) {
-		for (Tool tool : inventory) {
-			if (tool.getCode().equals(code)) {
-				return tool;
+	private static final class RentalPeriod {
+
+		private final LocalDate checkoutDate;
+		private final int dayCount;
+
+		RentalPeriod(LocalDate checkoutDate, int dayCount) {
+			this.checkoutDate = checkoutDate;
+			this.dayCount = dayCount;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof RentalPeriod)) {
+				return false;
 			}
+			final RentalPeriod otherPeriod = (RentalPeriod) other;
+			return dayCount == otherPeriod.dayCount && checkoutDate.equals(otherPeriod.checkoutDate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(checkoutDate, dayCount);
 		}
-		return null;
 	}
 
 }
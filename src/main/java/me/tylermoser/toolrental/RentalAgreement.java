@@ -1,37 +1,89 @@
 package me.tylermoser.toolrental;
 
-import static java.text.NumberFormat.getCurrencyInstance;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.format.DateTimeFormatter.ofPattern;
-import static java.util.Locale.US;
 
-import java.text.NumberFormat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
 
 /**
  * The agreement between the tool rental company and the customer.
  * 
  * Generates a report that provides all information related to a tool rental.
+ * 
+ * All charges are calculated once, when the agreement is created, as whole
+ * numbers of cents. This means the amounts can be added up across many
+ * agreements without any floating point error, and the values shown in the
+ * report are exactly the values that are summed.
+ * 
+ * The report is rendered the first time it is needed and then cached. An
+ * agreement never changes after it is created, so the cached report can be
+ * shared by any number of threads, and written straight into a caller's
+ * Appendable or ByteBuffer without building any more Strings.
  */
 public class RentalAgreement {
 
 	private static final DateTimeFormatter DATE_FORMATTER = ofPattern("MM/dd/yy");
-	private static final NumberFormat CURRENCY_FORMATTER = getCurrencyInstance(US);
+	private static final long CENTS_PER_DOLLAR = 100;
+	private static final long ONE_HUNDRED_PERCENT = 100;
+	private static final int DIGITS_PER_GROUP = 3;
+	private static final int REPORT_CAPACITY = 384;
 
-	private Tool tool;
-	private int rentalDays;
-	private LocalDate checkoutDate;
-	private int chargeDays;
-	private int discountPercent;
+	private final Tool tool;
+	private final int rentalDays;
+	private final LocalDate checkoutDate;
+	private final LocalDate dueDate;
+	private final int chargeDays;
+	private final int discountPercent;
+	private final long dailyChargeCents;
+	private final long preDiscountChargeCents;
+	private final long discountAmountCents;
+	private final long finalChargeCents;
+
+	// Lazily rendered. Racing threads may each render the report, but they will
+	// all render the same immutable value, so no locking is needed.
+	private volatile String report;
+	private volatile byte[] reportBytes;
 
 	public RentalAgreement(Tool tool, int rentalDays, LocalDate checkoutDate, int chargeDays, int discountPercent) {
+		this(tool, tool.getPricing(), rentalDays, checkoutDate, chargeDays, discountPercent);
+	}
+
+	/**
+	 * Creates an agreement priced with a specific ToolPricing. Prices can be
+	 * reloaded at any time, so the checkout passes in the same pricing it used to
+	 * count the charge days.
+	 */
+	public RentalAgreement(Tool tool, ToolPricing pricing, int rentalDays, LocalDate checkoutDate, int chargeDays,
+			int discountPercent) {
 		this.tool = tool;
 		this.rentalDays = rentalDays;
 		this.checkoutDate = checkoutDate;
+		this.dueDate = checkoutDate.plusDays(rentalDays);
 		this.chargeDays = chargeDays;
 		this.discountPercent = discountPercent;
+
+		// The discount and the final charge are each rounded half up from their exact
+		// values. For example, 50% of $2.99 is a $1.50 discount with a $1.50 final
+		// charge, as required by the demo prompt.
+		this.dailyChargeCents = pricing.getDailyChargeCents();
+		this.preDiscountChargeCents = Math.multiplyExact(chargeDays, dailyChargeCents);
+		this.discountAmountCents = percentOfRoundingHalfUp(preDiscountChargeCents, discountPercent);
+		this.finalChargeCents = percentOfRoundingHalfUp(preDiscountChargeCents, ONE_HUNDRED_PERCENT - discountPercent);
+	}
+
+	/**
+	 * Returns a percentage of an amount of cents, rounded half up to the nearest
+	 * cent. Amounts and percentages are never negative here, since both are
+	 * validated at checkout.
+	 */
+	private static long percentOfRoundingHalfUp(long cents, long percent) {
+		return (Math.multiplyExact(cents, percent) + ONE_HUNDRED_PERCENT / 2) / ONE_HUNDRED_PERCENT;
 	}
 
 	/**
@@ -47,7 +99,60 @@ public class RentalAgreement {
 	 * Return a report including all rental information
 	 */
 	public String getReport() {
-		final StringBuilder reportBuilder = new StringBuilder();
+		String cachedReport = report;
+		if (cachedReport == null) {
+			cachedReport = renderReport();
+			report = cachedReport;
+		}
+		return cachedReport;
+	}
+
+	/**
+	 * Write the report to a caller-supplied Appendable, such as a Writer or a
+	 * StringBuilder
+	 * 
+	 * @param appendable The destination of the report
+	 * @throws IOException If the Appendable throws an IOException
+	 */
+	public void writeReport(Appendable appendable) throws IOException {
+		appendable.append(getReport());
+	}
+
+	/**
+	 * Write the report to a caller-supplied ByteBuffer as UTF-8, starting at the
+	 * buffer's current position
+	 * 
+	 * @param buffer The destination of the report
+	 * @throws java.nio.BufferOverflowException If the report does not fit in the
+	 *                                          remaining space in the buffer
+	 */
+	public void writeReport(ByteBuffer buffer) {
+		buffer.put(getReportBytes());
+	}
+
+	/**
+	 * Returns the number of bytes that writing the report to a ByteBuffer will
+	 * use
+	 */
+	public int getReportByteLength() {
+		return getReportBytes().length;
+	}
+
+	private byte[] getReportBytes() {
+		byte[] cachedReportBytes = reportBytes;
+		if (cachedReportBytes == null) {
+			cachedReportBytes = getReport().getBytes(UTF_8);
+			reportBytes = cachedReportBytes;
+		}
+		return cachedReportBytes;
+	}
+
+	/**
+	 * Builds the report. The charges are appended directly as cents rather than
+	 * through the formatted getters, to avoid creating a String for each one.
+	 */
+	private String renderReport() {
+		final StringBuilder reportBuilder = new StringBuilder(REPORT_CAPACITY);
 		reportBuilder.append("Tool code: ");
 		reportBuilder.append(getToolCode());
 		reportBuilder.append("\nTool type: ");
@@ -57,25 +162,60 @@ public class RentalAgreement {
 		reportBuilder.append("\nRental days: ");
 		reportBuilder.append(getRentalDays());
 		reportBuilder.append("\nCheck out date: ");
-		reportBuilder.append(getCheckoutDate());
+		DATE_FORMATTER.formatTo(checkoutDate, reportBuilder);
 		reportBuilder.append("\nDue date: ");
-		reportBuilder.append(getDueDate());
+		DATE_FORMATTER.formatTo(dueDate, reportBuilder);
 		reportBuilder.append("\nDaily rental charge: ");
-		reportBuilder.append(getDailyRentalCharge());
+		appendCents(reportBuilder, getDailyRentalChargeCents());
 		reportBuilder.append("\nCharge days: ");
 		reportBuilder.append(getChargeDays());
 		reportBuilder.append("\nPre-discount charge: ");
-		reportBuilder.append(getPreDiscountCharge());
+		appendCents(reportBuilder, preDiscountChargeCents);
 		reportBuilder.append("\nDiscount percent: ");
 		reportBuilder.append(getDiscountPercent());
 		reportBuilder.append("%");
 		reportBuilder.append("\nDiscount amount: ");
-		reportBuilder.append(getDiscountAmount());
+		appendCents(reportBuilder, discountAmountCents);
 		reportBuilder.append("\nFinal charge: ");
-		reportBuilder.append(getFinalCharge());
+		appendCents(reportBuilder, finalChargeCents);
 		return reportBuilder.toString();
 	}
 
+	/**
+	 * Formats a number of cents as US currency
+	 */
+	private static String formatCents(long cents) {
+		final StringBuilder builder = new StringBuilder();
+		appendCents(builder, cents);
+		return builder.toString();
+	}
+
+	/**
+	 * Appends a number of cents as US currency, in the same format as
+	 * NumberFormat.getCurrencyInstance(Locale.US). NumberFormat is not
+	 * thread-safe, and this avoids needing a formatter per thread.
+	 */
+	static void appendCents(StringBuilder builder, long cents) {
+		if (cents < 0) {
+			builder.append('-');
+		}
+		builder.append('$');
+
+		final long dollars = Math.abs(cents / CENTS_PER_DOLLAR);
+		final int firstDigit = builder.length();
+		builder.append(dollars);
+		for (int groupStart = builder.length() - DIGITS_PER_GROUP; groupStart > firstDigit; groupStart -= DIGITS_PER_GROUP) {
+			builder.insert(groupStart, ',');
+		}
+
+		final long remainingCents = Math.abs(cents % CENTS_PER_DOLLAR);
+		builder.append('.');
+		if (remainingCents < 10) {
+			builder.append('0');
+		}
+		builder.append(remainingCents);
+	}
+
 	/*
 	 * I chose to return Strings from some of these "getters" where I would
 	 * generally instead return primitives or other Objects. This was done to
@@ -84,6 +224,9 @@ public class RentalAgreement {
 	 * wouldn't have returned Strings, and I would have been able to more
 	 * effectively reuse the methods below.
 	 * 
+	 * The "Cents" getters return the exact amounts behind the formatted Strings,
+	 * for anything that needs to do math with them.
+	 * 
 	 * I am not providing JavaDoc for the getters and setters because I have found
 	 * that JavaDoc is applied differently on different teams. I have worked on
 	 * teams where JavaDoc is required on everything, and teams where JavaDoc is
@@ -116,12 +259,23 @@ public class RentalAgreement {
 	}
 
 	public String getDueDate() {
-		final LocalDate dueDate = checkoutDate.plusDays(rentalDays);
 		return dueDate.format(DATE_FORMATTER);
 	}
 
+	public long getCheckoutEpochDay() {
+		return checkoutDate.toEpochDay();
+	}
+
+	public long getDueEpochDay() {
+		return dueDate.toEpochDay();
+	}
+
 	public Object getDailyRentalCharge() {
-		return CURRENCY_FORMATTER.format(tool.getDailyCharge());
+		return formatCents(getDailyRentalChargeCents());
+	}
+
+	public long getDailyRentalChargeCents() {
+		return dailyChargeCents;
 	}
 
 	public int getChargeDays() {
@@ -129,8 +283,11 @@ public class RentalAgreement {
 	}
 
 	public Object getPreDiscountCharge() {
-		final double preDiscountCharge = chargeDays * tool.getDailyCharge();
-		return CURRENCY_FORMATTER.format(preDiscountCharge);
+		return formatCents(preDiscountChargeCents);
+	}
+
+	public long getPreDiscountChargeCents() {
+		return preDiscountChargeCents;
 	}
 
 	public int getDiscountPercent() {
@@ -138,15 +295,18 @@ public class RentalAgreement {
 	}
 
 	public String getDiscountAmount() {
-		final double preDiscountCharge = chargeDays * tool.getDailyCharge();
-		final double discountAmount = preDiscountCharge * ((double) discountPercent / 100);
-		return CURRENCY_FORMATTER.format(discountAmount);
+		return formatCents(discountAmountCents);
+	}
+
+	public long getDiscountAmountCents() {
+		return discountAmountCents;
 	}
 
 	public String getFinalCharge() {
-		final double preDiscountCharge = chargeDays * tool.getDailyCharge();
-		final double discountAmount = preDiscountCharge * ((double) discountPercent / 100);
-		final double finalCharge = preDiscountCharge - discountAmount;
-		return CURRENCY_FORMATTER.format(finalCharge);
+		return formatCents(finalChargeCents);
+	}
+
+	public long getFinalChargeCents() {
+		return finalChargeCents;
 	}
 }
@@ -1,15 +1,34 @@
 package me.tylermoser.toolrental;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.format.DateTimeFormatter.ofPattern;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 
 import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
-import me.tylermoser.toolrental.tools.Chainsaw;
-import me.tylermoser.toolrental.tools.Jackhammer;
-import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.http.CheckoutHttpServer;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.journal.JournalEntry;
+import me.tylermoser.toolrental.journal.RentalAgreementJournal;
+import me.tylermoser.toolrental.snapshot.InventorySnapshot;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolTypeRegistry;
 
 /**
  * This command line user interface was added purely for my self-interest. The
@@ -18,25 +37,167 @@ import me.tylermoser.toolrental.tools.Ladder;
  * 
  * If you are looking for the entrypoint into the main application logic, that
  * can be found in CheckoutService.
+ * 
+ * Given an input and an output file as arguments, the application runs every
+ * checkout in the input file instead of prompting. See BulkCheckoutRunner for
+ * the file format. Given --http and an optional port, it serves quotes and
+ * checkouts over HTTP instead. See CheckoutHttpServer for the endpoints.
+ * Rentals made from a file or over HTTP are journaled just like interactive
+ * ones, and in every mode the journal is replayed at startup.
+ * 
+ * When the toolrental.snapshot system property names an inventory snapshot,
+ * the inventory is loaded from it. If the file does not exist yet, was built
+ * from a different tool type CSV or built-in inventory, or cannot be read, the
+ * inventory is built as usual and then written there for the next start.
  */
 public class ToolRentalApplication {
 
 	private static final Scanner SCANNER = new Scanner(System.in);
 	private static final DateTimeFormatter DATE_FORMATTER = ofPattern("MM/dd/yy");
+	private static final String SNAPSHOT_PROPERTY = "toolrental.snapshot";
+	private static final String JOURNAL_PROPERTY = "toolrental.journal";
+	private static final String DEFAULT_JOURNAL = "rental-agreements.journal";
+	private static final String HTTP_OPTION = "--http";
+	private static final int DEFAULT_HTTP_PORT = 8080;
+	private static final String HTTP_NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+	private static final String TOOL_TYPES_RESOURCE = "/tool-types.csv";
+
+	// The code, brand and type of each tool in the built-in inventory
+	private static final String[][] BUILT_IN_TOOLS = {
+			{ "CHNS", "Stihl", "Chainsaw" },
+			{ "LADW", "Werner", "Ladder" },
+			{ "JAKD", "DeWalt", "Jackhammer" },
+			{ "JAKR", "Ridgid", "Jackhammer" } };
 
-	public static void main(String[] args) {
-		CheckoutService.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
-		CheckoutService.addToolToInventory(new Ladder("LADW", "Werner"));
-		CheckoutService.addToolToInventory(new Jackhammer("JAKD", "DeWalt"));
-		CheckoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+	private static CheckoutService checkoutService;
 
-		do {
-			checkoutTool();
-			System.out.print("Would you like to checkout another tool? (yes/no): ");
-		} while (SCANNER.nextBoolean());
+	public static void main(String[] args) throws IOException, InterruptedException {
+		checkoutService = createCheckoutService();
+
+		if (args.length >= 1 && HTTP_OPTION.equals(args[0])) {
+			serveHttp(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT);
+			return;
+		}
+		if (args.length == 2) {
+			checkoutFromFile(args[0], args[1]);
+			return;
+		}
+
+		try (RentalAgreementJournal journal = openJournal()) {
+			do {
+				checkoutTool(journal);
+				System.out.print("Would you like to checkout another tool? (yes/no): ");
+			} while (SCANNER.nextBoolean());
+		}
+	}
+
+	private static CheckoutService createCheckoutService() throws IOException {
+		final String snapshotFile = System.getProperty(SNAPSHOT_PROPERTY);
+		final long sourceVersion = getSourceVersion();
+		if (snapshotFile != null && Files.exists(Paths.get(snapshotFile))) {
+			final InventorySnapshot snapshot = loadSnapshot(Paths.get(snapshotFile));
+			if (snapshot != null && snapshot.getSourceVersion() == sourceVersion) {
+				final CheckoutService service = new CheckoutService(new Inventory(), snapshot.getHolidayCalendar());
+				service.reloadInventory(snapshot.getTools());
+				return service;
+			}
+			System.out.println("Rebuilding the inventory snapshot, which is out of date or unreadable.");
+		}
+
+		final CheckoutService service = new CheckoutService();
+		for (String[] tool : BUILT_IN_TOOLS) {
+			service.addToolToInventory(
+					new Tool(tool[0], tool[1], ToolTypeRegistry.getDefault().getToolType(tool[2])));
+		}
+		if (snapshotFile != null) {
+			InventorySnapshot.write(Paths.get(snapshotFile), service.getInventory().getTools(),
+					service.getHolidayCalendar(), sourceVersion);
+		}
+		return service;
+	}
+
+	/**
+	 * Loads an inventory snapshot, returning null if it cannot be read so that it
+	 * is rebuilt
+	 */
+	private static InventorySnapshot loadSnapshot(Path path) {
+		try {
+			return InventorySnapshot.load(path);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Checksums the bundled tool type CSV and the built-in inventory, which are
+	 * everything the inventory is built from. A snapshot written with a different
+	 * checksum is out of date.
+	 */
+	private static long getSourceVersion() throws IOException {
+		final CRC32 checksum = new CRC32();
+		try (InputStream toolTypes = ToolRentalApplication.class.getResourceAsStream(TOOL_TYPES_RESOURCE)) {
+			checksum.update(toolTypes.readAllBytes());
+		}
+		for (String[] tool : BUILT_IN_TOOLS) {
+			checksum.update((String.join(",", tool) + "\n").getBytes(UTF_8));
+		}
+		return checksum.getValue();
+	}
+
+	private static void serveHttp(int port) throws IOException {
+		// See CheckoutHttpServer. The JDK server reads this once, when the first
+		// server is created.
+		if (System.getProperty(HTTP_NO_DELAY_PROPERTY) == null) {
+			System.setProperty(HTTP_NO_DELAY_PROPERTY, "true");
+		}
+
+		final RentalAgreementJournal journal = openJournal();
+		final CheckoutHttpServer server = new CheckoutHttpServer(checkoutService, journal,
+				new InetSocketAddress(port));
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.stop(1);
+			try {
+				journal.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}));
+		server.start();
+		System.out.println("Serving quotes and checkouts on port " + server.getPort()
+				+ (server.isUsingVirtualThreads() ? " with virtual threads." : "."));
+	}
+
+	/**
+	 * Opens the journal and replays the agreements in it, so that the billing
+	 * for every previous rental is known again after a restart or crash
+	 */
+	private static RentalAgreementJournal openJournal() throws IOException {
+		final RentalAgreementJournal journal = new RentalAgreementJournal(
+				Paths.get(System.getProperty(JOURNAL_PROPERTY, DEFAULT_JOURNAL)));
+		final long startNanos = System.nanoTime();
+		final List<JournalEntry> entries = journal.replay();
+		long billedCents = 0;
+		for (JournalEntry entry : entries) {
+			billedCents += entry.getFinalChargeCents();
+		}
+		System.out.println("Replayed " + entries.size() + " previous rental agreements, billed "
+				+ NumberFormat.getCurrencyInstance(Locale.US).format(BigDecimal.valueOf(billedCents, 2)) + ", in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms.");
+		return journal;
+	}
+
+	private static void checkoutFromFile(String inputFile, String outputFile)
+			throws IOException, InterruptedException {
+		try (RentalAgreementJournal journal = openJournal();
+				BufferedReader input = Files.newBufferedReader(Paths.get(inputFile), UTF_8);
+				BufferedWriter output = Files.newBufferedWriter(Paths.get(outputFile), UTF_8)) {
+			final BulkCheckoutSummary summary = new BulkCheckoutRunner(checkoutService, journal).run(input, output);
+			System.out.println(summary);
+		}
 	}
 
-	private static void checkoutTool() {
+	private static void checkoutTool(RentalAgreementJournal journal) {
 		try {
 			System.out.print("Enter the code for the tool you would like to checkout: ");
 			String toolCode = SCANNER.next();
@@ -47,9 +208,10 @@ public class ToolRentalApplication {
 			System.out.print("Enter the date you would like to checkout the tool on in the format MM/DD/YY: ");
 			LocalDate checkoutDate = LocalDate.parse(SCANNER.next(), DATE_FORMATTER);
 
-			RentalAgreement rentalAgreement = CheckoutService.checkout(toolCode, dayCount, discountPercent,
+			RentalAgreement rentalAgreement = checkoutService.checkout(toolCode, dayCount, discountPercent,
 					checkoutDate);
 			rentalAgreement.printReport();
+			journal.awaitDurable(journal.append(rentalAgreement));
 		} catch (ToolRentalValidationException e) {
 			System.out.println(e.getMessage());
 		} catch (Exception e) {
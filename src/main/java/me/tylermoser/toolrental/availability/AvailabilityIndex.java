@@ -0,0 +1,114 @@
+package me.tylermoser.toolrental.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.tylermoser.toolrental.exceptions.ToolUnavailableException;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Tracks which days each tool is rented for, so the same tool cannot be checked
+ * out twice for overlapping rentals.
+ * 
+ * A rental reserves the tool from its checkout date up to, but not including,
+ * its due date. A tool due back on a day can be checked out again that same
+ * day.
+ * 
+ * Days are kept as long epoch days, so that adding even the largest day count
+ * to a checkout date cannot overflow.
+ * 
+ * Every tool has its own sorted index of reservations, so checking and
+ * reserving one tool never waits on another. Availability checks take no locks
+ * and are a binary search, so they stay fast no matter how many years of
+ * rentals a tool has.
+ */
+public class AvailabilityIndex {
+
+	private final ConcurrentHashMap<String, ToolReservations> reservationsByCode = new ConcurrentHashMap<>();
+
+	/**
+	 * Reserves a tool for a rental period, atomically checking that no existing
+	 * reservation overlaps it
+	 * 
+	 * @param code         The code of the tool to reserve
+	 * @param checkoutDate The date that the rental begins
+	 * @param dayCount     The number of days before the rental must be returned
+	 * @throws ToolUnavailableException If the tool is already reserved for part
+	 *                                  of the rental period
+	 */
+	public void reserve(String code, LocalDate checkoutDate, int dayCount) {
+		final long firstDay = checkoutDate.toEpochDay();
+		if (!reservationsByCode.computeIfAbsent(code, c -> new ToolReservations()).reserve(firstDay,
+				firstDay + dayCount)) {
+			throw new ToolUnavailableException(code, checkoutDate, checkoutDate.plusDays(dayCount));
+		}
+	}
+
+	/**
+	 * Cancels a reservation made by reserve()
+	 * 
+	 * @param code         The code of the reserved tool
+	 * @param checkoutDate The date that the rental begins
+	 * @param dayCount     The number of days before the rental must be returned
+	 * @return True if there was a reservation for exactly that rental period
+	 */
+	public boolean release(String code, LocalDate checkoutDate, int dayCount) {
+		final ToolReservations reservations = reservationsByCode.get(code);
+		final long firstDay = checkoutDate.toEpochDay();
+		return reservations != null && reservations.release(firstDay, firstDay + dayCount);
+	}
+
+	/**
+	 * Checks whether a tool is free for an entire rental period
+	 * 
+	 * @param code         The code of the tool
+	 * @param checkoutDate The date that the rental would begin
+	 * @param dayCount     The number of days before the rental would be returned
+	 * @return True if no reservation overlaps the rental period
+	 */
+	public boolean isAvailable(String code, LocalDate checkoutDate, int dayCount) {
+		final ToolReservations reservations = reservationsByCode.get(code);
+		final long firstDay = checkoutDate.toEpochDay();
+		return reservations == null || reservations.isFree(firstDay, firstDay + dayCount);
+	}
+
+	/**
+	 * Finds the tools of a type that are free for an entire rental period
+	 * 
+	 * @param tools        The tools to choose from, usually the tools of the type
+	 *                     from Inventory.getToolsOfType, so that the rest of the
+	 *                     catalog is never looked at
+	 * @param toolType     The name of the tool type, such as Ladder
+	 * @param checkoutDate The date that the rental would begin
+	 * @param dayCount     The number of days before the rental would be returned
+	 * @return The free tools of the type, in the order they were given
+	 */
+	public List<Tool> findAvailableTools(Collection<? extends Tool> tools, String toolType, LocalDate checkoutDate,
+			int dayCount) {
+		final long firstDay = checkoutDate.toEpochDay();
+		final long endDay = firstDay + dayCount;
+		final List<Tool> availableTools = new ArrayList<>();
+		for (Tool tool : tools) {
+			if (!tool.getToolType().equals(toolType)) {
+				continue;
+			}
+			final ToolReservations reservations = reservationsByCode.get(tool.getCode());
+			if (reservations == null || reservations.isFree(firstDay, endDay)) {
+				availableTools.add(tool);
+			}
+		}
+		return availableTools;
+	}
+
+	/**
+	 * Returns the number of reservations a tool has, past and future
+	 */
+	public int getReservationCount(String code) {
+		final ToolReservations reservations = reservationsByCode.get(code);
+		return reservations == null ? 0 : reservations.size();
+	}
+
+}
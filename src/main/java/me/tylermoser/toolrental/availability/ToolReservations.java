@@ -0,0 +1,116 @@
+package me.tylermoser.toolrental.availability;
+
+import java.util.Arrays;
+
+/**
+ * The reservations of a single tool, as half-open ranges of epoch days.
+ * 
+ * Reservations never overlap, so when they are sorted by their first day they
+ * are also sorted by their last day. That means a single binary search finds
+ * the only reservation that could conflict with a new range, and an
+ * availability check is O(log n) in the number of reservations the tool has
+ * ever had.
+ * 
+ * The sorted arrays are copied on write and published through a volatile
+ * field, so availability checks never lock. Reservations lock on this object,
+ * so a conflict check and the insert that follows it are atomic.
+ */
+final class ToolReservations {
+
+	private static final long[] NO_DAYS = new long[0];
+
+	private volatile Ranges ranges = new Ranges(NO_DAYS, NO_DAYS);
+
+	/**
+	 * @param firstDay The first epoch day of the range, inclusive
+	 * @param endDay   The last epoch day of the range, exclusive
+	 * @return True if no reservation overlaps the range
+	 */
+	boolean isFree(long firstDay, long endDay) {
+		return ranges.isFree(firstDay, endDay);
+	}
+
+	/**
+	 * Reserves a range if no existing reservation overlaps it
+	 * 
+	 * @return True if the range was reserved
+	 */
+	synchronized boolean reserve(long firstDay, long endDay) {
+		final Ranges current = ranges;
+		if (!current.isFree(firstDay, endDay)) {
+			return false;
+		}
+		final int index = current.countStartingBefore(endDay);
+		ranges = new Ranges(insert(current.firstDays, index, firstDay), insert(current.endDays, index, endDay));
+		return true;
+	}
+
+	/**
+	 * Removes a reservation that exactly matches a range
+	 * 
+	 * @return True if there was a matching reservation
+	 */
+	synchronized boolean release(long firstDay, long endDay) {
+		final Ranges current = ranges;
+		final int index = Arrays.binarySearch(current.firstDays, firstDay);
+		if (index < 0 || current.endDays[index] != endDay) {
+			return false;
+		}
+		ranges = new Ranges(remove(current.firstDays, index), remove(current.endDays, index));
+		return true;
+	}
+
+	int size() {
+		return ranges.firstDays.length;
+	}
+
+	private static long[] insert(long[] days, int index, long day) {
+		final long[] inserted = new long[days.length + 1];
+		System.arraycopy(days, 0, inserted, 0, index);
+		inserted[index] = day;
+		System.arraycopy(days, index, inserted, index + 1, days.length - index);
+		return inserted;
+	}
+
+	private static long[] remove(long[] days, int index) {
+		final long[] removed = new long[days.length - 1];
+		System.arraycopy(days, 0, removed, 0, index);
+		System.arraycopy(days, index + 1, removed, index, removed.length - index);
+		return removed;
+	}
+
+	/**
+	 * An immutable snapshot of the reservations, sorted by first day
+	 */
+	private static final class Ranges {
+
+		private final long[] firstDays;
+		private final long[] endDays;
+
+		Ranges(long[] firstDays, long[] endDays) {
+			this.firstDays = firstDays;
+			this.endDays = endDays;
+		}
+
+		boolean isFree(long firstDay, long endDay) {
+			// Only the latest reservation starting before the range ends can overlap it
+			final int count = countStartingBefore(endDay);
+			return count == 0 || endDays[count - 1] <= firstDay;
+		}
+
+		int countStartingBefore(long day) {
+			int low = 0;
+			int high = firstDays.length;
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (firstDays[middle] < day) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package me.tylermoser.toolrental.exceptions;
+
+/**
+ * An exception thrown when a tool is added to an inventory that already
+ * contains a tool with the same code.
+ */
+public class DuplicateToolCodeException extends ToolRentalValidationException {
+
+	private static final String MESSAGE_FORMAT = "There is already a tool in inventory with code %s.";
+	private static final long serialVersionUID = 1L;
+
+	private final String code;
+
+	public DuplicateToolCodeException(String code) {
+		this.code = code;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, code);
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+}
@@ -0,0 +1,33 @@
+package me.tylermoser.toolrental.exceptions;
+
+/**
+ * An exception thrown when an attempt is made to price a rental for no
+ * checkout dates, or for more checkout dates than can be priced at once.
+ */
+public class InvalidCheckoutDateCountException extends ToolRentalValidationException {
+
+	private static final String MESSAGE_FORMAT = "The number of checkout dates %s is not within the acceptable range of 1 to %s.";
+	private static final long serialVersionUID = 1L;
+
+	private final int checkoutDateCount;
+	private final int maximumCheckoutDateCount;
+
+	public InvalidCheckoutDateCountException(int checkoutDateCount, int maximumCheckoutDateCount) {
+		this.checkoutDateCount = checkoutDateCount;
+		this.maximumCheckoutDateCount = maximumCheckoutDateCount;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, checkoutDateCount, maximumCheckoutDateCount);
+	}
+
+	public int getCheckoutDateCount() {
+		return checkoutDateCount;
+	}
+
+	public int getMaximumCheckoutDateCount() {
+		return maximumCheckoutDateCount;
+	}
+
+}
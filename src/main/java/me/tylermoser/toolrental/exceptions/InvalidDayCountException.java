@@ -9,8 +9,19 @@ public class InvalidDayCountException extends ToolRentalValidationException {
 	private static final String MESSAGE_FORMAT = "The day count %s is not within the acceptable range of 1 or greater.";
 	private static final long serialVersionUID = 1L;
 
+	private final int dayCount;
+
 	public InvalidDayCountException(int dayCount) {
-		super.message = String.format(MESSAGE_FORMAT, dayCount);
+		this.dayCount = dayCount;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, dayCount);
+	}
+
+	public int getDayCount() {
+		return dayCount;
 	}
 
 }
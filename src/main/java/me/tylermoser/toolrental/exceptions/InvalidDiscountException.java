@@ -9,8 +9,19 @@ public class InvalidDiscountException extends ToolRentalValidationException {
 	private static final String MESSAGE_FORMAT = "The discount percentage %s is not within the acceptable range of 0 to 100.";
 	private static final long serialVersionUID = 1L;
 
+	private final int discount;
+
 	public InvalidDiscountException(int discount) {
-		super.message = String.format(MESSAGE_FORMAT, discount);
+		this.discount = discount;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, discount);
+	}
+
+	public int getDiscount() {
+		return discount;
 	}
 
 }
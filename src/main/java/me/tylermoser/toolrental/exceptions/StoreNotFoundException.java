@@ -0,0 +1,27 @@
+package me.tylermoser.toolrental.exceptions;
+
+/**
+ * An Exception thrown when an attempt is made to checkout a tool from a store
+ * that does not exist.
+ */
+public class StoreNotFoundException extends ToolRentalValidationException {
+
+	private static final String MESSAGE_FORMAT = "There is no store with id %s.";
+	private static final long serialVersionUID = 1L;
+
+	private final String storeId;
+
+	public StoreNotFoundException(String storeId) {
+		this.storeId = storeId;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, storeId);
+	}
+
+	public String getStoreId() {
+		return storeId;
+	}
+
+}
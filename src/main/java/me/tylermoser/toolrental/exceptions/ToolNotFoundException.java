@@ -9,8 +9,19 @@ public class ToolNotFoundException extends ToolRentalValidationException {
 	private static final String MESSAGE_FORMAT = "There is no tool in inventory with code %s.";
 	private static final long serialVersionUID = 1L;
 
+	private final String code;
+
 	public ToolNotFoundException(String code) {
-		super.message = String.format(MESSAGE_FORMAT, code);
+		this.code = code;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, code);
+	}
+
+	public String getCode() {
+		return code;
 	}
 
 }
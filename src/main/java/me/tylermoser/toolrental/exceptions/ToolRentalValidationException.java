@@ -2,14 +2,33 @@ package me.tylermoser.toolrental.exceptions;
 
 /**
  * A parent Exception for all other validation exceptions
+ * 
+ * Bad input is common, and validation exceptions are always caught and turned
+ * into a message for the user, so the stack trace is never used. These
+ * exceptions therefore skip capturing a stack trace, and only format their
+ * message the first time it is asked for. Rejecting a bad checkout then costs
+ * little more than allocating the exception itself.
  */
 public abstract class ToolRentalValidationException extends RuntimeException {
 
 	private static final long serialVersionUID = 1L;
 
-	protected String message;
+	private String message;
+
+	protected ToolRentalValidationException() {
+		super(null, null, false, false);
+	}
+
+	/**
+	 * Builds the message for the exception. This is called at most once per
+	 * exception, when the message is first needed.
+	 */
+	protected abstract String buildMessage();
 
 	public String getMessage() {
+		if (message == null) {
+			message = buildMessage();
+		}
 		return message;
 	}
 
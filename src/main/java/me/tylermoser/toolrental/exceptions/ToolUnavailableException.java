@@ -0,0 +1,46 @@
+package me.tylermoser.toolrental.exceptions;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * An exception thrown when an attempt is made to checkout a tool that is
+ * already rented for part of the requested rental period.
+ */
+public class ToolUnavailableException extends ToolRentalValidationException {
+
+	private static final String MESSAGE_FORMAT = "The tool %s is already rented for part of %s to %s.";
+	private static final DateTimeFormatter DATE_FORMATTER = ofPattern("MM/dd/yy");
+	private static final long serialVersionUID = 1L;
+
+	private final String code;
+	private final LocalDate checkoutDate;
+	private final LocalDate dueDate;
+
+	public ToolUnavailableException(String code, LocalDate checkoutDate, LocalDate dueDate) {
+		this.code = code;
+		this.checkoutDate = checkoutDate;
+		this.dueDate = dueDate;
+	}
+
+	@Override
+	protected String buildMessage() {
+		return String.format(MESSAGE_FORMAT, code, checkoutDate.format(DATE_FORMATTER),
+				dueDate.format(DATE_FORMATTER));
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public LocalDate getCheckoutDate() {
+		return checkoutDate;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+}
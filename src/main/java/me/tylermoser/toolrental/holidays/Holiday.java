@@ -0,0 +1,32 @@
+package me.tylermoser.toolrental.holidays;
+
+import java.time.LocalDate;
+
+/**
+ * A holiday that is observed once per year.
+ * 
+ * Implementations only need to say which date the holiday is observed on in a
+ * given year. The HolidayCalendar takes care of caching those dates, so
+ * implementations do not need to be fast.
+ */
+public interface Holiday {
+
+	/**
+	 * Returns the date that the holiday is observed on in the given year
+	 * 
+	 * @param year The year to find the holiday in
+	 * @return The observed date of the holiday
+	 */
+	LocalDate getObservedDate(int year);
+
+	/**
+	 * Returns true if the holiday is observed on the same dates in every 400 year
+	 * cycle of the Gregorian calendar. That holds for any holiday with a fixed
+	 * rule, such as a fixed date or the first Monday of a month, but not for one
+	 * like Easter. Holidays that do not say so are assumed not to repeat.
+	 */
+	default boolean isFixedRule() {
+		return false;
+	}
+
+}
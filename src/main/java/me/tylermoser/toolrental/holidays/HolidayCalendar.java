@@ -0,0 +1,419 @@
+package me.tylermoser.toolrental.holidays;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.ALL_DAYS;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.getDayOfWeekIndex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A shared, thread-safe calendar of observed holidays.
+ * 
+ * Each year's holidays are worked out once and cached as a sorted array of
+ * epoch days. Questions about a range of days are answered with two binary
+ * searches over that array, so they cost O(log n) and do not allocate.
+ * 
+ * The set of holidays is pluggable. A store that observes regional holidays can
+ * create its own calendar with additional Holiday implementations, and those
+ * holidays cost nothing extra per date checked.
+ * 
+ * The cache starts out covering a few centuries around the present. A query
+ * outside of that range grows the cache once, and the grown cache is published
+ * to all other threads. The cache only grows up to 500 years past the years it
+ * started with, so that a single very long rental cannot fill the heap. When
+ * every holiday has a fixed rule, as the standard holidays do, ranges that reach
+ * past that window are counted from one 400 year cycle of the Gregorian
+ * calendar, which also repeats the days of the week. Otherwise, such as for a
+ * calendar that observes Easter, they are counted a thousand years at a time
+ * without caching, which takes time in proportion to the length of the range.
+ * 
+ * Every cached year is worked out from the holidays of the years on either
+ * side as well, so that a holiday observed across the new year is not missed.
+ * 
+ * A calendar can also be created from holidays that were already worked out,
+ * such as from an inventory snapshot, which skips the date calculations at
+ * startup. The default calendar is only built the first time it is asked for.
+ */
+public final class HolidayCalendar {
+
+	private static final int INITIAL_FIRST_YEAR = 1900;
+	private static final int INITIAL_LAST_YEAR = 2199;
+	private static final int DAYS_PER_WEEK = 7;
+	private static final int GROWTH_WINDOW_YEARS = 500;
+	private static final int UNCACHED_CHUNK_YEARS = 1000;
+
+	// 2000-01-01 starts a 400 year cycle, which is exactly 146097 days long
+	private static final int CYCLE_FIRST_YEAR = 2000;
+	private static final int CYCLE_YEARS = 400;
+	private static final long CYCLE_FIRST_EPOCH_DAY = LocalDate.of(CYCLE_FIRST_YEAR, 1, 1).toEpochDay();
+	private static final long CYCLE_DAYS = 146_097;
+
+	private final List<Holiday> holidays;
+	private final boolean fixedRule;
+	private final int firstGrowableYear;
+	private final int lastGrowableYear;
+	private volatile CachedYears cachedYears;
+	private volatile CachedYears cycleYears;
+
+	/**
+	 * Creates a calendar that observes the given holidays
+	 * 
+	 * @param holidays The holidays that are observed
+	 */
+	public HolidayCalendar(Collection<? extends Holiday> holidays) {
+		this.holidays = Collections.unmodifiableList(new ArrayList<>(holidays));
+		this.fixedRule = isFixedRule(this.holidays);
+		this.cachedYears = new CachedYears(this.holidays, INITIAL_FIRST_YEAR, INITIAL_LAST_YEAR);
+		this.firstGrowableYear = INITIAL_FIRST_YEAR - GROWTH_WINDOW_YEARS;
+		this.lastGrowableYear = INITIAL_LAST_YEAR + GROWTH_WINDOW_YEARS;
+	}
+
+	/**
+	 * Creates a calendar from holidays that were already worked out for a range
+	 * of years. Dates outside of those years are worked out from the holidays as
+	 * usual.
+	 * 
+	 * @param holidays         The holidays that are observed
+	 * @param firstYear        The first year that was worked out
+	 * @param lastYear         The last year that was worked out
+	 * @param holidayEpochDays The distinct dates the holidays are observed on in
+	 *                         those years, as sorted epoch days
+	 */
+	public HolidayCalendar(Collection<? extends Holiday> holidays, int firstYear, int lastYear,
+			long[] holidayEpochDays) {
+		this.holidays = Collections.unmodifiableList(new ArrayList<>(holidays));
+		this.fixedRule = isFixedRule(this.holidays);
+		this.cachedYears = new CachedYears(firstYear, lastYear, holidayEpochDays.clone());
+		this.firstGrowableYear = firstYear - GROWTH_WINDOW_YEARS;
+		this.lastGrowableYear = lastYear + GROWTH_WINDOW_YEARS;
+	}
+
+	/**
+	 * Returns the calendar of standard holidays observed by every store
+	 */
+	public static HolidayCalendar getDefault() {
+		return DefaultHolder.DEFAULT;
+	}
+
+	/**
+	 * Returns true if the date is an observed holiday
+	 */
+	public boolean isHoliday(LocalDate date) {
+		final long epochDay = date.toEpochDay();
+		return countHolidays(epochDay, epochDay) > 0;
+	}
+
+	/**
+	 * Counts the holidays between two epoch days, inclusive
+	 * 
+	 * @param firstEpochDay The first day of the range
+	 * @param lastEpochDay  The last day of the range
+	 * @return The number of holidays observed in the range
+	 */
+	public int countHolidays(long firstEpochDay, long lastEpochDay) {
+		return countHolidays(firstEpochDay, lastEpochDay, ALL_DAYS);
+	}
+
+	/**
+	 * Counts the holidays between two epoch days, inclusive, that are observed on
+	 * one of the days of the week in the mask. Bit 0 of the mask is Monday and bit
+	 * 6 is Sunday.
+	 * 
+	 * @param firstEpochDay  The first day of the range
+	 * @param lastEpochDay   The last day of the range
+	 * @param daysOfWeekMask The days of the week to count holidays on
+	 * @return The number of matching holidays observed in the range
+	 */
+	public int countHolidays(long firstEpochDay, long lastEpochDay, int daysOfWeekMask) {
+		if (lastEpochDay < firstEpochDay) {
+			return 0;
+		}
+		final CachedYears cached = getCachedYears(firstEpochDay, lastEpochDay);
+		if (cached == null && fixedRule) {
+			return Math.toIntExact(countHolidaysBefore(lastEpochDay + 1, daysOfWeekMask)
+					- countHolidaysBefore(firstEpochDay, daysOfWeekMask));
+		} else if (cached == null) {
+			return Math.toIntExact(countHolidaysUncached(firstEpochDay, lastEpochDay, daysOfWeekMask));
+		}
+		return cached.countHolidays(firstEpochDay, lastEpochDay, daysOfWeekMask);
+	}
+
+	/**
+	 * Returns the holidays between two epoch days, inclusive, that are observed on
+	 * one of the days of the week in the mask, as sorted epoch days
+	 * 
+	 * @param firstEpochDay  The first day of the range
+	 * @param lastEpochDay   The last day of the range
+	 * @param daysOfWeekMask The days of the week to return holidays on
+	 * @return A new array of the matching holidays
+	 */
+	public long[] getHolidayEpochDays(long firstEpochDay, long lastEpochDay, int daysOfWeekMask) {
+		if (lastEpochDay < firstEpochDay) {
+			return new long[0];
+		}
+		final CachedYears cached = getCachedYears(firstEpochDay, lastEpochDay);
+		if (cached == null) {
+			return calculateHolidayEpochDays(firstEpochDay, lastEpochDay, daysOfWeekMask);
+		}
+		return cached.getHolidayEpochDays(firstEpochDay, lastEpochDay, daysOfWeekMask);
+	}
+
+	public List<Holiday> getHolidays() {
+		return holidays;
+	}
+
+	public int getFirstCachedYear() {
+		return cachedYears.firstYear;
+	}
+
+	public int getLastCachedYear() {
+		return cachedYears.lastYear;
+	}
+
+	/**
+	 * Returns a cache that covers the range, growing the cache if needed, or null
+	 * if the range reaches outside of the years the cache may grow to
+	 */
+	private CachedYears getCachedYears(long firstEpochDay, long lastEpochDay) {
+		final CachedYears current = cachedYears;
+		if (current.covers(firstEpochDay, lastEpochDay)) {
+			return current;
+		}
+		if (getYear(firstEpochDay) < firstGrowableYear || getYear(lastEpochDay) > lastGrowableYear) {
+			return null;
+		}
+		return growCachedYears(firstEpochDay, lastEpochDay);
+	}
+
+	private static boolean isFixedRule(List<Holiday> holidays) {
+		for (Holiday holiday : holidays) {
+			if (!holiday.isFixedRule()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Counts the holidays before an epoch day, relative to the start of the 400
+	 * year cycle beginning in 2000. Only differences between two of these counts
+	 * are meaningful, and only when every holiday has a fixed rule.
+	 */
+	private long countHolidaysBefore(long epochDay, int daysOfWeekMask) {
+		final CachedYears cycle = getCycleYears();
+		final long cycles = Math.floorDiv(epochDay - CYCLE_FIRST_EPOCH_DAY, CYCLE_DAYS);
+		final long dayInCycle = epochDay - cycles * CYCLE_DAYS;
+		final int holidaysPerCycle = cycle.countHolidays(CYCLE_FIRST_EPOCH_DAY,
+				CYCLE_FIRST_EPOCH_DAY + CYCLE_DAYS - 1, daysOfWeekMask);
+		return cycles * holidaysPerCycle + cycle.countHolidays(CYCLE_FIRST_EPOCH_DAY, dayInCycle - 1, daysOfWeekMask);
+	}
+
+	/**
+	 * Returns the holidays of one whole 400 year cycle, working them out the first
+	 * time they are needed
+	 */
+	private CachedYears getCycleYears() {
+		CachedYears cycle = cycleYears;
+		if (cycle == null) {
+			cycle = new CachedYears(holidays, CYCLE_FIRST_YEAR, CYCLE_FIRST_YEAR + CYCLE_YEARS - 1);
+			cycleYears = cycle;
+		}
+		return cycle;
+	}
+
+	/**
+	 * Counts the holidays in a range by working them out a chunk of years at a
+	 * time, so that a long range does not need memory in proportion to its length
+	 */
+	private long countHolidaysUncached(long firstEpochDay, long lastEpochDay, int daysOfWeekMask) {
+		final int lastYear = getYear(lastEpochDay);
+		long count = 0;
+		for (int year = getYear(firstEpochDay); year <= lastYear; year += UNCACHED_CHUNK_YEARS) {
+			final CachedYears chunk = new CachedYears(holidays, year,
+					Math.min(lastYear, year + UNCACHED_CHUNK_YEARS - 1));
+			count += chunk.countHolidays(Math.max(firstEpochDay, chunk.firstEpochDay),
+					Math.min(lastEpochDay, chunk.lastEpochDay), daysOfWeekMask);
+		}
+		return count;
+	}
+
+	/**
+	 * Works out the matching holidays in a range without caching them
+	 */
+	private long[] calculateHolidayEpochDays(long firstEpochDay, long lastEpochDay, int daysOfWeekMask) {
+		final long[] epochDays = CachedYears.calculateHolidayEpochDays(holidays, getYear(firstEpochDay) - 1,
+				getYear(lastEpochDay) + 1);
+		int count = 0;
+		for (long epochDay : epochDays) {
+			if (epochDay >= firstEpochDay && epochDay <= lastEpochDay
+					&& (daysOfWeekMask & (1 << getDayOfWeekIndex(epochDay))) != 0) {
+				epochDays[count++] = epochDay;
+			}
+		}
+		return Arrays.copyOf(epochDays, count);
+	}
+
+	private static int getYear(long epochDay) {
+		return LocalDate.ofEpochDay(epochDay).getYear();
+	}
+
+	/**
+	 * Rebuilds the cache so that it covers both the existing years and the range.
+	 * This only happens for dates far from the present, so it is not worth
+	 * avoiding the lock here.
+	 */
+	private synchronized CachedYears growCachedYears(long firstEpochDay, long lastEpochDay) {
+		final CachedYears current = cachedYears;
+		if (current.covers(firstEpochDay, lastEpochDay)) {
+			return current;
+		}
+		final int firstYear = Math.min(current.firstYear, getYear(firstEpochDay));
+		final int lastYear = Math.max(current.lastYear, getYear(lastEpochDay));
+		final CachedYears grown = new CachedYears(holidays, firstYear, lastYear);
+		cachedYears = grown;
+		return grown;
+	}
+
+	/**
+	 * Holds the default calendar, so that it is only built when first used
+	 */
+	private static final class DefaultHolder {
+
+		private static final HolidayCalendar DEFAULT = new HolidayCalendar(
+				Arrays.asList(StandardHoliday.values()));
+
+	}
+
+	/**
+	 * An immutable snapshot of the holidays observed over a range of years.
+	 * 
+	 * Alongside the sorted epoch days, a running count of holidays per day of the
+	 * week is kept so that a days-of-week mask can be applied without looking at
+	 * the individual holidays.
+	 */
+	private static final class CachedYears {
+
+		private final int firstYear;
+		private final int lastYear;
+		private final long firstEpochDay;
+		private final long lastEpochDay;
+		private final long[] holidayEpochDays;
+
+		// countsBeforeByDayOfWeek[i * 7 + d] is the number of holidays before index i
+		// that fall on day of week d
+		private final int[] countsBeforeByDayOfWeek;
+
+		CachedYears(List<Holiday> holidays, int firstYear, int lastYear) {
+			this(firstYear, lastYear, calculateHolidayEpochDays(holidays, firstYear - 1, lastYear + 1));
+		}
+
+		CachedYears(int firstYear, int lastYear, long[] holidayEpochDays) {
+			this.firstYear = firstYear;
+			this.lastYear = lastYear;
+			this.firstEpochDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+			this.lastEpochDay = LocalDate.of(lastYear, 12, 31).toEpochDay();
+			this.holidayEpochDays = withinDays(holidayEpochDays, firstEpochDay, lastEpochDay);
+			this.countsBeforeByDayOfWeek = calculateCountsBeforeByDayOfWeek(this.holidayEpochDays);
+		}
+
+		boolean covers(long first, long last) {
+			return first >= firstEpochDay && last <= lastEpochDay;
+		}
+
+		int countHolidays(long first, long last, int daysOfWeekMask) {
+			final int fromIndex = indexOfFirstOnOrAfter(first) * DAYS_PER_WEEK;
+			final int toIndex = indexOfFirstOnOrAfter(last + 1) * DAYS_PER_WEEK;
+			int count = 0;
+			for (int mask = daysOfWeekMask; mask != 0; mask &= mask - 1) {
+				final int dayOfWeek = Integer.numberOfTrailingZeros(mask);
+				count += countsBeforeByDayOfWeek[toIndex + dayOfWeek] - countsBeforeByDayOfWeek[fromIndex + dayOfWeek];
+			}
+			return count;
+		}
+
+		long[] getHolidayEpochDays(long first, long last, int daysOfWeekMask) {
+			final int fromIndex = indexOfFirstOnOrAfter(first);
+			final int toIndex = indexOfFirstOnOrAfter(last + 1);
+			final long[] matching = new long[toIndex - fromIndex];
+			int count = 0;
+			for (int i = fromIndex; i < toIndex; i++) {
+				if ((daysOfWeekMask & (1 << getDayOfWeekIndex(holidayEpochDays[i]))) != 0) {
+					matching[count++] = holidayEpochDays[i];
+				}
+			}
+			return count == matching.length ? matching : Arrays.copyOf(matching, count);
+		}
+
+		/**
+		 * A binary search for the index of the first holiday on or after the epoch
+		 * day, or the number of holidays if there is none
+		 */
+		private int indexOfFirstOnOrAfter(long epochDay) {
+			int low = 0;
+			int high = holidayEpochDays.length;
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (holidayEpochDays[middle] < epochDay) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Returns the distinct holidays in the years as sorted epoch days. Two
+		 * holidays observed on the same date only count as one day off.
+		 */
+		private static long[] calculateHolidayEpochDays(List<Holiday> holidays, int firstYear, int lastYear) {
+			final long[] epochDays = new long[holidays.size() * (lastYear - firstYear + 1)];
+			int count = 0;
+			for (int year = firstYear; year <= lastYear; year++) {
+				for (Holiday holiday : holidays) {
+					epochDays[count++] = holiday.getObservedDate(year).toEpochDay();
+				}
+			}
+			Arrays.sort(epochDays);
+
+			int distinct = 0;
+			for (int i = 0; i < count; i++) {
+				if (distinct == 0 || epochDays[distinct - 1] != epochDays[i]) {
+					epochDays[distinct++] = epochDays[i];
+				}
+			}
+			return Arrays.copyOf(epochDays, distinct);
+		}
+
+		/**
+		 * Drops the sorted epoch days outside of the range, which are the holidays of
+		 * the neighbouring years that were only worked out in case they are observed
+		 * across the new year
+		 */
+		private static long[] withinDays(long[] epochDays, long first, long last) {
+			int from = 0;
+			while (from < epochDays.length && epochDays[from] < first) {
+				from++;
+			}
+			int to = epochDays.length;
+			while (to > from && epochDays[to - 1] > last) {
+				to--;
+			}
+			return from == 0 && to == epochDays.length ? epochDays : Arrays.copyOfRange(epochDays, from, to);
+		}
+
+		private static int[] calculateCountsBeforeByDayOfWeek(long[] holidayEpochDays) {
+			final int[] counts = new int[(holidayEpochDays.length + 1) * DAYS_PER_WEEK];
+			for (int i = 0; i < holidayEpochDays.length; i++) {
+				System.arraycopy(counts, i * DAYS_PER_WEEK, counts, (i + 1) * DAYS_PER_WEEK, DAYS_PER_WEEK);
+				counts[(i + 1) * DAYS_PER_WEEK + getDayOfWeekIndex(holidayEpochDays[i])]++;
+			}
+			return counts;
+		}
+	}
+
+}
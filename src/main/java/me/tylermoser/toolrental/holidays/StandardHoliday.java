@@ -0,0 +1,50 @@
+package me.tylermoser.toolrental.holidays;
+
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
+import static java.time.LocalDate.of;
+import static java.time.Month.JULY;
+import static java.time.Month.SEPTEMBER;
+import static java.time.temporal.TemporalAdjusters.firstInMonth;
+
+import java.time.LocalDate;
+
+/**
+ * The holidays that every store observes
+ */
+public enum StandardHoliday implements Holiday {
+
+	/**
+	 * The 4th of July. When it falls on a weekend it is observed on the closest
+	 * weekday.
+	 */
+	OBSERVED_FOURTH_OF_JULY {
+		@Override
+		public LocalDate getObservedDate(int year) {
+			final LocalDate julyFourth = of(year, JULY, 4);
+			if (julyFourth.getDayOfWeek().equals(SATURDAY)) {
+				return of(year, JULY, 3);
+			} else if (julyFourth.getDayOfWeek().equals(SUNDAY)) {
+				return of(year, JULY, 5);
+			}
+			return julyFourth;
+		}
+	},
+
+	/**
+	 * Labor Day, the first Monday in September
+	 */
+	LABOR_DAY {
+		@Override
+		public LocalDate getObservedDate(int year) {
+			return of(year, SEPTEMBER, 1).with(firstInMonth(MONDAY));
+		}
+	};
+
+	@Override
+	public boolean isFixedRule() {
+		return true;
+	}
+
+}
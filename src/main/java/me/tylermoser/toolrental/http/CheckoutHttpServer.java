@@ -0,0 +1,288 @@
+package me.tylermoser.toolrental.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.exceptions.ToolNotFoundException;
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+import me.tylermoser.toolrental.exceptions.ToolUnavailableException;
+import me.tylermoser.toolrental.journal.RentalAgreementJournal;
+
+/**
+ * An embedded HTTP endpoint for quotes and checkouts, built on the HTTP server
+ * that ships with the JDK.
+ * 
+ * GET /quote and POST /checkout both take the parameters code, days, discount
+ * and date (as yyyy-MM-dd), either in the query string or as a form body. They
+ * respond with the text of the rental agreement. GET /metrics responds with the
+ * checkout metrics of the service.
+ * 
+ * Given a journal, a checkout only succeeds once its agreement has been
+ * appended to the journal and forced to disk. If that fails, the rental is
+ * cancelled and the server responds with 503 Service Unavailable.
+ * 
+ * The server accepts and reads connections on a single selector thread, so an
+ * idle or slow connection does not tie up a thread. Requests are handed to a
+ * virtual thread per request when the JVM supports them (Java 21 or later), and
+ * to a small pool of platform threads otherwise. Checkouts only block for the
+ * journal's group commit, which many requests share, so the pool only needs to
+ * be as big as the number of processors to keep up.
+ * 
+ * The JDK server writes the headers and body of a response separately, so with
+ * Nagle's algorithm on, every response on a kept-alive connection waits about
+ * 40ms for the client's delayed ACK. Applications should set the system
+ * property sun.net.httpserver.nodelay to true before creating the first server
+ * in the JVM, as ToolRentalApplication does.
+ * 
+ * Day counts above 36,500 are rejected as bad requests.
+ */
+public class CheckoutHttpServer {
+
+	private static final Logger LOGGER = Logger.getLogger(CheckoutHttpServer.class.getName());
+	private static final int CONNECTION_BACKLOG = 8192;
+	private static final String TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+	// A century is far longer than any real rental, and keeps a single request
+	// from asking for billions of days of charges
+	private static final int MAX_DAY_COUNT = 36_500;
+
+	private final CheckoutService checkoutService;
+	private final RentalAgreementJournal journal;
+	private final HttpServer server;
+	private final ExecutorService requestExecutor;
+	private final boolean virtualThreads;
+
+	/**
+	 * Creates a server that does not journal its rentals. It does not accept
+	 * connections until start() is called.
+	 * 
+	 * @param checkoutService The service to quote and checkout with
+	 * @param address         The address to listen on. A port of 0 picks any
+	 *                        free port.
+	 * @throws IOException If the address cannot be bound
+	 */
+	public CheckoutHttpServer(CheckoutService checkoutService, InetSocketAddress address) throws IOException {
+		this(checkoutService, null, address);
+	}
+
+	/**
+	 * Creates a server. It does not accept connections until start() is called.
+	 * 
+	 * @param checkoutService The service to quote and checkout with
+	 * @param journal         The journal to record every rental in before
+	 *                        responding, or null to not journal rentals
+	 * @param address         The address to listen on. A port of 0 picks any
+	 *                        free port.
+	 * @throws IOException If the address cannot be bound
+	 */
+	public CheckoutHttpServer(CheckoutService checkoutService, RentalAgreementJournal journal,
+			InetSocketAddress address) throws IOException {
+		this.checkoutService = checkoutService;
+		this.journal = journal;
+		this.server = HttpServer.create(address, CONNECTION_BACKLOG);
+
+		final ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+		this.virtualThreads = virtualThreadExecutor != null;
+		this.requestExecutor = virtualThreads ? virtualThreadExecutor : newPlatformThreadExecutor();
+
+		server.setExecutor(requestExecutor);
+		server.createContext("/quote", exchange -> handle(exchange, "GET", false));
+		server.createContext("/checkout", exchange -> handle(exchange, "POST", true));
+		server.createContext("/metrics", this::handleMetrics);
+	}
+
+	/**
+	 * Starts accepting connections
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops accepting connections, waits up to a number of seconds for requests in
+	 * progress to finish, and then shuts down the request threads
+	 * 
+	 * @param delaySeconds The most time to wait for requests in progress
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		requestExecutor.shutdown();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public boolean isUsingVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * Handles a quote or checkout request
+	 * 
+	 * @param method   The HTTP method the endpoint accepts
+	 * @param checkout True to checkout, or false to only quote
+	 */
+	private void handle(HttpExchange exchange, String method, boolean checkout) throws IOException {
+		try {
+			if (!method.equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", method);
+				sendText(exchange, 405, "Use " + method + " for this endpoint.");
+				return;
+			}
+
+			final Map<String, String> parameters = readParameters(exchange);
+			final String code = parameters.get("code");
+			final int dayCount = Integer.parseInt(getRequired(parameters, "days"));
+			if (dayCount > MAX_DAY_COUNT) {
+				throw new IllegalArgumentException("A rental can be at most " + MAX_DAY_COUNT + " days.");
+			}
+			final int discountPercent = Integer.parseInt(parameters.getOrDefault("discount", "0"));
+			final LocalDate checkoutDate = LocalDate.parse(getRequired(parameters, "date"));
+
+			final RentalAgreement rentalAgreement = checkout
+					? checkoutService.checkout(code, dayCount, discountPercent, checkoutDate)
+					: checkoutService.quote(code, dayCount, discountPercent, checkoutDate);
+			if (checkout && !journalRental(rentalAgreement)) {
+				sendText(exchange, 503, "The rental could not be recorded, so it was cancelled.");
+				return;
+			}
+			final byte[] report = new byte[rentalAgreement.getReportByteLength()];
+			rentalAgreement.writeReport(ByteBuffer.wrap(report));
+			send(exchange, 200, report);
+		} catch (ToolNotFoundException e) {
+			sendText(exchange, 404, e.getMessage());
+		} catch (ToolUnavailableException e) {
+			sendText(exchange, 409, e.getMessage());
+		} catch (ToolRentalValidationException | IllegalArgumentException | DateTimeParseException e) {
+			sendText(exchange, 400, e.getMessage());
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Appends an agreement to the journal and waits for it to reach the disk,
+	 * cancelling the rental if either fails
+	 * 
+	 * @return True if the rental is journaled, or there is no journal
+	 */
+	private boolean journalRental(RentalAgreement rentalAgreement) {
+		if (journal == null) {
+			return true;
+		}
+		try {
+			journal.awaitDurable(journal.append(rentalAgreement));
+			return true;
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "The rental of " + rentalAgreement.getToolCode() + " could not be journaled.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		checkoutService.cancelRental(rentalAgreement);
+		return false;
+	}
+
+	private void handleMetrics(HttpExchange exchange) throws IOException {
+		try {
+			sendText(exchange, 200, checkoutService.getMetrics().snapshot().toString());
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Reads the parameters from the query string, and from the body of a form
+	 * post. A parameter in the body replaces one with the same name in the query
+	 * string.
+	 */
+	private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+		final Map<String, String> parameters = new HashMap<>();
+		parseParameters(exchange.getRequestURI().getRawQuery(), parameters);
+		try (InputStream body = exchange.getRequestBody()) {
+			final byte[] bytes = body.readAllBytes();
+			if (bytes.length > 0) {
+				parseParameters(new String(bytes, UTF_8), parameters);
+			}
+		}
+		return parameters;
+	}
+
+	private static void parseParameters(String encoded, Map<String, String> parameters) {
+		if (encoded == null || encoded.isEmpty()) {
+			return;
+		}
+		for (String pair : encoded.split("&")) {
+			final int separator = pair.indexOf('=');
+			if (separator > 0) {
+				parameters.put(URLDecoder.decode(pair.substring(0, separator), UTF_8),
+						URLDecoder.decode(pair.substring(separator + 1), UTF_8));
+			}
+		}
+	}
+
+	private static String getRequired(Map<String, String> parameters, String name) {
+		final String value = parameters.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("The parameter " + name + " is required.");
+		}
+		return value;
+	}
+
+	private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+		send(exchange, status, (text + "\n").getBytes(UTF_8));
+	}
+
+	private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", TEXT_CONTENT_TYPE);
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	/**
+	 * Creates an executor that starts a virtual thread per task, or returns null
+	 * if the JVM does not support virtual threads. It is looked up reflectively so
+	 * that the project still builds and runs on Java 17.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static ExecutorService newPlatformThreadExecutor() {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		final ThreadFactory threadFactory = runnable -> {
+			final Thread thread = new Thread(runnable, "checkout-http-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), threadFactory);
+	}
+
+}
@@ -0,0 +1,231 @@
+package me.tylermoser.toolrental.inventory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.tylermoser.toolrental.exceptions.DuplicateToolCodeException;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolType;
+
+/**
+ * A read-only inventory that stores its tools in primitive arrays rather than
+ * as one object per tool, for catalogs with hundreds of thousands of units.
+ * 
+ * Every tool is a row. The codes of all the tools are packed into one char
+ * array. Brands and tool types are dictionary encoded, so each row holds a pair
+ * of ints that refer to a single shared copy of each brand and ToolType. The
+ * prices are not copied into the rows at all: they stay on the shared ToolType,
+ * so reloading prices in a ToolTypeRegistry applies here too.
+ * 
+ * Lookups by code go through an open addressing hash table of row numbers, and
+ * do not allocate.
+ * 
+ * The inventory never changes after it is built, so it is safe to share between
+ * threads. To change the catalog, build a new one.
+ */
+public class ColumnarInventory {
+
+	private static final int NOT_FOUND = -1;
+	private static final int EMPTY_SLOT = 0;
+
+	private final int size;
+	private final char[] codeChars;
+	private final int[] codeOffsets;
+	private final int[] brandIds;
+	private final int[] toolTypeIds;
+	private final String[] brands;
+	private final ToolType[] toolTypes;
+
+	// Each slot holds a row number plus one, so that 0 can mean an empty slot
+	private final int[] slots;
+	private final int slotMask;
+
+	/**
+	 * Builds a columnar inventory from tools
+	 * 
+	 * @param tools The complete catalog of tools
+	 * @throws DuplicateToolCodeException If two of the tools share a code
+	 */
+	public ColumnarInventory(Collection<? extends Tool> tools) {
+		this.size = tools.size();
+		this.codeOffsets = new int[size + 1];
+		this.brandIds = new int[size];
+		this.toolTypeIds = new int[size];
+
+		final Map<String, Integer> brandIdsByBrand = new HashMap<>();
+		final List<String> brandDictionary = new ArrayList<>();
+		final Map<ToolType, Integer> toolTypeIdsByToolType = new IdentityHashMap<>();
+		final List<ToolType> toolTypeDictionary = new ArrayList<>();
+
+		int codeLength = 0;
+		for (Tool tool : tools) {
+			codeLength += tool.getCode().length();
+		}
+		this.codeChars = new char[codeLength];
+
+		this.slots = new int[getSlotCount(size)];
+		this.slotMask = slots.length - 1;
+
+		int row = 0;
+		for (Tool tool : tools) {
+			final String code = tool.getCode();
+			code.getChars(0, code.length(), codeChars, codeOffsets[row]);
+			codeOffsets[row + 1] = codeOffsets[row] + code.length();
+
+			brandIds[row] = brandIdsByBrand.computeIfAbsent(tool.getBrand(), brand -> {
+				brandDictionary.add(brand);
+				return brandDictionary.size() - 1;
+			});
+			toolTypeIds[row] = toolTypeIdsByToolType.computeIfAbsent(tool.getType(), toolType -> {
+				toolTypeDictionary.add(toolType);
+				return toolTypeDictionary.size() - 1;
+			});
+
+			insertIntoIndex(code, row);
+			row++;
+		}
+
+		this.brands = brandDictionary.toArray(new String[0]);
+		this.toolTypes = toolTypeDictionary.toArray(new ToolType[0]);
+	}
+
+	/**
+	 * Get the row of a tool by code
+	 * 
+	 * @param code The code of the tool
+	 * @return The row of the tool, or -1 if there is no tool with that code
+	 */
+	public int findRow(String code) {
+		if (code == null) {
+			return NOT_FOUND;
+		}
+		for (int slot = hash(code) & slotMask;; slot = (slot + 1) & slotMask) {
+			final int entry = slots[slot];
+			if (entry == EMPTY_SLOT) {
+				return NOT_FOUND;
+			} else if (codeEquals(entry - 1, code)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	/**
+	 * Get a tool by code. This creates a new Tool object, so prefer working with
+	 * rows on hot paths.
+	 * 
+	 * @param code The code of the tool
+	 * @return The tool, or null if there is no tool with that code
+	 */
+	public Tool findTool(String code) {
+		final int row = findRow(code);
+		return row == NOT_FOUND ? null : getTool(row);
+	}
+
+	/**
+	 * Determines how many days to charge for when renting the tool in a row
+	 * 
+	 * @param row             The row of the tool being rented
+	 * @param checkoutDate    The date that the rental begins
+	 * @param dayCount        The number of days before the rental must be returned
+	 * @param holidayCalendar The holidays observed during the rental
+	 * @return The number of days to charge the customer for
+	 */
+	public int getNumberOfRentalDays(int row, LocalDate checkoutDate, int dayCount, HolidayCalendar holidayCalendar) {
+		return getToolType(row).getPricing().getNumberOfRentalDays(checkoutDate, dayCount, holidayCalendar);
+	}
+
+	/**
+	 * Creates a Tool object for a row
+	 */
+	public Tool getTool(int row) {
+		return new Tool(getCode(row), getBrand(row), getToolType(row));
+	}
+
+	/**
+	 * Returns the total size of the arrays backing this inventory, in bytes. This
+	 * does not include the shared brand Strings and ToolTypes, which are counted
+	 * once however many rows refer to them.
+	 */
+	public long getColumnBytes() {
+		return (long) codeChars.length * Character.BYTES
+				+ (long) (codeOffsets.length + brandIds.length + toolTypeIds.length + slots.length) * Integer.BYTES;
+	}
+
+	private void insertIntoIndex(String code, int row) {
+		for (int slot = hash(code) & slotMask;; slot = (slot + 1) & slotMask) {
+			final int entry = slots[slot];
+			if (entry == EMPTY_SLOT) {
+				slots[slot] = row + 1;
+				return;
+			} else if (codeEquals(entry - 1, code)) {
+				throw new DuplicateToolCodeException(code);
+			}
+		}
+	}
+
+	private boolean codeEquals(int row, String code) {
+		final int offset = codeOffsets[row];
+		final int length = codeOffsets[row + 1] - offset;
+		if (length != code.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (codeChars[offset + i] != code.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Spreads the String hash code so that codes differing only in their last
+	 * characters do not land in neighboring slots
+	 */
+	private static int hash(String code) {
+		final int hash = code.hashCode() * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Returns a power of two with room for the rows at a load factor of at most
+	 * one half
+	 */
+	private static int getSlotCount(int rows) {
+		return Integer.highestOneBit(Math.max(1, rows) * 2 - 1) << 1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public String getCode(int row) {
+		return new String(codeChars, codeOffsets[row], codeOffsets[row + 1] - codeOffsets[row]);
+	}
+
+	public String getBrand(int row) {
+		return brands[brandIds[row]];
+	}
+
+	public ToolType getToolType(int row) {
+		return toolTypes[toolTypeIds[row]];
+	}
+
+	public int getToolTypeId(int row) {
+		return toolTypeIds[row];
+	}
+
+	public int getToolTypeCount() {
+		return toolTypes.length;
+	}
+
+	public ToolType getToolTypeById(int toolTypeId) {
+		return toolTypes[toolTypeId];
+	}
+
+}
@@ -0,0 +1,158 @@
+package me.tylermoser.toolrental.inventory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import me.tylermoser.toolrental.exceptions.DuplicateToolCodeException;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * A collection of tools available to rent, indexed by tool code and by tool
+ * type.
+ * 
+ * Lookups read a concurrent hash index without taking any locks, so they are
+ * O(1) regardless of the size of the catalog and never wait on writers. Asking
+ * for the tools of a type costs as much as the number of tools of that type,
+ * not the whole catalog.
+ * 
+ * Adding and removing single tools is safe from any number of threads. A bulk
+ * reload builds a complete new index on the side and swaps it in at once, so
+ * readers see either the whole old catalog or the whole new one. The lock below
+ * is only ever taken by writers, to make sure a tool added during a reload is
+ * not added to the index that is about to be replaced.
+ */
+public class Inventory {
+
+	private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+	private volatile Index index = new Index(16);
+
+	/**
+	 * Add a single tool to the inventory
+	 * 
+	 * @param tool The tool to add
+	 * @throws DuplicateToolCodeException If a tool with the same code is already
+	 *                                    in the inventory
+	 */
+	public void addTool(Tool tool) {
+		reloadLock.readLock().lock();
+		try {
+			if (!index.add(tool)) {
+				throw new DuplicateToolCodeException(tool.getCode());
+			}
+		} finally {
+			reloadLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove a single tool from the inventory
+	 * 
+	 * @param tool The tool to remove
+	 * @return True if the tool was in the inventory
+	 */
+	public boolean removeTool(Tool tool) {
+		reloadLock.readLock().lock();
+		try {
+			return index.remove(tool);
+		} finally {
+			reloadLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Replace the entire contents of the inventory at once
+	 * 
+	 * @param tools The complete catalog of tools
+	 * @throws DuplicateToolCodeException If two of the tools share a code. The
+	 *                                    inventory is left unchanged.
+	 */
+	public void reload(Collection<? extends Tool> tools) {
+		final Index reloadedIndex = new Index(tools.size());
+		for (Tool tool : tools) {
+			if (!reloadedIndex.add(tool)) {
+				throw new DuplicateToolCodeException(tool.getCode());
+			}
+		}
+
+		reloadLock.writeLock().lock();
+		try {
+			index = reloadedIndex;
+		} finally {
+			reloadLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Get a tool in the inventory by code
+	 * 
+	 * @param code The code of the tool
+	 * @return The tool, or null if there is no tool with that code
+	 */
+	public Tool findTool(String code) {
+		if (code == null) {
+			return null;
+		}
+		return index.toolsByCode.get(code);
+	}
+
+	/**
+	 * Returns a live, read-only view of the tools in the inventory
+	 */
+	public Collection<Tool> getTools() {
+		return Collections.unmodifiableCollection(index.toolsByCode.values());
+	}
+
+	/**
+	 * Returns a live, read-only view of the tools of one type in the inventory
+	 * 
+	 * @param toolType The name of the tool type, such as Ladder
+	 * @return The tools of the type, which is empty if there are none
+	 */
+	public Collection<Tool> getToolsOfType(String toolType) {
+		final Set<Tool> tools = toolType == null ? null : index.toolsByType.get(toolType);
+		return tools == null ? Collections.emptySet() : Collections.unmodifiableSet(tools);
+	}
+
+	public int size() {
+		return index.toolsByCode.size();
+	}
+
+	/**
+	 * The tools by code, and the same tools grouped by type name. A tool is added
+	 * to its type after its code and removed from its type after its code, so a
+	 * reader may briefly see a tool in one and not yet the other.
+	 */
+	private static final class Index {
+
+		private final ConcurrentHashMap<String, Tool> toolsByCode;
+		private final ConcurrentHashMap<String, Set<Tool>> toolsByType = new ConcurrentHashMap<>();
+
+		Index(int capacity) {
+			this.toolsByCode = new ConcurrentHashMap<>(capacity);
+		}
+
+		boolean add(Tool tool) {
+			if (toolsByCode.putIfAbsent(tool.getCode(), tool) != null) {
+				return false;
+			}
+			toolsByType.computeIfAbsent(tool.getToolType(), type -> ConcurrentHashMap.newKeySet()).add(tool);
+			return true;
+		}
+
+		boolean remove(Tool tool) {
+			if (!toolsByCode.remove(tool.getCode(), tool)) {
+				return false;
+			}
+			final Set<Tool> toolsOfType = toolsByType.get(tool.getToolType());
+			if (toolsOfType != null) {
+				toolsOfType.remove(tool);
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package me.tylermoser.toolrental.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.CHARGE_DAYS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.CHECKOUT_EPOCH_DAY_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DAILY_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DISCOUNT_AMOUNT_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DISCOUNT_PERCENT_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DUE_EPOCH_DAY_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.FINAL_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.PRE_DISCOUNT_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.RENTAL_DAYS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.TOOL_CODE_LENGTH_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.TOOL_CODE_OFFSET;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * A flyweight over the records in a journal, for fast sequential scans.
+ * 
+ * The cursor reads each field straight out of the memory-mapped file when its
+ * getter is called, so stepping through millions of records creates no
+ * objects. Only getToolCode() and toEntry() allocate.
+ * 
+ * A cursor is not thread-safe, but any number of cursors can scan the same
+ * journal at once.
+ */
+public class JournalCursor {
+
+	private final RentalAgreementJournal journal;
+	private final long recordCount;
+	private long index = -1;
+	private ByteBuffer segment;
+	private int offset;
+
+	JournalCursor(RentalAgreementJournal journal, long recordCount) {
+		this.journal = journal;
+		this.recordCount = recordCount;
+	}
+
+	/**
+	 * Moves to the next record
+	 * 
+	 * @return True if there was another record, or false at the end of the journal
+	 */
+	public boolean next() {
+		if (index + 1 >= recordCount) {
+			return false;
+		}
+		index++;
+		segment = journal.getSegment(index);
+		offset = journal.getOffsetInSegment(index);
+		return true;
+	}
+
+	/**
+	 * Copies the current record into a JournalEntry
+	 */
+	public JournalEntry toEntry() {
+		return new JournalEntry(getToolCode(), LocalDate.ofEpochDay(getCheckoutEpochDay()),
+				LocalDate.ofEpochDay(getDueEpochDay()), getRentalDays(), getChargeDays(), getDiscountPercent(),
+				getDailyRentalChargeCents(), getPreDiscountChargeCents(), getDiscountAmountCents(),
+				getFinalChargeCents());
+	}
+
+	public long getIndex() {
+		return index;
+	}
+
+	public String getToolCode() {
+		final byte[] code = new byte[segment.get(offset + TOOL_CODE_LENGTH_OFFSET)];
+		for (int i = 0; i < code.length; i++) {
+			code[i] = segment.get(offset + TOOL_CODE_OFFSET + i);
+		}
+		return new String(code, UTF_8);
+	}
+
+	public int getCheckoutEpochDay() {
+		return segment.getInt(offset + CHECKOUT_EPOCH_DAY_OFFSET);
+	}
+
+	public int getDueEpochDay() {
+		return segment.getInt(offset + DUE_EPOCH_DAY_OFFSET);
+	}
+
+	public int getRentalDays() {
+		return segment.getInt(offset + RENTAL_DAYS_OFFSET);
+	}
+
+	public int getChargeDays() {
+		return segment.getInt(offset + CHARGE_DAYS_OFFSET);
+	}
+
+	public int getDiscountPercent() {
+		return segment.getInt(offset + DISCOUNT_PERCENT_OFFSET);
+	}
+
+	public long getDailyRentalChargeCents() {
+		return segment.getLong(offset + DAILY_CHARGE_CENTS_OFFSET);
+	}
+
+	public long getPreDiscountChargeCents() {
+		return segment.getLong(offset + PRE_DISCOUNT_CHARGE_CENTS_OFFSET);
+	}
+
+	public long getDiscountAmountCents() {
+		return segment.getLong(offset + DISCOUNT_AMOUNT_CENTS_OFFSET);
+	}
+
+	public long getFinalChargeCents() {
+		return segment.getLong(offset + FINAL_CHARGE_CENTS_OFFSET);
+	}
+
+}
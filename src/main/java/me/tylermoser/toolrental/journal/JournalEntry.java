@@ -0,0 +1,81 @@
+package me.tylermoser.toolrental.journal;
+
+import java.time.LocalDate;
+
+/**
+ * A rental agreement as it was recorded in the journal
+ */
+public class JournalEntry {
+
+	private final String toolCode;
+	private final LocalDate checkoutDate;
+	private final LocalDate dueDate;
+	private final int rentalDays;
+	private final int chargeDays;
+	private final int discountPercent;
+	private final long dailyRentalChargeCents;
+	private final long preDiscountChargeCents;
+	private final long discountAmountCents;
+	private final long finalChargeCents;
+
+	public JournalEntry(String toolCode, LocalDate checkoutDate, LocalDate dueDate, int rentalDays, int chargeDays,
+			int discountPercent, long dailyRentalChargeCents, long preDiscountChargeCents, long discountAmountCents,
+			long finalChargeCents) {
+		this.toolCode = toolCode;
+		this.checkoutDate = checkoutDate;
+		this.dueDate = dueDate;
+		this.rentalDays = rentalDays;
+		this.chargeDays = chargeDays;
+		this.discountPercent = discountPercent;
+		this.dailyRentalChargeCents = dailyRentalChargeCents;
+		this.preDiscountChargeCents = preDiscountChargeCents;
+		this.discountAmountCents = discountAmountCents;
+		this.finalChargeCents = finalChargeCents;
+	}
+
+	public String getToolCode() {
+		return toolCode;
+	}
+
+	public LocalDate getCheckoutDate() {
+		return checkoutDate;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+	public int getRentalDays() {
+		return rentalDays;
+	}
+
+	public int getChargeDays() {
+		return chargeDays;
+	}
+
+	public int getDiscountPercent() {
+		return discountPercent;
+	}
+
+	public long getDailyRentalChargeCents() {
+		return dailyRentalChargeCents;
+	}
+
+	public long getPreDiscountChargeCents() {
+		return preDiscountChargeCents;
+	}
+
+	public long getDiscountAmountCents() {
+		return discountAmountCents;
+	}
+
+	public long getFinalChargeCents() {
+		return finalChargeCents;
+	}
+
+	public String toString() {
+		return toolCode + " " + checkoutDate + " to " + dueDate + " charged " + chargeDays + " days, final charge "
+				+ finalChargeCents + " cents";
+	}
+
+}
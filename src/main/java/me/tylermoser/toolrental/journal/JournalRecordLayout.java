@@ -0,0 +1,75 @@
+package me.tylermoser.toolrental.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * The layout of the journal file.
+ * 
+ * The file starts with a fixed size header, followed by fixed size records.
+ * Each record is written field by field, and a CRC32C checksum of every other
+ * byte of the record is written last. Records are 72 bytes, so many of them
+ * straddle two pages of the file, and the operating system may write either
+ * page back first. A record that was only partly on disk at a crash therefore
+ * fails its checksum, wherever the missing bytes are, and is ignored on replay.
+ * An empty slot never passes, since the checksum of zeroes is not zero.
+ * 
+ * <pre>
+ * offset  size  field
+ *      0     1  tool code length in bytes
+ *      1    15  tool code, UTF-8
+ *     16     4  checkout date, epoch day
+ *     20     4  due date, epoch day
+ *     24     4  rental days
+ *     28     4  charge days
+ *     32     4  discount percent
+ *     36     4  CRC32C of bytes 0-35 and 40-71
+ *     40     8  daily rental charge, cents
+ *     48     8  pre-discount charge, cents
+ *     56     8  discount amount, cents
+ *     64     8  final charge, cents
+ * </pre>
+ */
+final class JournalRecordLayout {
+
+	static final long FILE_MAGIC = 0x544F4F4C4A524E4CL;
+	static final int FILE_VERSION = 2;
+	static final int HEADER_SIZE = 64;
+	static final int HEADER_MAGIC_OFFSET = 0;
+	static final int HEADER_VERSION_OFFSET = 8;
+	static final int HEADER_RECORD_SIZE_OFFSET = 12;
+
+	static final int RECORD_SIZE = 72;
+	static final int MAX_TOOL_CODE_BYTES = 15;
+
+	static final int TOOL_CODE_LENGTH_OFFSET = 0;
+	static final int TOOL_CODE_OFFSET = 1;
+	static final int CHECKOUT_EPOCH_DAY_OFFSET = 16;
+	static final int DUE_EPOCH_DAY_OFFSET = 20;
+	static final int RENTAL_DAYS_OFFSET = 24;
+	static final int CHARGE_DAYS_OFFSET = 28;
+	static final int DISCOUNT_PERCENT_OFFSET = 32;
+	static final int CHECKSUM_OFFSET = 36;
+	static final int DAILY_CHARGE_CENTS_OFFSET = 40;
+	static final int PRE_DISCOUNT_CHARGE_CENTS_OFFSET = 48;
+	static final int DISCOUNT_AMOUNT_CENTS_OFFSET = 56;
+	static final int FINAL_CHARGE_CENTS_OFFSET = 64;
+
+	private JournalRecordLayout() {
+	}
+
+	/**
+	 * Calculates the checksum of the record at an offset, covering every byte of
+	 * the record except the checksum itself
+	 */
+	static int checksum(ByteBuffer segment, int offset) {
+		final CRC32C crc = new CRC32C();
+		final ByteBuffer record = segment.duplicate();
+		record.limit(offset + CHECKSUM_OFFSET).position(offset);
+		crc.update(record);
+		record.limit(offset + RECORD_SIZE).position(offset + CHECKSUM_OFFSET + Integer.BYTES);
+		crc.update(record);
+		return (int) crc.getValue();
+	}
+
+}
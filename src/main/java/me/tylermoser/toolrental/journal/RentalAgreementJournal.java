@@ -0,0 +1,381 @@
+package me.tylermoser.toolrental.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.CHARGE_DAYS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.CHECKOUT_EPOCH_DAY_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.CHECKSUM_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DAILY_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DISCOUNT_AMOUNT_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DISCOUNT_PERCENT_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.DUE_EPOCH_DAY_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.FILE_MAGIC;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.FILE_VERSION;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.FINAL_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.HEADER_MAGIC_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.HEADER_RECORD_SIZE_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.HEADER_SIZE;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.HEADER_VERSION_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.MAX_TOOL_CODE_BYTES;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.PRE_DISCOUNT_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.RECORD_SIZE;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.RENTAL_DAYS_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.TOOL_CODE_LENGTH_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.TOOL_CODE_OFFSET;
+import static me.tylermoser.toolrental.journal.JournalRecordLayout.checksum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import me.tylermoser.toolrental.RentalAgreement;
+
+/**
+ * An append-only journal of rental agreements, so that there is a durable
+ * record of every rental that survives the JVM exiting.
+ * 
+ * Every agreement is written as a fixed size record (see JournalRecordLayout)
+ * into a memory-mapped file. The file is mapped in large segments, so an append
+ * is a handful of writes to memory.
+ * 
+ * Writes become durable through group commit. A background thread waits a short
+ * time after the first unflushed append, so that other appends can join it, and
+ * then forces every new record to disk at once. Callers that need to know their
+ * agreement is on disk call awaitDurable() with the sequence number returned by
+ * append(), and many callers share the cost of a single fsync.
+ * 
+ * When an existing journal is opened, its records are counted by scanning for
+ * the first record whose checksum does not match, and a record torn by a crash
+ * is overwritten by the next append.
+ */
+public class RentalAgreementJournal implements Closeable {
+
+	private static final int RECORDS_PER_SEGMENT = 1 << 17;
+	private static final long SEGMENT_SIZE = (long) RECORDS_PER_SEGMENT * RECORD_SIZE;
+	private static final long DEFAULT_GROUP_COMMIT_MICROS = 2_000;
+
+	private final FileChannel channel;
+	private final long groupCommitNanos;
+	private final Object appendLock = new Object();
+	private final Object flushMonitor = new Object();
+	private final Thread flusher;
+
+	// Replaced, never modified, when a segment is added, so readers need no lock
+	private volatile MappedByteBuffer[] segments;
+	private volatile long recordCount;
+	private volatile boolean closed;
+	private long durableCount;
+	private IOException flushFailure;
+
+	/**
+	 * Opens a journal, creating the file if it does not exist, with a 2
+	 * millisecond group commit window
+	 * 
+	 * @param path The journal file
+	 * @throws IOException If the file cannot be opened, or is not a journal
+	 */
+	public RentalAgreementJournal(Path path) throws IOException {
+		this(path, DEFAULT_GROUP_COMMIT_MICROS, TimeUnit.MICROSECONDS);
+	}
+
+	/**
+	 * Opens a journal, creating the file if it does not exist
+	 * 
+	 * @param path              The journal file
+	 * @param groupCommitWindow How long to wait for more appends before forcing
+	 *                          records to disk
+	 * @param unit              The unit of the group commit window
+	 * @throws IOException If the file cannot be opened, or is not a journal
+	 */
+	public RentalAgreementJournal(Path path, long groupCommitWindow, TimeUnit unit) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		this.groupCommitNanos = unit.toNanos(groupCommitWindow);
+		try {
+			initializeHeader();
+			this.segments = mapExistingSegments();
+			this.recordCount = countCommittedRecords();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		this.durableCount = recordCount;
+
+		this.flusher = new Thread(this::flushContinuously, "rental-agreement-journal-flusher");
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	/**
+	 * Appends a rental agreement to the journal. The agreement is visible to
+	 * cursors as soon as this returns, but may not be on disk until
+	 * awaitDurable() returns.
+	 * 
+	 * @param rentalAgreement The agreement to record
+	 * @return The sequence number of the record, starting from 0
+	 * @throws IOException              If the journal could not grow
+	 * @throws IllegalArgumentException If the tool code is longer than 15 bytes
+	 * @throws ArithmeticException      If the checkout or due date does not fit
+	 *                                  in the four bytes the record gives it.
+	 *                                  Nothing is appended.
+	 */
+	public long append(RentalAgreement rentalAgreement) throws IOException {
+		final byte[] toolCode = rentalAgreement.getToolCode().getBytes(UTF_8);
+		if (toolCode.length > MAX_TOOL_CODE_BYTES) {
+			throw new IllegalArgumentException(
+					"Tool codes longer than " + MAX_TOOL_CODE_BYTES + " bytes cannot be journaled.");
+		}
+		final int checkoutEpochDay = Math.toIntExact(rentalAgreement.getCheckoutEpochDay());
+		final int dueEpochDay = Math.toIntExact(rentalAgreement.getDueEpochDay());
+
+		final long sequence;
+		synchronized (appendLock) {
+			ensureOpen();
+			sequence = recordCount;
+			final MappedByteBuffer segment = getOrAddSegment(sequence);
+			final int offset = getOffsetInSegment(sequence);
+
+			segment.put(offset + TOOL_CODE_LENGTH_OFFSET, (byte) toolCode.length);
+			for (int i = 0; i < MAX_TOOL_CODE_BYTES; i++) {
+				segment.put(offset + TOOL_CODE_OFFSET + i, i < toolCode.length ? toolCode[i] : 0);
+			}
+			segment.putInt(offset + CHECKOUT_EPOCH_DAY_OFFSET, checkoutEpochDay);
+			segment.putInt(offset + DUE_EPOCH_DAY_OFFSET, dueEpochDay);
+			segment.putInt(offset + RENTAL_DAYS_OFFSET, rentalAgreement.getRentalDays());
+			segment.putInt(offset + CHARGE_DAYS_OFFSET, rentalAgreement.getChargeDays());
+			segment.putInt(offset + DISCOUNT_PERCENT_OFFSET, rentalAgreement.getDiscountPercent());
+			segment.putLong(offset + DAILY_CHARGE_CENTS_OFFSET, rentalAgreement.getDailyRentalChargeCents());
+			segment.putLong(offset + PRE_DISCOUNT_CHARGE_CENTS_OFFSET, rentalAgreement.getPreDiscountChargeCents());
+			segment.putLong(offset + DISCOUNT_AMOUNT_CENTS_OFFSET, rentalAgreement.getDiscountAmountCents());
+			segment.putLong(offset + FINAL_CHARGE_CENTS_OFFSET, rentalAgreement.getFinalChargeCents());
+			segment.putInt(offset + CHECKSUM_OFFSET, checksum(segment, offset));
+
+			recordCount = sequence + 1;
+		}
+
+		synchronized (flushMonitor) {
+			flushMonitor.notifyAll();
+		}
+		return sequence;
+	}
+
+	/**
+	 * Waits until a record, and every record before it, has been forced to disk
+	 * 
+	 * @param sequence The sequence number returned by append()
+	 * @throws IOException          If forcing the journal to disk failed
+	 * @throws InterruptedException If the thread is interrupted while waiting
+	 */
+	public void awaitDurable(long sequence) throws IOException, InterruptedException {
+		synchronized (flushMonitor) {
+			while (durableCount <= sequence && flushFailure == null) {
+				flushMonitor.wait();
+			}
+			if (flushFailure != null) {
+				throw flushFailure;
+			}
+		}
+	}
+
+	/**
+	 * Returns a cursor over every record appended so far
+	 */
+	public JournalCursor cursor() {
+		return new JournalCursor(this, recordCount);
+	}
+
+	/**
+	 * Reads every record into memory
+	 */
+	public List<JournalEntry> replay() {
+		final List<JournalEntry> entries = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, recordCount));
+		final JournalCursor cursor = cursor();
+		while (cursor.next()) {
+			entries.add(cursor.toEntry());
+		}
+		return entries;
+	}
+
+	public long size() {
+		return recordCount;
+	}
+
+	/**
+	 * Forces any remaining records to disk and closes the journal
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (appendLock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		synchronized (flushMonitor) {
+			flushMonitor.notifyAll();
+		}
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			forceSegments(durableCount, recordCount);
+			synchronized (flushMonitor) {
+				durableCount = recordCount;
+			}
+		} catch (IOException e) {
+			synchronized (flushMonitor) {
+				flushFailure = e;
+			}
+			throw e;
+		} finally {
+			synchronized (flushMonitor) {
+				flushMonitor.notifyAll();
+			}
+			channel.close();
+		}
+	}
+
+	MappedByteBuffer getSegment(long sequence) {
+		return segments[(int) (sequence / RECORDS_PER_SEGMENT)];
+	}
+
+	int getOffsetInSegment(long sequence) {
+		return (int) (sequence % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+	}
+
+	/**
+	 * The body of the background thread that performs group commits
+	 */
+	private void flushContinuously() {
+		while (true) {
+			final long flushedCount;
+			synchronized (flushMonitor) {
+				while (!closed && recordCount == durableCount) {
+					waitQuietly();
+				}
+				if (closed) {
+					return;
+				}
+				flushedCount = durableCount;
+			}
+
+			// Give other appends a chance to join this commit
+			sleepQuietly(groupCommitNanos);
+
+			final long targetCount = recordCount;
+			try {
+				forceSegments(flushedCount, targetCount);
+				synchronized (flushMonitor) {
+					durableCount = targetCount;
+					flushMonitor.notifyAll();
+				}
+			} catch (IOException e) {
+				synchronized (flushMonitor) {
+					flushFailure = e;
+					flushMonitor.notifyAll();
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Forces every segment holding records in the range to disk. Only the pages
+	 * that were written are actually flushed by the operating system.
+	 */
+	private void forceSegments(long fromSequence, long toSequence) throws IOException {
+		if (toSequence <= fromSequence) {
+			return;
+		}
+		final MappedByteBuffer[] currentSegments = segments;
+		final int firstSegment = (int) (fromSequence / RECORDS_PER_SEGMENT);
+		final int lastSegment = (int) ((toSequence - 1) / RECORDS_PER_SEGMENT);
+		for (int segment = firstSegment; segment <= lastSegment; segment++) {
+			currentSegments[segment].force();
+		}
+	}
+
+	private MappedByteBuffer getOrAddSegment(long sequence) throws IOException {
+		final int segmentIndex = (int) (sequence / RECORDS_PER_SEGMENT);
+		MappedByteBuffer[] currentSegments = segments;
+		if (segmentIndex >= currentSegments.length) {
+			currentSegments = Arrays.copyOf(currentSegments, segmentIndex + 1);
+			currentSegments[segmentIndex] = mapSegment(segmentIndex);
+			segments = currentSegments;
+		}
+		return currentSegments[segmentIndex];
+	}
+
+	private MappedByteBuffer mapSegment(int segmentIndex) throws IOException {
+		return channel.map(MapMode.READ_WRITE, HEADER_SIZE + segmentIndex * SEGMENT_SIZE, SEGMENT_SIZE);
+	}
+
+	private void initializeHeader() throws IOException {
+		final MappedByteBuffer header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+		if (header.getLong(HEADER_MAGIC_OFFSET) == 0) {
+			header.putLong(HEADER_MAGIC_OFFSET, FILE_MAGIC);
+			header.putInt(HEADER_VERSION_OFFSET, FILE_VERSION);
+			header.putInt(HEADER_RECORD_SIZE_OFFSET, RECORD_SIZE);
+			header.force();
+		} else if (header.getLong(HEADER_MAGIC_OFFSET) != FILE_MAGIC
+				|| header.getInt(HEADER_VERSION_OFFSET) != FILE_VERSION
+				|| header.getInt(HEADER_RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+			throw new IOException("The file is not a version " + FILE_VERSION + " rental agreement journal.");
+		}
+	}
+
+	private MappedByteBuffer[] mapExistingSegments() throws IOException {
+		final long dataSize = Math.max(0, channel.size() - HEADER_SIZE);
+		final int segmentCount = (int) ((dataSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+		final MappedByteBuffer[] existingSegments = new MappedByteBuffer[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			existingSegments[i] = mapSegment(i);
+		}
+		return existingSegments;
+	}
+
+	private long countCommittedRecords() {
+		long count = 0;
+		final long capacity = (long) segments.length * RECORDS_PER_SEGMENT;
+		while (count < capacity && isComplete(getSegment(count), getOffsetInSegment(count))) {
+			count++;
+		}
+		return count;
+	}
+
+	private static boolean isComplete(MappedByteBuffer segment, int offset) {
+		return segment.getInt(offset + CHECKSUM_OFFSET) == checksum(segment, offset);
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("The journal is closed.");
+		}
+	}
+
+	private void waitQuietly() {
+		try {
+			flushMonitor.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleepQuietly(long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
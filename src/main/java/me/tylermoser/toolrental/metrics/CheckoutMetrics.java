@@ -0,0 +1,183 @@
+package me.tylermoser.toolrental.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+
+/**
+ * Counters and latencies for the checkout path.
+ * 
+ * Every counter is a LongAdder, which stripes its value across cells so that
+ * threads recording at the same time do not contend on a single memory
+ * location. Latencies go into a striped, lock-free LatencyHistogram. Recording
+ * a checkout therefore never blocks, and costs a small fraction of a
+ * microsecond.
+ * 
+ * The metrics can be read through snapshot(), or through JMX once register()
+ * has been called.
+ */
+public class CheckoutMetrics implements CheckoutMetricsMXBean {
+
+	private final LongAdder rentals = new LongAdder();
+	private final LongAdder validationFailures = new LongAdder();
+	private final LongAdder listenerFailures = new LongAdder();
+	private final LongAdder unexpectedFailures = new LongAdder();
+	private final ConcurrentHashMap<Class<?>, LongAdder> validationFailuresByType = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, LongAdder> rentalsByToolCode = new ConcurrentHashMap<>();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	/**
+	 * Records a rental agreement being created for a tool
+	 * 
+	 * @param code The code of the tool that was rented
+	 */
+	public void recordRental(String code) {
+		rentals.increment();
+		getAdder(rentalsByToolCode, code).increment();
+	}
+
+	/**
+	 * Records a checkout that failed validation
+	 * 
+	 * @param validationFailure The reason the checkout failed
+	 */
+	public void recordValidationFailure(ToolRentalValidationException validationFailure) {
+		validationFailures.increment();
+		getAdder(validationFailuresByType, validationFailure.getClass()).increment();
+	}
+
+	/**
+	 * Records a rental listener throwing an exception for an agreement that was
+	 * still created
+	 */
+	public void recordListenerFailure() {
+		listenerFailures.increment();
+	}
+
+	/**
+	 * Records a checkout in a batch that failed with an exception other than a
+	 * validation failure
+	 */
+	public void recordUnexpectedFailure() {
+		unexpectedFailures.increment();
+	}
+
+	/**
+	 * Records how long a single checkout took, whether or not it succeeded
+	 * 
+	 * @param nanos The duration of the checkout in nanoseconds
+	 */
+	public void recordLatency(long nanos) {
+		latency.record(nanos);
+	}
+
+	/**
+	 * Takes a point-in-time copy of the metrics
+	 */
+	public CheckoutMetricsSnapshot snapshot() {
+		final Map<String, Long> failuresByTypeName = new HashMap<>();
+		validationFailuresByType.forEach((type, count) -> failuresByTypeName.put(type.getSimpleName(), count.sum()));
+		final Map<String, Long> rentalsByCode = new HashMap<>();
+		rentalsByToolCode.forEach((code, count) -> rentalsByCode.put(code, count.sum()));
+		return new CheckoutMetricsSnapshot(rentals.sum(), validationFailures.sum(), failuresByTypeName, rentalsByCode,
+				latency.snapshot());
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server
+	 * 
+	 * @param objectName The name to register the metrics under, such as
+	 *                   "me.tylermoser.toolrental:type=CheckoutMetrics"
+	 * @throws JMException If the metrics could not be registered
+	 */
+	public void register(String objectName) throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(objectName));
+	}
+
+	/**
+	 * Looks up the adder for a key, only falling back to putIfAbsent (which may
+	 * lock) the first time the key is seen. This avoids a lambda, since the first
+	 * checkout after startup would otherwise pay to bootstrap it.
+	 */
+	private static <K> LongAdder getAdder(ConcurrentHashMap<K, LongAdder> adders, K key) {
+		final LongAdder adder = adders.get(key);
+		if (adder != null) {
+			return adder;
+		}
+		final LongAdder created = new LongAdder();
+		final LongAdder existing = adders.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+
+	/*
+	 * The methods below make up the JMX view of the metrics.
+	 */
+
+	@Override
+	public long getCheckoutCount() {
+		return rentals.sum() + validationFailures.sum();
+	}
+
+	@Override
+	public long getRentalCount() {
+		return rentals.sum();
+	}
+
+	@Override
+	public long getValidationFailureCount() {
+		return validationFailures.sum();
+	}
+
+	@Override
+	public long getListenerFailureCount() {
+		return listenerFailures.sum();
+	}
+
+	@Override
+	public long getUnexpectedFailureCount() {
+		return unexpectedFailures.sum();
+	}
+
+	@Override
+	public Map<String, Long> getValidationFailuresByType() {
+		return snapshot().getValidationFailuresByType();
+	}
+
+	@Override
+	public Map<String, Long> getRentalsByToolCode() {
+		return snapshot().getRentalsByToolCode();
+	}
+
+	@Override
+	public double getLatencyMeanNanos() {
+		return latency.snapshot().getMeanNanos();
+	}
+
+	@Override
+	public long getLatencyP50Nanos() {
+		return latency.snapshot().getP50Nanos();
+	}
+
+	@Override
+	public long getLatencyP99Nanos() {
+		return latency.snapshot().getP99Nanos();
+	}
+
+	@Override
+	public long getLatencyP999Nanos() {
+		return latency.snapshot().getP999Nanos();
+	}
+
+	@Override
+	public long getLatencyMaxNanos() {
+		return latency.snapshot().getMaxNanos();
+	}
+
+}
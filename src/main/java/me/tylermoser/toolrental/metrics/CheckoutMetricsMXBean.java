@@ -0,0 +1,35 @@
+package me.tylermoser.toolrental.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of CheckoutMetrics. Every attribute is read from a live snapshot
+ * of the metrics.
+ */
+public interface CheckoutMetricsMXBean {
+
+	long getCheckoutCount();
+
+	long getRentalCount();
+
+	long getValidationFailureCount();
+
+	long getListenerFailureCount();
+
+	long getUnexpectedFailureCount();
+
+	Map<String, Long> getValidationFailuresByType();
+
+	Map<String, Long> getRentalsByToolCode();
+
+	double getLatencyMeanNanos();
+
+	long getLatencyP50Nanos();
+
+	long getLatencyP99Nanos();
+
+	long getLatencyP999Nanos();
+
+	long getLatencyMaxNanos();
+
+}
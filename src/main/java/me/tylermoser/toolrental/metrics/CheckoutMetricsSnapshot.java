@@ -0,0 +1,58 @@
+package me.tylermoser.toolrental.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable copy of CheckoutMetrics at a point in time
+ */
+public class CheckoutMetricsSnapshot {
+
+	private final long rentalCount;
+	private final long validationFailureCount;
+	private final Map<String, Long> validationFailuresByType;
+	private final Map<String, Long> rentalsByToolCode;
+	private final LatencySnapshot latency;
+
+	public CheckoutMetricsSnapshot(long rentalCount, long validationFailureCount,
+			Map<String, Long> validationFailuresByType, Map<String, Long> rentalsByToolCode, LatencySnapshot latency) {
+		this.rentalCount = rentalCount;
+		this.validationFailureCount = validationFailureCount;
+		this.validationFailuresByType = Collections.unmodifiableMap(validationFailuresByType);
+		this.rentalsByToolCode = Collections.unmodifiableMap(rentalsByToolCode);
+		this.latency = latency;
+	}
+
+	public long getCheckoutCount() {
+		return rentalCount + validationFailureCount;
+	}
+
+	public long getRentalCount() {
+		return rentalCount;
+	}
+
+	public long getValidationFailureCount() {
+		return validationFailureCount;
+	}
+
+	/**
+	 * Returns the number of validation failures keyed by the simple name of the
+	 * exception, such as "InvalidDiscountException"
+	 */
+	public Map<String, Long> getValidationFailuresByType() {
+		return validationFailuresByType;
+	}
+
+	public Map<String, Long> getRentalsByToolCode() {
+		return rentalsByToolCode;
+	}
+
+	public LatencySnapshot getLatency() {
+		return latency;
+	}
+
+	public String toString() {
+		return "rentals=" + rentalCount + " validationFailures=" + validationFailuresByType + " latency=" + latency;
+	}
+
+}
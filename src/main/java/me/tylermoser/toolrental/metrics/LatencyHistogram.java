@@ -0,0 +1,111 @@
+package me.tylermoser.toolrental.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * 
+ * Values below 16 get a bucket each. Larger values are grouped by their highest
+ * set bit, and each power of two is split into 8 linear sub-buckets, so every
+ * recorded value is within 12.5% of its bucket's bounds. Recording a value is a
+ * handful of bit operations and one atomic increment.
+ * 
+ * To keep threads from contending on the same hot buckets, the counts are
+ * striped. Each thread records into the stripe picked by its thread id, and the
+ * stripes are only added together when a snapshot is taken.
+ */
+public class LatencyHistogram {
+
+	private static final int EXACT_BUCKETS = 16;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int FIRST_GROUPED_EXPONENT = 4;
+	private static final int BUCKETS = EXACT_BUCKETS + (Long.SIZE - 1 - FIRST_GROUPED_EXPONENT) * SUB_BUCKETS;
+	private static final int MAX_STRIPES = 64;
+
+	private final int stripeMask;
+	private final AtomicLongArray counts;
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram() {
+		final int processors = Runtime.getRuntime().availableProcessors();
+		final int stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, processors - 1)) << 1);
+		this.stripeMask = stripes - 1;
+		this.counts = new AtomicLongArray(stripes * BUCKETS);
+	}
+
+	/**
+	 * Records a single latency
+	 * 
+	 * @param nanos The latency in nanoseconds. Negative values are recorded as 0.
+	 */
+	public void record(long nanos) {
+		final long value = Math.max(0, nanos);
+		final int stripe = (int) Thread.currentThread().getId() & stripeMask;
+		counts.incrementAndGet(stripe * BUCKETS + getBucket(value));
+		totalNanos.add(value);
+		maxNanos.accumulate(value);
+	}
+
+	/**
+	 * Takes a point-in-time summary of the recorded latencies. Values recorded
+	 * while the snapshot is being taken may or may not be included.
+	 */
+	public LatencySnapshot snapshot() {
+		final long[] bucketCounts = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			final long bucketCount = counts.get(i);
+			bucketCounts[i % BUCKETS] += bucketCount;
+			count += bucketCount;
+		}
+
+		final long max = maxNanos.get();
+		final double mean = count == 0 ? 0 : (double) totalNanos.sum() / count;
+		return new LatencySnapshot(count, mean, max, getPercentile(bucketCounts, count, max, 0.50),
+				getPercentile(bucketCounts, count, max, 0.90), getPercentile(bucketCounts, count, max, 0.99),
+				getPercentile(bucketCounts, count, max, 0.999));
+	}
+
+	/**
+	 * Returns the upper bound of the bucket containing the percentile, capped at
+	 * the largest value recorded
+	 */
+	private static long getPercentile(long[] bucketCounts, long count, long max, double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(count * percentile));
+		long seen = 0;
+		for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+			seen += bucketCounts[bucket];
+			if (seen >= rank) {
+				return Math.min(max, getBucketUpperBound(bucket));
+			}
+		}
+		return max;
+	}
+
+	static int getBucket(long value) {
+		if (value < EXACT_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return EXACT_BUCKETS + (exponent - FIRST_GROUPED_EXPONENT) * SUB_BUCKETS + subBucket;
+	}
+
+	static long getBucketUpperBound(int bucket) {
+		if (bucket < EXACT_BUCKETS) {
+			return bucket;
+		}
+		final int exponent = FIRST_GROUPED_EXPONENT + (bucket - EXACT_BUCKETS) / SUB_BUCKETS;
+		final int subBucket = (bucket - EXACT_BUCKETS) % SUB_BUCKETS;
+		final long upperBound = ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+		return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+	}
+
+}
@@ -0,0 +1,61 @@
+package me.tylermoser.toolrental.metrics;
+
+/**
+ * An immutable summary of a LatencyHistogram at a point in time. All values are
+ * in nanoseconds.
+ */
+public class LatencySnapshot {
+
+	private final long count;
+	private final double meanNanos;
+	private final long maxNanos;
+	private final long p50Nanos;
+	private final long p90Nanos;
+	private final long p99Nanos;
+	private final long p999Nanos;
+
+	public LatencySnapshot(long count, double meanNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+			long p999Nanos) {
+		this.count = count;
+		this.meanNanos = meanNanos;
+		this.maxNanos = maxNanos;
+		this.p50Nanos = p50Nanos;
+		this.p90Nanos = p90Nanos;
+		this.p99Nanos = p99Nanos;
+		this.p999Nanos = p999Nanos;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	public long getP90Nanos() {
+		return p90Nanos;
+	}
+
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	public long getP999Nanos() {
+		return p999Nanos;
+	}
+
+	public String toString() {
+		return String.format("count=%d mean=%.0fns p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns", count, meanNanos,
+				p50Nanos, p90Nanos, p99Nanos, p999Nanos, maxNanos);
+	}
+
+}
@@ -0,0 +1,168 @@
+package me.tylermoser.toolrental.metrics;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import me.tylermoser.toolrental.RentalAgreement;
+
+/**
+ * Running revenue and utilization totals, updated as each rental agreement is
+ * created rather than by scanning old agreements.
+ * 
+ * Revenue is the final charge of each agreement in cents, read straight from
+ * the agreement rather than parsed back out of the report. It is rolled up by
+ * tool type, by brand, and by the week of the checkout date, where weeks start
+ * on Monday. Utilization is the number of rental days recorded for each tool.
+ * 
+ * Like CheckoutMetrics, every total is a LongAdder, so recording an agreement
+ * never blocks and threads recording at the same time do not contend. Reading
+ * a single total only sums the cells of one adder, so it costs the same however
+ * many agreements have been recorded. Totals read while agreements are being
+ * recorded may not include the agreements in flight.
+ * 
+ * An aggregator can be added to a CheckoutService as a rental listener.
+ */
+public class RevenueAggregator implements Consumer<RentalAgreement> {
+
+	private static final long DAYS_PER_WEEK = 7;
+
+	// 1970-01-05 (epoch day 4) was the first Monday after the epoch
+	private static final long FIRST_MONDAY_EPOCH_DAY = 4;
+
+	private final LongAdder agreements = new LongAdder();
+	private final LongAdder revenueCents = new LongAdder();
+	private final ConcurrentHashMap<String, LongAdder> revenueCentsByToolType = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, LongAdder> revenueCentsByBrand = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, LongAdder> revenueCentsByWeek = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, LongAdder> rentalDaysByToolCode = new ConcurrentHashMap<>();
+
+	/**
+	 * Adds a rental agreement to the totals
+	 * 
+	 * @param rentalAgreement The agreement created at checkout
+	 */
+	public void record(RentalAgreement rentalAgreement) {
+		final long finalChargeCents = rentalAgreement.getFinalChargeCents();
+		agreements.increment();
+		revenueCents.add(finalChargeCents);
+		getAdder(revenueCentsByToolType, rentalAgreement.getToolType()).add(finalChargeCents);
+		getAdder(revenueCentsByBrand, rentalAgreement.getToolBrand()).add(finalChargeCents);
+		getAdder(revenueCentsByWeek, getWeekStartEpochDay(rentalAgreement.getCheckoutEpochDay()))
+				.add(finalChargeCents);
+		getAdder(rentalDaysByToolCode, rentalAgreement.getToolCode()).add(rentalAgreement.getRentalDays());
+	}
+
+	/**
+	 * Records the agreement, so that the aggregator can be used as a listener
+	 */
+	@Override
+	public void accept(RentalAgreement rentalAgreement) {
+		record(rentalAgreement);
+	}
+
+	/**
+	 * Returns the revenue for a single week
+	 * 
+	 * @param date Any date in the week
+	 * @return The final charges, in cents, of the agreements checked out that week
+	 */
+	public long getRevenueCentsForWeek(LocalDate date) {
+		return sum(revenueCentsByWeek, getWeekStartEpochDay(date.toEpochDay()));
+	}
+
+	/**
+	 * Returns the share of a period that a tool was rented for, assuming its
+	 * recorded rentals all fall within the period
+	 * 
+	 * @param code       The tool code
+	 * @param periodDays The number of days the tool could have been rented
+	 * @return The rented days divided by the period, from 0 to 1
+	 */
+	public double getUtilization(String code, long periodDays) {
+		if (periodDays < 1) {
+			throw new IllegalArgumentException("A utilization period must be at least one day.");
+		}
+		return Math.min(1.0, (double) getRentalDays(code) / periodDays);
+	}
+
+	/**
+	 * Returns the Monday on or before an epoch day
+	 */
+	private static long getWeekStartEpochDay(long epochDay) {
+		return epochDay - Math.floorMod(epochDay - FIRST_MONDAY_EPOCH_DAY, DAYS_PER_WEEK);
+	}
+
+	/**
+	 * Looks up the adder for a key, only falling back to putIfAbsent (which may
+	 * lock) the first time the key is seen. This avoids a lambda, since the first
+	 * checkout after startup would otherwise pay to bootstrap it.
+	 */
+	private static <K> LongAdder getAdder(ConcurrentHashMap<K, LongAdder> adders, K key) {
+		final LongAdder adder = adders.get(key);
+		if (adder != null) {
+			return adder;
+		}
+		final LongAdder created = new LongAdder();
+		final LongAdder existing = adders.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+
+	private static <K> long sum(ConcurrentHashMap<K, LongAdder> adders, K key) {
+		final LongAdder adder = adders.get(key);
+		return adder == null ? 0 : adder.sum();
+	}
+
+	private static <K> Map<K, Long> sumAll(ConcurrentHashMap<K, LongAdder> adders) {
+		final Map<K, Long> sums = new HashMap<>();
+		adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+		return sums;
+	}
+
+	/*
+	 * The map getters return a copy of every total, keyed by tool type, brand,
+	 * Monday of the week, or tool code.
+	 */
+
+	public long getAgreementCount() {
+		return agreements.sum();
+	}
+
+	public long getRevenueCents() {
+		return revenueCents.sum();
+	}
+
+	public long getRevenueCentsByToolType(String toolType) {
+		return sum(revenueCentsByToolType, toolType);
+	}
+
+	public long getRevenueCentsByBrand(String brand) {
+		return sum(revenueCentsByBrand, brand);
+	}
+
+	public long getRentalDays(String code) {
+		return sum(rentalDaysByToolCode, code);
+	}
+
+	public Map<String, Long> getRevenueCentsByToolType() {
+		return sumAll(revenueCentsByToolType);
+	}
+
+	public Map<String, Long> getRevenueCentsByBrand() {
+		return sumAll(revenueCentsByBrand);
+	}
+
+	public Map<LocalDate, Long> getRevenueCentsByWeek() {
+		final Map<LocalDate, Long> sums = new HashMap<>();
+		revenueCentsByWeek.forEach((weekStart, adder) -> sums.put(LocalDate.ofEpochDay(weekStart), adder.sum()));
+		return sums;
+	}
+
+	public Map<String, Long> getRentalDaysByToolCode() {
+		return sumAll(rentalDaysByToolCode);
+	}
+
+}
@@ -0,0 +1,78 @@
+package me.tylermoser.toolrental.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import me.tylermoser.toolrental.tools.ToolPricing;
+
+/**
+ * The charge for the same length of rental on each of a range of consecutive
+ * checkout dates, before any discount. A discount is a fixed percentage, so it
+ * never changes which checkout dates are cheapest.
+ */
+public final class PriceCurve {
+
+	private final ToolPricing pricing;
+	private final LocalDate firstCheckoutDate;
+	private final int[] chargeDays;
+
+	PriceCurve(ToolPricing pricing, LocalDate firstCheckoutDate, int[] chargeDays) {
+		this.pricing = pricing;
+		this.firstCheckoutDate = firstCheckoutDate;
+		this.chargeDays = chargeDays;
+	}
+
+	/**
+	 * Returns the checkout dates with the lowest charge, cheapest first. Dates
+	 * with the same charge are returned earliest first.
+	 * 
+	 * @param limit The most checkout dates to return
+	 */
+	public List<LocalDate> getCheapestCheckoutDates(int limit) {
+		// Sorting the charge days with each index in the low bits orders dates with
+		// the same charge by index, and needs no memory for the range of charges
+		final long[] chargeDaysAndIndexes = new long[chargeDays.length];
+		for (int i = 0; i < chargeDays.length; i++) {
+			chargeDaysAndIndexes[i] = (long) chargeDays[i] << 32 | i;
+		}
+		Arrays.sort(chargeDaysAndIndexes);
+
+		final int count = Math.min(Math.max(limit, 0), chargeDays.length);
+		final List<LocalDate> cheapest = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			cheapest.add(getCheckoutDate((int) chargeDaysAndIndexes[i]));
+		}
+		return cheapest;
+	}
+
+	/*
+	 * The indexed getters take the number of days after the first checkout date.
+	 */
+
+	public ToolPricing getPricing() {
+		return pricing;
+	}
+
+	public LocalDate getFirstCheckoutDate() {
+		return firstCheckoutDate;
+	}
+
+	public int size() {
+		return chargeDays.length;
+	}
+
+	public LocalDate getCheckoutDate(int index) {
+		return firstCheckoutDate.plusDays(index);
+	}
+
+	public int getChargeDays(int index) {
+		return chargeDays[index];
+	}
+
+	public long getPreDiscountChargeCents(int index) {
+		return Math.multiplyExact(chargeDays[index], pricing.getDailyChargeCents());
+	}
+
+}
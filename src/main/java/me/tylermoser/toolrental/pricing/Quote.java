@@ -0,0 +1,34 @@
+package me.tylermoser.toolrental.pricing;
+
+import me.tylermoser.toolrental.tools.ToolPricing;
+
+/**
+ * The charge for renting a type of tool over a rental period, before any
+ * discount. A quote depends only on the pricing, the holidays, the checkout
+ * date and the day count, so it can be shared by every tool of the same type.
+ */
+public final class Quote {
+
+	private final ToolPricing pricing;
+	private final int chargeDays;
+	private final long preDiscountChargeCents;
+
+	public Quote(ToolPricing pricing, int chargeDays) {
+		this.pricing = pricing;
+		this.chargeDays = chargeDays;
+		this.preDiscountChargeCents = Math.multiplyExact(chargeDays, pricing.getDailyChargeCents());
+	}
+
+	public ToolPricing getPricing() {
+		return pricing;
+	}
+
+	public int getChargeDays() {
+		return chargeDays;
+	}
+
+	public long getPreDiscountChargeCents() {
+		return preDiscountChargeCents;
+	}
+
+}
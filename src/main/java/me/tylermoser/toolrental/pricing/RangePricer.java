@@ -0,0 +1,65 @@
+package me.tylermoser.toolrental.pricing;
+
+import me.tylermoser.toolrental.inventory.ColumnarInventory;
+import me.tylermoser.toolrental.tools.ToolPricing;
+
+/**
+ * Prices every tool in an inventory for the same rental period at once, such
+ * as for a catalog page showing prices for the customer's chosen dates.
+ * 
+ * Tools of the same type always cost the same, so the charge is worked out
+ * once per tool type from the RentalRange. The per-tool work is then a single
+ * loop that copies the charge for each row's tool type id, with no objects and
+ * no branches.
+ */
+public final class RangePricer {
+
+	private RangePricer() {
+	}
+
+	/**
+	 * Prices every tool in an inventory for a rental period
+	 * 
+	 * @param inventory The tools to price
+	 * @param range     The rental period
+	 * @return The pre-discount charge in cents for each row of the inventory
+	 */
+	public static long[] priceAll(ColumnarInventory inventory, RentalRange range) {
+		final long[] chargeCents = new long[inventory.size()];
+		priceAll(inventory, range, chargeCents);
+		return chargeCents;
+	}
+
+	/**
+	 * Prices every tool in an inventory for a rental period, into an existing
+	 * array so that repeated pricing does not allocate
+	 * 
+	 * @param inventory   The tools to price
+	 * @param range       The rental period
+	 * @param chargeCents Receives the pre-discount charge in cents for each row
+	 *                    of the inventory. It must be at least as long as the
+	 *                    inventory.
+	 */
+	public static void priceAll(ColumnarInventory inventory, RentalRange range, long[] chargeCents) {
+		final long[] chargeCentsByToolType = priceToolTypes(inventory, range);
+		final int size = inventory.size();
+		for (int row = 0; row < size; row++) {
+			chargeCents[row] = chargeCentsByToolType[inventory.getToolTypeId(row)];
+		}
+	}
+
+	/**
+	 * Prices each tool type of an inventory once. Each type's pricing is read
+	 * once, so a price reload part way through cannot mix old and new values for
+	 * a type.
+	 */
+	private static long[] priceToolTypes(ColumnarInventory inventory, RentalRange range) {
+		final long[] chargeCentsByToolType = new long[inventory.getToolTypeCount()];
+		for (int toolTypeId = 0; toolTypeId < chargeCentsByToolType.length; toolTypeId++) {
+			final ToolPricing pricing = inventory.getToolTypeById(toolTypeId).getPricing();
+			chargeCentsByToolType[toolTypeId] = range.getChargeDays(pricing) * pricing.getDailyChargeCents();
+		}
+		return chargeCentsByToolType;
+	}
+
+}
@@ -0,0 +1,114 @@
+package me.tylermoser.toolrental.pricing;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.countDaysOfWeek;
+
+import java.time.LocalDate;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.rules.ChargePolicy;
+
+/**
+ * A rental period analyzed once, so that it can be priced for any number of
+ * tools without looking at the calendar again.
+ * 
+ * The range is broken down into how many times each day of the week occurs in
+ * it, and how many of those days are holidays. From those 14 numbers the charge
+ * days for every combination of charged days of the week and holiday charging
+ * is worked out up front, which is only 256 combinations. Pricing a tool is
+ * then a single array lookup.
+ * 
+ * A weekly cap depends on where the holidays fall within each week, not just
+ * on how many there are, so a pricing with an active cap is counted from the
+ * calendar instead.
+ */
+public final class RentalRange {
+
+	private static final int DAYS_PER_WEEK = 7;
+	private static final int DAYS_OF_WEEK_COMBINATIONS = 1 << DAYS_PER_WEEK;
+
+	private final LocalDate checkoutDate;
+	private final int dayCount;
+	private final HolidayCalendar holidayCalendar;
+	private final int[] daysByDayOfWeek = new int[DAYS_PER_WEEK];
+	private final int[] holidaysByDayOfWeek = new int[DAYS_PER_WEEK];
+
+	// Indexed by the charged days of the week, plus 128 if holidays are charged
+	private final int[] chargeDays = new int[DAYS_OF_WEEK_COMBINATIONS * 2];
+
+	/**
+	 * Analyzes a rental period
+	 * 
+	 * @param checkoutDate    The date that the rental begins
+	 * @param dayCount        The number of days before the rental must be returned
+	 * @param holidayCalendar The holidays observed during the rental
+	 */
+	public RentalRange(LocalDate checkoutDate, int dayCount, HolidayCalendar holidayCalendar) {
+		this.checkoutDate = checkoutDate;
+		this.dayCount = dayCount;
+		this.holidayCalendar = holidayCalendar;
+		if (dayCount < 1) {
+			return;
+		}
+
+		// Rental days are measured from the day after checkout through the return date
+		final long firstDay = checkoutDate.toEpochDay() + 1;
+		final long lastDay = firstDay + dayCount - 1;
+		for (int dayOfWeek = 0; dayOfWeek < DAYS_PER_WEEK; dayOfWeek++) {
+			daysByDayOfWeek[dayOfWeek] = countDaysOfWeek(firstDay, dayCount, 1 << dayOfWeek);
+			holidaysByDayOfWeek[dayOfWeek] = holidayCalendar.countHolidays(firstDay, lastDay, 1 << dayOfWeek);
+		}
+
+		// Each combination adds one day of the week to a smaller combination
+		for (int mask = 1; mask < DAYS_OF_WEEK_COMBINATIONS; mask++) {
+			final int dayOfWeek = Integer.numberOfTrailingZeros(mask);
+			final int withoutDay = mask & (mask - 1);
+			chargeDays[mask] = chargeDays[withoutDay] + daysByDayOfWeek[dayOfWeek] - holidaysByDayOfWeek[dayOfWeek];
+			chargeDays[DAYS_OF_WEEK_COMBINATIONS + mask] = chargeDays[DAYS_OF_WEEK_COMBINATIONS + withoutDay]
+					+ daysByDayOfWeek[dayOfWeek];
+		}
+	}
+
+	/**
+	 * Returns the number of days to charge for
+	 * 
+	 * @param chargedDaysOfWeek The days of the week that are charged, where bit 0
+	 *                          is Monday and bit 6 is Sunday
+	 * @param holidayCharge     True if holidays are charged
+	 */
+	public int getChargeDays(int chargedDaysOfWeek, boolean holidayCharge) {
+		return chargeDays[(holidayCharge ? DAYS_OF_WEEK_COMBINATIONS : 0) | chargedDaysOfWeek];
+	}
+
+	/**
+	 * Returns the number of days to charge for under a tool type's pricing
+	 */
+	public int getChargeDays(ToolPricing pricing) {
+		final ChargePolicy policy = pricing.getChargePolicy();
+		if (dayCount < 1 || policy.isWeeklyCapActive()) {
+			return policy.getChargeDays(checkoutDate, dayCount, holidayCalendar);
+		}
+		return policy.applyMinimumCharge(getChargeDays(policy.getChargedDaysOfWeek(), policy.isHolidayCharge()));
+	}
+
+	public LocalDate getCheckoutDate() {
+		return checkoutDate;
+	}
+
+	public HolidayCalendar getHolidayCalendar() {
+		return holidayCalendar;
+	}
+
+	public int getDayCount() {
+		return dayCount;
+	}
+
+	public int getDayCount(int dayOfWeekIndex) {
+		return daysByDayOfWeek[dayOfWeekIndex];
+	}
+
+	public int getHolidayCount(int dayOfWeekIndex) {
+		return holidaysByDayOfWeek[dayOfWeekIndex];
+	}
+
+}
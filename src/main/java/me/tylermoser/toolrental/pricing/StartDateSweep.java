@@ -0,0 +1,89 @@
+package me.tylermoser.toolrental.pricing;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.countDaysOfWeek;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.getDayOfWeekIndex;
+
+import java.time.LocalDate;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.rules.ChargePolicy;
+
+/**
+ * Prices the same length of rental for every checkout date in a range, such as
+ * to find the cheapest day in the next few weeks to start a rental.
+ * 
+ * The rental is treated as a window that slides one day at a time. Moving the
+ * checkout date forward by a day drops the first rental day from the window and
+ * adds the day after the last one, so each step only looks at those two days,
+ * however long the rental is. The first window is counted arithmetically, like
+ * any other rental, so the time and memory taken grow with the number of
+ * checkout dates and not with the length of the rental.
+ * 
+ * A weekly cap depends on how the charged days fall into weeks of the rental,
+ * which changes with every checkout date, so a pricing with an active cap is
+ * counted separately for each checkout date instead.
+ */
+public final class StartDateSweep {
+
+	private StartDateSweep() {
+	}
+
+	/**
+	 * Prices a rental for consecutive checkout dates
+	 * 
+	 * @param pricing           The pricing of the tool type
+	 * @param firstCheckoutDate The earliest checkout date to price
+	 * @param checkoutDateCount The number of consecutive checkout dates to price
+	 * @param dayCount          The number of days of each rental
+	 * @param holidayCalendar   The holidays observed during the rentals
+	 * @return The charge days and charges for each checkout date
+	 */
+	public static PriceCurve sweep(ToolPricing pricing, LocalDate firstCheckoutDate, int checkoutDateCount,
+			int dayCount, HolidayCalendar holidayCalendar) {
+		if (checkoutDateCount < 0 || dayCount < 0) {
+			throw new IllegalArgumentException("The number of checkout dates and rental days cannot be negative.");
+		}
+		final ChargePolicy policy = pricing.getChargePolicy();
+		final int[] chargeDays = new int[checkoutDateCount];
+		if (checkoutDateCount > 0 && dayCount > 0) {
+			if (policy.isWeeklyCapActive()) {
+				for (int i = 0; i < checkoutDateCount; i++) {
+					chargeDays[i] = policy.getChargeDays(firstCheckoutDate.plusDays(i), dayCount, holidayCalendar);
+				}
+			} else {
+				slideWindow(policy, firstCheckoutDate.toEpochDay() + 1, dayCount, holidayCalendar, chargeDays);
+			}
+		}
+		return new PriceCurve(pricing, firstCheckoutDate, chargeDays);
+	}
+
+	/**
+	 * Counts the charged days in a window of dayCount days starting on each
+	 * consecutive day from firstRentalDay
+	 */
+	private static void slideWindow(ChargePolicy policy, long firstRentalDay, int dayCount,
+			HolidayCalendar holidayCalendar, int[] chargeDays) {
+		final int mask = policy.getChargedDaysOfWeek();
+		int windowChargeDays = countDaysOfWeek(firstRentalDay, dayCount, mask);
+		if (!policy.isHolidayCharge()) {
+			windowChargeDays -= holidayCalendar.countHolidays(firstRentalDay, firstRentalDay + dayCount - 1, mask);
+		}
+		chargeDays[0] = policy.applyMinimumCharge(windowChargeDays);
+
+		for (int i = 1; i < chargeDays.length; i++) {
+			final long droppedDay = firstRentalDay + i - 1;
+			final long addedDay = droppedDay + dayCount;
+			windowChargeDays += (isCharged(policy, addedDay, holidayCalendar) ? 1 : 0)
+					- (isCharged(policy, droppedDay, holidayCalendar) ? 1 : 0);
+			chargeDays[i] = policy.applyMinimumCharge(windowChargeDays);
+		}
+	}
+
+	private static boolean isCharged(ChargePolicy policy, long epochDay, HolidayCalendar holidayCalendar) {
+		final int mask = policy.getChargedDaysOfWeek();
+		return (mask & (1 << getDayOfWeekIndex(epochDay))) != 0
+				&& (policy.isHolidayCharge() || holidayCalendar.countHolidays(epochDay, epochDay, mask) == 0);
+	}
+
+}
@@ -0,0 +1,315 @@
+package me.tylermoser.toolrental.snapshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.BRAND_COUNT_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.FILE_MAGIC;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.FILE_VERSION;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.FIRST_CACHED_YEAR_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.HEADER_SIZE;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.HOLIDAY_CHARGE_FLAG;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.HOLIDAY_COUNT_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.HOLIDAY_DATE_COUNT_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.LAST_CACHED_YEAR_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.HOLIDAY_DATE_SIZE;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.MAX_STRING_BYTES;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.MIN_STRING_SIZE;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.MIN_TOOL_SIZE;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.MIN_TOOL_TYPE_SIZE;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.POLICY_HOLIDAY_CHARGE_FLAG;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.SOURCE_VERSION_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.TOOL_COUNT_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.TOOL_TYPE_COUNT_OFFSET;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.WEEKDAY_CHARGE_FLAG;
+import static me.tylermoser.toolrental.snapshot.SnapshotLayout.WEEKEND_CHARGE_FLAG;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.ALL_DAYS;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.tylermoser.toolrental.holidays.Holiday;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.holidays.StandardHoliday;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.ToolType;
+import me.tylermoser.toolrental.tools.rules.ChargePolicy;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+/**
+ * A whole inventory, with its tool types and holiday calendar, saved to a
+ * single file so that a restarted node can load it in one read instead of
+ * rebuilding it.
+ * 
+ * Loading reads the whole file with one read and decodes it front to back. The holidays
+ * are stored as the dates they were already worked out on, so the calendar is
+ * ready without calculating any dates, and the tool types are stored with
+ * their compiled charge policy, so the tool type CSV is not read either.
+ * 
+ * The tool types in a loaded snapshot belong to the snapshot. Reloading a
+ * ToolTypeRegistry does not reprice them. Nor does changing the tool type CSV,
+ * so a writer can record a source version, such as a checksum of whatever it
+ * built the inventory from, and compare it after loading to decide whether to
+ * rebuild.
+ * 
+ * See SnapshotLayout for the file format.
+ */
+public final class InventorySnapshot {
+
+	private final List<ToolType> toolTypes;
+	private final List<Tool> tools;
+	private final HolidayCalendar holidayCalendar;
+	private final long sourceVersion;
+
+	private InventorySnapshot(List<ToolType> toolTypes, List<Tool> tools, HolidayCalendar holidayCalendar,
+			long sourceVersion) {
+		this.toolTypes = Collections.unmodifiableList(toolTypes);
+		this.tools = Collections.unmodifiableList(tools);
+		this.holidayCalendar = holidayCalendar;
+		this.sourceVersion = sourceVersion;
+	}
+
+	/**
+	 * Writes a snapshot of tools and a holiday calendar with a source version of
+	 * 0, replacing the file if it exists
+	 * 
+	 * @see #write(Path, Collection, HolidayCalendar, long)
+	 */
+	public static void write(Path path, Collection<? extends Tool> tools, HolidayCalendar holidayCalendar)
+			throws IOException {
+		write(path, tools, holidayCalendar, 0);
+	}
+
+	/**
+	 * Writes a snapshot of tools and a holiday calendar, replacing the file if it
+	 * exists
+	 * 
+	 * @param path            The file to write
+	 * @param tools           The complete catalog of tools
+	 * @param holidayCalendar The holidays observed by the inventory
+	 * @param sourceVersion   Identifies what the inventory was built from, and is
+	 *                        returned by getSourceVersion() after loading
+	 * @throws IOException              If the file cannot be written
+	 * @throws IllegalArgumentException If the calendar observes holidays other
+	 *                                  than the standard holidays
+	 */
+	public static void write(Path path, Collection<? extends Tool> tools, HolidayCalendar holidayCalendar,
+			long sourceVersion) throws IOException {
+		final Map<ToolType, Integer> toolTypeIndexes = new IdentityHashMap<>();
+		final Map<String, Integer> brandIndexes = new HashMap<>();
+		for (Tool tool : tools) {
+			toolTypeIndexes.putIfAbsent(tool.getType(), toolTypeIndexes.size());
+			brandIndexes.putIfAbsent(tool.getBrand(), brandIndexes.size());
+		}
+		final ToolType[] toolTypes = new ToolType[toolTypeIndexes.size()];
+		toolTypeIndexes.forEach((toolType, index) -> toolTypes[index] = toolType);
+		final String[] brands = new String[brandIndexes.size()];
+		brandIndexes.forEach((brand, index) -> brands[index] = brand);
+
+		final int firstYear = holidayCalendar.getFirstCachedYear();
+		final int lastYear = holidayCalendar.getLastCachedYear();
+		final long[] holidayEpochDays = holidayCalendar.getHolidayEpochDays(
+				LocalDate.of(firstYear, 1, 1).toEpochDay(), LocalDate.of(lastYear, 12, 31).toEpochDay(), ALL_DAYS);
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+			output.writeLong(FILE_MAGIC);
+			output.writeInt(FILE_VERSION);
+			output.writeInt(holidayCalendar.getHolidays().size());
+			output.writeInt(firstYear);
+			output.writeInt(lastYear);
+			output.writeInt(holidayEpochDays.length);
+			output.writeInt(toolTypes.length);
+			output.writeInt(brands.length);
+			output.writeInt(tools.size());
+			output.writeLong(sourceVersion);
+
+			for (Holiday holiday : holidayCalendar.getHolidays()) {
+				if (!(holiday instanceof StandardHoliday)) {
+					throw new IllegalArgumentException("Only standard holidays can be written to a snapshot.");
+				}
+				writeString(output, ((StandardHoliday) holiday).name());
+			}
+			for (long holidayEpochDay : holidayEpochDays) {
+				output.writeInt(Math.toIntExact(holidayEpochDay));
+			}
+			for (ToolType toolType : toolTypes) {
+				writeToolType(output, toolType);
+			}
+			for (String brand : brands) {
+				writeString(output, brand);
+			}
+			for (Tool tool : tools) {
+				writeString(output, tool.getCode());
+				output.writeInt(brandIndexes.get(tool.getBrand()));
+				output.writeInt(toolTypeIndexes.get(tool.getType()));
+			}
+		}
+	}
+
+	/**
+	 * Loads a snapshot written by write()
+	 * 
+	 * @param path The file to read
+	 * @return The tools, tool types and holiday calendar in the snapshot
+	 * @throws IOException If the file cannot be read, is not a snapshot, or is
+	 *                     truncated or corrupt
+	 */
+	public static InventorySnapshot load(Path path) throws IOException {
+		final ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				throw notASnapshot();
+			}
+			// The first FileChannel.map in a JVM spends 10-15ms setting up method
+			// handles, which is more than reading a snapshot of 100,000 tools takes
+			buffer = ByteBuffer.allocate((int) channel.size());
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					throw notASnapshot();
+				}
+			}
+			buffer.flip();
+		}
+		if (buffer.getLong() != FILE_MAGIC || buffer.getInt() != FILE_VERSION) {
+			throw notASnapshot();
+		}
+
+		// The counts are checked against the size of the file before anything is
+		// allocated, so that a corrupt header cannot ask for a huge array
+		final int holidayCount = buffer.getInt(HOLIDAY_COUNT_OFFSET);
+		final int holidayDateCount = buffer.getInt(HOLIDAY_DATE_COUNT_OFFSET);
+		final int toolTypeCount = buffer.getInt(TOOL_TYPE_COUNT_OFFSET);
+		final int brandCount = buffer.getInt(BRAND_COUNT_OFFSET);
+		final int toolCount = buffer.getInt(TOOL_COUNT_OFFSET);
+		if (holidayCount < 0 || holidayDateCount < 0 || toolTypeCount < 0 || brandCount < 0 || toolCount < 0
+				|| HEADER_SIZE + (long) holidayCount * MIN_STRING_SIZE + (long) holidayDateCount * HOLIDAY_DATE_SIZE
+						+ (long) toolTypeCount * MIN_TOOL_TYPE_SIZE + (long) brandCount * MIN_STRING_SIZE
+						+ (long) toolCount * MIN_TOOL_SIZE > buffer.limit()) {
+			throw corruptSnapshot(null);
+		}
+
+		final Holiday[] holidays = new Holiday[holidayCount];
+		final long[] holidayEpochDays = new long[holidayDateCount];
+		final ToolType[] toolTypes = new ToolType[toolTypeCount];
+		final String[] brands = new String[brandCount];
+		final Tool[] tools = new Tool[toolCount];
+		buffer.position(HEADER_SIZE);
+
+		// Anything else that is wrong with the file shows up as reading past its end,
+		// an index out of range, or a value that cannot be decoded
+		try {
+			for (int i = 0; i < holidays.length; i++) {
+				holidays[i] = StandardHoliday.valueOf(readString(buffer));
+			}
+			for (int i = 0; i < holidayEpochDays.length; i++) {
+				holidayEpochDays[i] = buffer.getInt();
+			}
+			for (int i = 0; i < toolTypes.length; i++) {
+				toolTypes[i] = readToolType(buffer);
+			}
+			for (int i = 0; i < brands.length; i++) {
+				brands[i] = readString(buffer);
+			}
+			for (int i = 0; i < tools.length; i++) {
+				final String code = readString(buffer);
+				tools[i] = new Tool(code, brands[buffer.getInt()], toolTypes[buffer.getInt()]);
+			}
+
+			final HolidayCalendar holidayCalendar = new HolidayCalendar(Arrays.asList(holidays),
+					buffer.getInt(FIRST_CACHED_YEAR_OFFSET), buffer.getInt(LAST_CACHED_YEAR_OFFSET),
+					holidayEpochDays);
+			return new InventorySnapshot(Arrays.asList(toolTypes), Arrays.asList(tools), holidayCalendar,
+					buffer.getLong(SOURCE_VERSION_OFFSET));
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+				| DateTimeException e) {
+			throw corruptSnapshot(e);
+		}
+	}
+
+	/**
+	 * Writes a tool type with its compiled charge policy, so that any additional
+	 * rules are kept without knowing what they were
+	 */
+	private static void writeToolType(DataOutputStream output, ToolType toolType) throws IOException {
+		final ToolPricing pricing = toolType.getPricing();
+		final ChargePolicy policy = pricing.getChargePolicy();
+		writeString(output, toolType.getName());
+		output.writeLong(pricing.getDailyChargeCents());
+		output.writeByte((pricing.isWeekdayCharge() ? WEEKDAY_CHARGE_FLAG : 0)
+				| (pricing.isWeekendCharge() ? WEEKEND_CHARGE_FLAG : 0)
+				| (pricing.isHolidayCharge() ? HOLIDAY_CHARGE_FLAG : 0)
+				| (policy.isHolidayCharge() ? POLICY_HOLIDAY_CHARGE_FLAG : 0));
+		output.writeByte(policy.getChargedDaysOfWeek());
+		output.writeByte(policy.getWeeklyCapDays());
+		output.writeInt(policy.getMinimumChargeDays());
+	}
+
+	private static ToolType readToolType(ByteBuffer buffer) {
+		final String name = readString(buffer);
+		final long dailyChargeCents = buffer.getLong();
+		final int flags = buffer.get();
+		final int chargedDaysOfWeek = buffer.get();
+		final int weeklyCapDays = buffer.get();
+		final int minimumChargeDays = buffer.getInt();
+		return new ToolType(name, new ToolPricing(dailyChargeCents, (flags & WEEKDAY_CHARGE_FLAG) != 0,
+				(flags & WEEKEND_CHARGE_FLAG) != 0, (flags & HOLIDAY_CHARGE_FLAG) != 0,
+				Arrays.asList(ChargeRules.chargeDaysOfWeek(chargedDaysOfWeek),
+						ChargeRules.chargeHolidays((flags & POLICY_HOLIDAY_CHARGE_FLAG) != 0),
+						ChargeRules.weeklyCap(weeklyCapDays), ChargeRules.minimumChargeDays(minimumChargeDays))));
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		final byte[] bytes = value.getBytes(UTF_8);
+		if (bytes.length > MAX_STRING_BYTES) {
+			throw new IllegalArgumentException("The value " + value + " is too long for a snapshot.");
+		}
+		output.writeShort(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		final byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static IOException notASnapshot() {
+		return new IOException("The file is not a version " + FILE_VERSION + " inventory snapshot.");
+	}
+
+	private static IOException corruptSnapshot(RuntimeException cause) {
+		return new IOException("The inventory snapshot is truncated or corrupt.", cause);
+	}
+
+	public List<ToolType> getToolTypes() {
+		return toolTypes;
+	}
+
+	public List<Tool> getTools() {
+		return tools;
+	}
+
+	public HolidayCalendar getHolidayCalendar() {
+		return holidayCalendar;
+	}
+
+	public long getSourceVersion() {
+		return sourceVersion;
+	}
+
+}
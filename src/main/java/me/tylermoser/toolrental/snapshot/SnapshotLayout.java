@@ -0,0 +1,67 @@
+package me.tylermoser.toolrental.snapshot;
+
+/**
+ * The layout of an inventory snapshot file.
+ * 
+ * A fixed size header holds the number of entries in each section, and the
+ * sections follow it in order. Strings are a two byte unsigned length and then
+ * UTF-8 bytes. All numbers are big-endian, the default order of a ByteBuffer.
+ * 
+ * The source version identifies whatever the inventory was built from, so that
+ * a reader can tell when the snapshot has gone out of date.
+ * 
+ * <pre>
+ * header
+ * offset  size  field
+ *      0     8  file magic
+ *      8     4  format version
+ *     12     4  holiday count
+ *     16     4  first cached year of the holiday calendar
+ *     20     4  last cached year of the holiday calendar
+ *     24     4  holiday date count
+ *     28     4  tool type count
+ *     32     4  brand count
+ *     36     4  tool count
+ *     40     8  source version, chosen by the writer
+ * 
+ * sections
+ *   holidays      the name of each StandardHoliday
+ *   holiday dates 4 byte epoch days, sorted
+ *   tool types    name, 8 byte daily charge cents, 1 byte charge flags,
+ *                 1 byte charged days of the week, 1 byte weekly cap days,
+ *                 4 byte minimum charge days
+ *   brands        name
+ *   tools         code, 4 byte brand index, 4 byte tool type index
+ * </pre>
+ */
+final class SnapshotLayout {
+
+	static final long FILE_MAGIC = 0x544F4F4C534E4150L;
+	static final int FILE_VERSION = 2;
+	static final int HEADER_SIZE = 48;
+	static final int MAX_STRING_BYTES = 0xFFFF;
+
+	static final int HOLIDAY_COUNT_OFFSET = 12;
+	static final int FIRST_CACHED_YEAR_OFFSET = 16;
+	static final int LAST_CACHED_YEAR_OFFSET = 20;
+	static final int HOLIDAY_DATE_COUNT_OFFSET = 24;
+	static final int TOOL_TYPE_COUNT_OFFSET = 28;
+	static final int BRAND_COUNT_OFFSET = 32;
+	static final int TOOL_COUNT_OFFSET = 36;
+	static final int SOURCE_VERSION_OFFSET = 40;
+
+	// The fewest bytes each entry of a section can take, with every string empty
+	static final int MIN_STRING_SIZE = 2;
+	static final int HOLIDAY_DATE_SIZE = 4;
+	static final int MIN_TOOL_TYPE_SIZE = MIN_STRING_SIZE + 8 + 1 + 1 + 1 + 4;
+	static final int MIN_TOOL_SIZE = MIN_STRING_SIZE + 4 + 4;
+
+	static final int WEEKDAY_CHARGE_FLAG = 1;
+	static final int WEEKEND_CHARGE_FLAG = 2;
+	static final int HOLIDAY_CHARGE_FLAG = 4;
+	static final int POLICY_HOLIDAY_CHARGE_FLAG = 8;
+
+	private SnapshotLayout() {
+	}
+
+}
@@ -0,0 +1,58 @@
+package me.tylermoser.toolrental.stores;
+
+/**
+ * A store that rents tools from its own inventory
+ */
+public final class Store {
+
+	private static final double EARTH_RADIUS_KILOMETERS = 6371.0;
+
+	private final String id;
+	private final String name;
+	private final double latitude;
+	private final double longitude;
+
+	public Store(String id, String name, double latitude, double longitude) {
+		this.id = id;
+		this.name = name;
+		this.latitude = latitude;
+		this.longitude = longitude;
+	}
+
+	/**
+	 * Returns the great-circle distance from the store to a location, using the
+	 * haversine formula
+	 * 
+	 * @param toLatitude  The latitude of the location in degrees
+	 * @param toLongitude The longitude of the location in degrees
+	 * @return The distance in kilometers
+	 */
+	public double getDistanceKilometers(double toLatitude, double toLongitude) {
+		final double latitudeDelta = Math.toRadians(toLatitude - latitude);
+		final double longitudeDelta = Math.toRadians(toLongitude - longitude);
+		final double a = Math.pow(Math.sin(latitudeDelta / 2), 2) + Math.cos(Math.toRadians(latitude))
+				* Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+		return 2 * EARTH_RADIUS_KILOMETERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public String toString() {
+		return id + " " + name;
+	}
+
+}
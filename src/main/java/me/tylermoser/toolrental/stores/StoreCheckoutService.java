@@ -0,0 +1,197 @@
+package me.tylermoser.toolrental.stores;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.availability.AvailabilityIndex;
+import me.tylermoser.toolrental.exceptions.StoreNotFoundException;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.metrics.CheckoutMetrics;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * Checkouts for many stores, each with its own inventory.
+ * 
+ * Every store is a separate shard: a CheckoutService with its own Inventory,
+ * AvailabilityIndex and CheckoutMetrics. Nothing on the checkout path is shared
+ * between stores except the read-only map of shards, so adding tools to one
+ * store, reloading its inventory or renting its tools never makes another
+ * store wait. A store's pricing comes from the tool types of its tools, so
+ * stores that price differently can build their tools from their own
+ * ToolTypeRegistry.
+ * 
+ * Queries across stores, such as finding the nearest store with a tool, look
+ * at every shard in parallel on the common fork/join pool.
+ */
+public class StoreCheckoutService {
+
+	private final HolidayCalendar holidayCalendar;
+	private final ConcurrentHashMap<String, StoreShard> shardsByStoreId = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a service with no stores, where new stores observe the standard
+	 * holidays
+	 */
+	public StoreCheckoutService() {
+		this(HolidayCalendar.getDefault());
+	}
+
+	/**
+	 * Creates a service with no stores
+	 * 
+	 * @param holidayCalendar The holidays observed by stores added with
+	 *                        addStore(Store)
+	 */
+	public StoreCheckoutService(HolidayCalendar holidayCalendar) {
+		this.holidayCalendar = holidayCalendar;
+	}
+
+	/**
+	 * Adds a store with an empty inventory that tracks availability
+	 * 
+	 * @param store The store to add
+	 * @return The checkout service for the new store, for adding its tools
+	 * @throws IllegalArgumentException If there is already a store with the id
+	 */
+	public CheckoutService addStore(Store store) {
+		final CheckoutService checkoutService = new CheckoutService(new Inventory(), holidayCalendar,
+				new CheckoutMetrics(), new AvailabilityIndex());
+		addStore(store, checkoutService);
+		return checkoutService;
+	}
+
+	/**
+	 * Adds a store that checks out through an existing service
+	 * 
+	 * @param store           The store to add
+	 * @param checkoutService The checkout service for the store only
+	 * @throws IllegalArgumentException If there is already a store with the id
+	 */
+	public void addStore(Store store, CheckoutService checkoutService) {
+		final StoreShard shard = new StoreShard(store, Objects.requireNonNull(checkoutService));
+		if (shardsByStoreId.putIfAbsent(store.getId(), shard) != null) {
+			throw new IllegalArgumentException("There is already a store with id " + store.getId() + ".");
+		}
+	}
+
+	/**
+	 * Removes a store and its inventory
+	 * 
+	 * @param storeId The id of the store
+	 * @return True if the store existed
+	 */
+	public boolean removeStore(String storeId) {
+		return shardsByStoreId.remove(storeId) != null;
+	}
+
+	/**
+	 * Get the checkout service of a single store
+	 * 
+	 * @param storeId The id of the store
+	 * @return The checkout service for the store
+	 * @throws StoreNotFoundException If there is no store with the id
+	 */
+	public CheckoutService getCheckoutService(String storeId) {
+		return getShard(storeId).checkoutService;
+	}
+
+	/**
+	 * Creates a rental agreement for a tool from one store
+	 * 
+	 * @param storeId         The id of the store renting the tool
+	 * @param code            The code for the tool being rented
+	 * @param dayCount        The number of days the tool will be rented
+	 * @param discountPercent The discount applied at checkout
+	 * @param checkoutDate    The date that the rental will begin
+	 * @return A RentalAgreement used to view all the information for a rental
+	 * @throws StoreNotFoundException If there is no store with the id
+	 */
+	public RentalAgreement checkout(String storeId, String code, int dayCount, int discountPercent,
+			LocalDate checkoutDate) {
+		return getCheckoutService(storeId).checkout(code, dayCount, discountPercent, checkoutDate);
+	}
+
+	/**
+	 * Finds the nearest store that has a tool of a type free for a whole rental
+	 * period
+	 * 
+	 * @param toolType     The name of the tool type, such as Ladder
+	 * @param checkoutDate The date that the rental would begin
+	 * @param dayCount     The number of days the tool would be rented
+	 * @param latitude     The latitude of the customer in degrees
+	 * @param longitude    The longitude of the customer in degrees
+	 * @return The nearest store with its available tools of the type, or null if
+	 *         no store has one available
+	 */
+	public StoreMatch findNearestStoreWithTool(String toolType, LocalDate checkoutDate, int dayCount,
+			double latitude, double longitude) {
+		return shardsByStoreId.values().parallelStream().map(shard -> {
+			final List<Tool> tools = shard.checkoutService.findAvailableTools(toolType, checkoutDate, dayCount);
+			return tools.isEmpty() ? null
+					: new StoreMatch(shard.store, tools, shard.store.getDistanceKilometers(latitude, longitude));
+		}).filter(Objects::nonNull).min(Comparator.comparingDouble(StoreMatch::getDistanceKilometers)).orElse(null);
+	}
+
+	/**
+	 * Finds the nearest store that has a tool with a specific code in its
+	 * inventory, whether or not it is rented
+	 * 
+	 * @param code      The code of the tool
+	 * @param latitude  The latitude of the customer in degrees
+	 * @param longitude The longitude of the customer in degrees
+	 * @return The nearest store with the tool, or null if no store has it
+	 */
+	public StoreMatch findNearestStoreWithToolCode(String code, double latitude, double longitude) {
+		return shardsByStoreId.values().parallelStream().map(shard -> {
+			final Tool tool = shard.checkoutService.getInventory().findTool(code);
+			return tool == null ? null
+					: new StoreMatch(shard.store, List.of(tool), shard.store.getDistanceKilometers(latitude, longitude));
+		}).filter(Objects::nonNull).min(Comparator.comparingDouble(StoreMatch::getDistanceKilometers)).orElse(null);
+	}
+
+	private StoreShard getShard(String storeId) {
+		final StoreShard shard = storeId == null ? null : shardsByStoreId.get(storeId);
+		if (shard == null) {
+			throw new StoreNotFoundException(storeId);
+		}
+		return shard;
+	}
+
+	/**
+	 * Returns a snapshot of the stores in the service
+	 */
+	public Collection<Store> getStores() {
+		final List<Store> stores = new ArrayList<>();
+		for (StoreShard shard : shardsByStoreId.values()) {
+			stores.add(shard.store);
+		}
+		return stores;
+	}
+
+	public HolidayCalendar getHolidayCalendar() {
+		return holidayCalendar;
+	}
+
+	/**
+	 * A store and the checkout service holding its inventory
+	 */
+	private static final class StoreShard {
+
+		private final Store store;
+		private final CheckoutService checkoutService;
+
+		StoreShard(Store store, CheckoutService checkoutService) {
+			this.store = store;
+			this.checkoutService = checkoutService;
+		}
+	}
+
+}
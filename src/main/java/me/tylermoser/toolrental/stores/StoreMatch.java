@@ -0,0 +1,35 @@
+package me.tylermoser.toolrental.stores;
+
+import java.util.Collections;
+import java.util.List;
+
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * A store that has tools a customer is looking for, and how far away it is
+ */
+public final class StoreMatch {
+
+	private final Store store;
+	private final List<Tool> tools;
+	private final double distanceKilometers;
+
+	public StoreMatch(Store store, List<Tool> tools, double distanceKilometers) {
+		this.store = store;
+		this.tools = Collections.unmodifiableList(tools);
+		this.distanceKilometers = distanceKilometers;
+	}
+
+	public Store getStore() {
+		return store;
+	}
+
+	public List<Tool> getTools() {
+		return tools;
+	}
+
+	public double getDistanceKilometers() {
+		return distanceKilometers;
+	}
+
+}
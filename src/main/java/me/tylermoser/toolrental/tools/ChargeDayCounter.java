@@ -0,0 +1,66 @@
+package me.tylermoser.toolrental.tools;
+
+/**
+ * Arithmetic helpers for counting days of the week across a range of epoch
+ * days without visiting each day.
+ * 
+ * Days of the week are represented as a 7 bit mask where bit 0 is Monday and
+ * bit 6 is Sunday, matching the ordering of java.time.DayOfWeek.
+ */
+public final class ChargeDayCounter {
+
+	public static final int WEEKDAYS = 0b0011111;
+	public static final int WEEKEND = 0b1100000;
+	public static final int ALL_DAYS = WEEKDAYS | WEEKEND;
+
+	private static final int DAYS_PER_WEEK = 7;
+
+	// 1970-01-01 (epoch day 0) was a Thursday, which is index 3 when Monday is 0
+	private static final int EPOCH_DAY_OF_WEEK_OFFSET = 3;
+
+	private ChargeDayCounter() {
+	}
+
+	/**
+	 * Counts the days in a range that fall on one of the days of the week in the
+	 * mask.
+	 * 
+	 * Every whole week contributes the number of days in the mask. The remaining
+	 * days are counted by rotating the mask so that the first day of the range is
+	 * bit 0, and then counting the bits that are left in the window.
+	 * 
+	 * @param firstEpochDay  The first day of the range
+	 * @param dayCount       The number of days in the range
+	 * @param daysOfWeekMask The days of the week to count
+	 * @return The number of matching days
+	 */
+	public static int countDaysOfWeek(long firstEpochDay, int dayCount, int daysOfWeekMask) {
+		if (dayCount < 1) {
+			return 0;
+		}
+		final int fullWeeks = dayCount / DAYS_PER_WEEK;
+		final int remainingDays = dayCount % DAYS_PER_WEEK;
+
+		final int doubledMask = daysOfWeekMask | (daysOfWeekMask << DAYS_PER_WEEK);
+		final int remainingWindow = (doubledMask >>> getDayOfWeekIndex(firstEpochDay)) & ((1 << remainingDays) - 1);
+
+		return fullWeeks * Integer.bitCount(daysOfWeekMask) + Integer.bitCount(remainingWindow);
+	}
+
+	/**
+	 * Returns true if the epoch day falls on one of the days of the week in the
+	 * mask
+	 */
+	public static boolean isDayOfWeekInMask(long epochDay, int daysOfWeekMask) {
+		return (daysOfWeekMask & (1 << getDayOfWeekIndex(epochDay))) != 0;
+	}
+
+	/**
+	 * Returns the day of the week for an epoch day, where Monday is 0 and Sunday
+	 * is 6
+	 */
+	public static int getDayOfWeekIndex(long epochDay) {
+		return (int) Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK_OFFSET, (long) DAYS_PER_WEEK);
+	}
+
+}
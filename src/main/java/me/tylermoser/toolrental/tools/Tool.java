@@ -1,38 +1,37 @@
 package me.tylermoser.toolrental.tools;
 
-import static java.time.DayOfWeek.MONDAY;
-import static java.time.DayOfWeek.SATURDAY;
-import static java.time.DayOfWeek.SUNDAY;
-import static java.time.LocalDate.of;
-import static java.time.Month.JULY;
-import static java.time.Month.SEPTEMBER;
-import static java.time.temporal.TemporalAdjusters.firstInMonth;
-
-import java.time.DayOfWeek;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+
 /**
- * An abstract parent class for all tools
+ * A single tool in the rental inventory.
+ * 
+ * A tool only holds what is unique to it. Everything shared by tools of the
+ * same type, including the prices, lives in the ToolType it refers to.
  */
-public abstract class Tool {
+public class Tool {
 
-	private String code;
-	private String brand;
-	private String toolType;
-	private double dailyCharge;
-	private boolean weekdayCharge;
-	private boolean weekendCharge;
-	private boolean holidayCharge;
+	private final String code;
+	private final String brand;
+	private final ToolType type;
 
-	public Tool(String code, String brand, String toolType, double dailyCharge, boolean weekdayCharge,
-			boolean weekendCharge, boolean holidayCharge) {
+	public Tool(String code, String brand, ToolType type) {
 		this.code = code;
 		this.brand = brand;
-		this.toolType = toolType;
-		this.dailyCharge = dailyCharge;
-		this.weekdayCharge = weekdayCharge;
-		this.weekendCharge = weekendCharge;
-		this.holidayCharge = holidayCharge;
+		this.type = type;
+	}
+
+	/**
+	 * Creates a tool with its own, unshared tool type. Prefer looking up a shared
+	 * type in a ToolTypeRegistry.
+	 */
+	public Tool(String code, String brand, String toolType, double dailyCharge, boolean weekdayCharge,
+			boolean weekendCharge, boolean holidayCharge) {
+		this(code, brand, new ToolType(toolType,
+				new ToolPricing(toCents(dailyCharge), weekdayCharge, weekendCharge, holidayCharge)));
 	}
 
 	/**
@@ -46,69 +45,29 @@ public abstract class Tool {
 	 * @return The number of days to charge the customer for
 	 */
 	public int getNumberOfRentalDays(LocalDate checkoutDate, int dayCount) {
-		// The prompt states that rental days are measured from the day after checkout
-		// through and including the return date. Java's LocalDate::datesUntil starts of
-		// the first day and does not include the final day. This shifts the dates
-		// forward 1 day.
-		checkoutDate = checkoutDate.plusDays(1);
-
-		// @formatter:off
-		return (int) checkoutDate
-				.datesUntil(checkoutDate.plusDays(dayCount))
-				.map(date -> isRentalDay(date))
-				.filter(isRentalDay -> isRentalDay == true)
-				.count();
-		// @formatter:on
-	}
-
-	/**
-	 * Returns true if the rental fee should be charged for a day
-	 */
-	private boolean isRentalDay(LocalDate date) {
-		if (!isWeekendCharge() && isWeekend(date)) {
-			return false;
-		} else if (!isHolidayCharge() && isHoliday(date)) {
-			return false;
-		} else {
-			return true;
-		}
-	}
-
-	/**
-	 * Returns true if the date occurs on a weekend
-	 */
-	private boolean isWeekend(LocalDate date) {
-		return DayOfWeek.SATURDAY.equals(date.getDayOfWeek()) || DayOfWeek.SUNDAY.equals(date.getDayOfWeek());
-	}
-
-	/**
-	 * Returns true if the date is a Holiday
-	 */
-	private boolean isHoliday(LocalDate date) {
-		return isObservedFourthOfJuly(date) || isLaborDay(date);
+		return getNumberOfRentalDays(checkoutDate, dayCount, HolidayCalendar.getDefault());
 	}
 
 	/**
-	 * Returns true if the date is the 4th of July or the date that the 4th of July
-	 * is being observed that year.
+	 * Determines how many days to charge for during the rental period, using the
+	 * holidays observed by a specific calendar
+	 * 
+	 * @param checkoutDate    The date that the rental begins
+	 * @param dayCount        The number of days before the rental must be returned
+	 * @param holidayCalendar The holidays observed during the rental
+	 * @return The number of days to charge the customer for
 	 */
-	private boolean isObservedFourthOfJuly(LocalDate date) {
-		int dateYear = date.getYear();
-		LocalDate julyFourth = of(dateYear, JULY, 4);
-		if (julyFourth.getDayOfWeek().equals(SATURDAY)) {
-			julyFourth = of(dateYear, JULY, 3);
-		} else if (julyFourth.getDayOfWeek().equals(SUNDAY)) {
-			julyFourth = of(dateYear, JULY, 5);
-		}
-		return date.equals(julyFourth);
+	public int getNumberOfRentalDays(LocalDate checkoutDate, int dayCount, HolidayCalendar holidayCalendar) {
+		return getPricing().getNumberOfRentalDays(checkoutDate, dayCount, holidayCalendar);
 	}
 
 	/**
-	 * REturns true if the date is labor day
+	 * Converts a dollar amount to a whole number of cents, rounding half up. The
+	 * double is converted through its decimal string representation, so 1.49
+	 * becomes 149 cents rather than 148.99999...
 	 */
-	private boolean isLaborDay(LocalDate date) {
-		LocalDate laborDay = of(date.getYear(), SEPTEMBER, 1).with(firstInMonth(MONDAY));
-		return date.equals(laborDay);
+	private static long toCents(double dollars) {
+		return BigDecimal.valueOf(dollars).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
 	}
 
 	/*
@@ -117,6 +76,10 @@ public abstract class Tool {
 	 * teams where JavaDoc is required on everything, and teams where JavaDoc is
 	 * frowned-upon. I am happy to follow the pattern of whatever team I am on, but
 	 * for now I will provide JavaDoc for all methods EXCEPT getters and setters.
+	 * 
+	 * The pricing getters read the current pricing of the tool type. Anything that
+	 * needs several prices to agree with each other should call getPricing() once
+	 * and read from that instead.
 	 */
 
 	public String getCode() {
@@ -124,7 +87,15 @@ public abstract class Tool {
 	}
 
 	public String getToolType() {
-		return toolType;
+		return type.getName();
+	}
+
+	public ToolType getType() {
+		return type;
+	}
+
+	public ToolPricing getPricing() {
+		return type.getPricing();
 	}
 
 	public String getBrand() {
@@ -132,19 +103,23 @@ public abstract class Tool {
 	}
 
 	public double getDailyCharge() {
-		return dailyCharge;
+		return getPricing().getDailyCharge();
+	}
+
+	public long getDailyChargeCents() {
+		return getPricing().getDailyChargeCents();
 	}
 
 	public boolean isWeekdayCharge() {
-		return weekdayCharge;
+		return getPricing().isWeekdayCharge();
 	}
 
 	public boolean isWeekendCharge() {
-		return weekendCharge;
+		return getPricing().isWeekendCharge();
 	}
 
 	public boolean isHolidayCharge() {
-		return holidayCharge;
+		return getPricing().isHolidayCharge();
 	}
 
 }
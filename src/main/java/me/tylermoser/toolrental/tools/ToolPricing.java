@@ -0,0 +1,118 @@
+package me.tylermoser.toolrental.tools;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.WEEKDAYS;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.WEEKEND;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.rules.ChargePolicy;
+import me.tylermoser.toolrental.tools.rules.ChargeRule;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+/**
+ * The prices and charge rules for a type of tool.
+ * 
+ * Pricing never changes once it is created. When prices are reloaded, each
+ * ToolType is pointed at a new ToolPricing, so a checkout that reads the
+ * pricing once sees a consistent set of values for the whole calculation.
+ * 
+ * The weekday, weekend and holiday flags are the first charge rules of the
+ * type, and any additional rules, such as a weekly cap, are applied after them.
+ * All of the rules are compiled into a single ChargePolicy here, so that a
+ * quote costs the same however many rules a type has.
+ */
+public final class ToolPricing {
+
+	private static final double CENTS_PER_DOLLAR = 100.0;
+
+	private final long dailyChargeCents;
+	private final boolean weekdayCharge;
+	private final boolean weekendCharge;
+	private final boolean holidayCharge;
+	private final List<ChargeRule> additionalRules;
+	private final ChargePolicy chargePolicy;
+
+	public ToolPricing(long dailyChargeCents, boolean weekdayCharge, boolean weekendCharge, boolean holidayCharge) {
+		this(dailyChargeCents, weekdayCharge, weekendCharge, holidayCharge, Collections.emptyList());
+	}
+
+	public ToolPricing(long dailyChargeCents, boolean weekdayCharge, boolean weekendCharge, boolean holidayCharge,
+			List<? extends ChargeRule> additionalRules) {
+		this.dailyChargeCents = dailyChargeCents;
+		this.weekdayCharge = weekdayCharge;
+		this.weekendCharge = weekendCharge;
+		this.holidayCharge = holidayCharge;
+		this.additionalRules = Collections.unmodifiableList(new ArrayList<>(additionalRules));
+		this.chargePolicy = compileChargePolicy();
+	}
+
+	/**
+	 * Determines how many days to charge for during the rental period
+	 * 
+	 * @param checkoutDate    The date that the rental begins
+	 * @param dayCount        The number of days before the rental must be returned
+	 * @param holidayCalendar The holidays observed during the rental
+	 * @return The number of days to charge the customer for
+	 */
+	public int getNumberOfRentalDays(LocalDate checkoutDate, int dayCount, HolidayCalendar holidayCalendar) {
+		return chargePolicy.getChargeDays(checkoutDate, dayCount, holidayCalendar);
+	}
+
+	/**
+	 * Returns the days of the week that are charged for, as a mask where bit 0 is
+	 * Monday and bit 6 is Sunday
+	 */
+	public int getChargedDaysOfWeek() {
+		return chargePolicy.getChargedDaysOfWeek();
+	}
+
+	/**
+	 * Folds the flags and then the additional rules into one policy
+	 */
+	private ChargePolicy compileChargePolicy() {
+		final List<ChargeRule> rules = new ArrayList<>();
+		rules.add(ChargeRules.chargeDaysOfWeek((weekdayCharge ? WEEKDAYS : 0) | (weekendCharge ? WEEKEND : 0)));
+		rules.add(ChargeRules.chargeHolidays(holidayCharge));
+		rules.addAll(additionalRules);
+		return ChargePolicy.compile(rules);
+	}
+
+	public double getDailyCharge() {
+		return dailyChargeCents / CENTS_PER_DOLLAR;
+	}
+
+	public long getDailyChargeCents() {
+		return dailyChargeCents;
+	}
+
+	public boolean isWeekdayCharge() {
+		return weekdayCharge;
+	}
+
+	public boolean isWeekendCharge() {
+		return weekendCharge;
+	}
+
+	public boolean isHolidayCharge() {
+		return holidayCharge;
+	}
+
+	public List<ChargeRule> getAdditionalRules() {
+		return additionalRules;
+	}
+
+	public ChargePolicy getChargePolicy() {
+		return chargePolicy;
+	}
+
+	public String toString() {
+		return "dailyChargeCents=" + dailyChargeCents + " weekdayCharge=" + weekdayCharge + " weekendCharge="
+				+ weekendCharge + " holidayCharge=" + holidayCharge + " weeklyCapDays="
+				+ chargePolicy.getWeeklyCapDays() + " minimumChargeDays=" + chargePolicy.getMinimumChargeDays();
+	}
+
+}
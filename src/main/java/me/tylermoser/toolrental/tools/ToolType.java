@@ -0,0 +1,37 @@
+package me.tylermoser.toolrental.tools;
+
+/**
+ * A type of tool, such as a Ladder, shared by every tool of that type.
+ * 
+ * Tools hold a reference to their ToolType instead of their own copy of the
+ * pricing, which keeps each tool small. The pricing is held in a volatile field
+ * so that a ToolTypeRegistry can swap in new prices while checkouts are running,
+ * without any locking.
+ */
+public final class ToolType {
+
+	private final String name;
+	private volatile ToolPricing pricing;
+
+	public ToolType(String name, ToolPricing pricing) {
+		this.name = name;
+		this.pricing = pricing;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public ToolPricing getPricing() {
+		return pricing;
+	}
+
+	void setPricing(ToolPricing pricing) {
+		this.pricing = pricing;
+	}
+
+	public String toString() {
+		return name + " (" + pricing + ")";
+	}
+
+}
@@ -0,0 +1,212 @@
+package me.tylermoser.toolrental.tools;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.tylermoser.toolrental.tools.rules.ChargeRule;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+/**
+ * The types of tools available to rent, and their prices, loaded from a CSV
+ * file rather than compiled into the application.
+ * 
+ * Each line of the file describes one type of tool:
+ * 
+ * <pre>
+ * # type,dailyCharge,weekdayCharge,weekendCharge,holidayCharge[,weeklyCapDays,minimumChargeDays]
+ * Ladder,1.99,true,true,false
+ * Scaffold,9.99,true,true,true,5,2
+ * </pre>
+ * 
+ * The last two fields are optional, and are given together. The weekly cap is
+ * the most days charged in any week of a rental, and the minimum charge is the
+ * fewest days charged for a whole rental.
+ * 
+ * Blank lines and lines starting with # are ignored.
+ * 
+ * There is exactly one ToolType per name in a registry, and every tool of that
+ * type shares it. Reloading the file swaps in new pricing for each type
+ * atomically, so running checkouts never pause and never see half of an
+ * update. A type that is missing from a reloaded file keeps its last pricing,
+ * since existing tools still refer to it.
+ */
+public class ToolTypeRegistry {
+
+	private static final String DEFAULT_TOOL_TYPES_RESOURCE = "/tool-types.csv";
+	private static final String COMMENT_PREFIX = "#";
+	private static final int FIELD_COUNT = 5;
+	private static final int FIELD_COUNT_WITH_RULES = 7;
+
+	private static final ToolTypeRegistry DEFAULT = loadDefault();
+
+	private final ConcurrentHashMap<String, ToolType> toolTypesByName = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the registry of tool types bundled with the application
+	 */
+	public static ToolTypeRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Get a tool type by name
+	 * 
+	 * @param name The name of the tool type, such as "Ladder"
+	 * @return The shared ToolType
+	 * @throws IllegalArgumentException If there is no tool type with that name
+	 */
+	public ToolType getToolType(String name) {
+		final ToolType toolType = toolTypesByName.get(name);
+		if (toolType == null) {
+			throw new IllegalArgumentException("There is no tool type named " + name + ".");
+		}
+		return toolType;
+	}
+
+	/**
+	 * Returns a live, read-only view of every tool type in the registry
+	 */
+	public Collection<ToolType> getToolTypes() {
+		return Collections.unmodifiableCollection(toolTypesByName.values());
+	}
+
+	/**
+	 * Loads or reloads tool types from a CSV file
+	 * 
+	 * @param path The file to read
+	 * @throws IOException              If the file cannot be read
+	 * @throws IllegalArgumentException If the file is not valid. No prices are
+	 *                                  changed.
+	 */
+	public void reload(Path path) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, UTF_8)) {
+			reload(reader);
+		}
+	}
+
+	/**
+	 * Loads or reloads tool types from CSV
+	 * 
+	 * The whole file is parsed before anything is changed, so a bad line leaves
+	 * every price as it was.
+	 * 
+	 * @param reader The CSV to read
+	 * @throws IOException              If the CSV cannot be read
+	 * @throws IllegalArgumentException If the CSV is not valid
+	 */
+	public void reload(Reader reader) throws IOException {
+		final Map<String, ToolPricing> pricingByName = parse(reader);
+		pricingByName.forEach((name, pricing) -> {
+			final ToolType existing = toolTypesByName.putIfAbsent(name, new ToolType(name, pricing));
+			if (existing != null) {
+				existing.setPricing(pricing);
+			}
+		});
+	}
+
+	private static Map<String, ToolPricing> parse(Reader reader) throws IOException {
+		final Map<String, ToolPricing> pricingByName = new LinkedHashMap<>();
+		final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader
+				: new BufferedReader(reader);
+
+		int lineNumber = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+				continue;
+			}
+
+			final String[] fields = line.split(",", -1);
+			if (fields.length != FIELD_COUNT && fields.length != FIELD_COUNT_WITH_RULES) {
+				throw invalidLine(lineNumber, "expected " + FIELD_COUNT + " or " + FIELD_COUNT_WITH_RULES
+						+ " fields but found " + fields.length);
+			}
+			final String name = fields[0].trim();
+			if (name.isEmpty() || pricingByName.containsKey(name)) {
+				throw invalidLine(lineNumber, "the tool type name is missing or repeated");
+			}
+			final List<ChargeRule> additionalRules = fields.length == FIELD_COUNT_WITH_RULES
+					? Arrays.asList(ChargeRules.weeklyCap(parseDays(fields[5], 7, lineNumber)),
+							ChargeRules.minimumChargeDays(parseDays(fields[6], Integer.MAX_VALUE, lineNumber)))
+					: Collections.emptyList();
+			pricingByName.put(name, new ToolPricing(parseCents(fields[1], lineNumber),
+					parseBoolean(fields[2], lineNumber), parseBoolean(fields[3], lineNumber),
+					parseBoolean(fields[4], lineNumber), additionalRules));
+		}
+		return pricingByName;
+	}
+
+	/**
+	 * Parses a dollar amount into cents. The amount must be exact to the cent.
+	 */
+	private static long parseCents(String field, int lineNumber) {
+		try {
+			final BigDecimal dollars = new BigDecimal(field.trim());
+			if (dollars.signum() < 0) {
+				throw invalidLine(lineNumber, "the daily charge cannot be negative");
+			}
+			return dollars.movePointRight(2).longValueExact();
+		} catch (ArithmeticException | NumberFormatException e) {
+			throw invalidLine(lineNumber, "the daily charge " + field + " is not a whole number of cents");
+		}
+	}
+
+	private static int parseDays(String field, int maximum, int lineNumber) {
+		final String value = field.trim();
+		try {
+			final int days = Integer.parseInt(value);
+			if (days >= 0 && days <= maximum) {
+				return days;
+			}
+		} catch (NumberFormatException e) {
+			// Reported below
+		}
+		throw invalidLine(lineNumber, value + " is not a number of days from 0 to " + maximum);
+	}
+
+	private static boolean parseBoolean(String field, int lineNumber) {
+		final String value = field.trim();
+		if ("true".equalsIgnoreCase(value)) {
+			return true;
+		} else if ("false".equalsIgnoreCase(value)) {
+			return false;
+		}
+		throw invalidLine(lineNumber, value + " is not true or false");
+	}
+
+	private static IllegalArgumentException invalidLine(int lineNumber, String reason) {
+		return new IllegalArgumentException("Invalid tool type on line " + lineNumber + ": " + reason + ".");
+	}
+
+	private static ToolTypeRegistry loadDefault() {
+		final ToolTypeRegistry registry = new ToolTypeRegistry();
+		try (InputStream input = ToolTypeRegistry.class.getResourceAsStream(DEFAULT_TOOL_TYPES_RESOURCE)) {
+			if (input == null) {
+				throw new IllegalStateException("Missing " + DEFAULT_TOOL_TYPES_RESOURCE + " on the classpath.");
+			}
+			registry.reload(new InputStreamReader(input, UTF_8));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return registry;
+	}
+
+}
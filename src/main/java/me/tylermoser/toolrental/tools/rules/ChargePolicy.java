@@ -0,0 +1,184 @@
+package me.tylermoser.toolrental.tools.rules;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.ALL_DAYS;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.countDaysOfWeek;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+
+/**
+ * The compiled form of a tool type's charge rules: which days of the week are
+ * charged, whether holidays are charged, the most days charged in any week of
+ * the rental, and the fewest days charged for a whole rental.
+ * 
+ * Charge days are counted arithmetically. The days of the week in the mask are
+ * counted across the range, and the holidays on those days are subtracted, so
+ * the cost is the same for a 3 day rental and a 3 year rental.
+ * 
+ * A weekly cap only changes the result when it is lower than the number of
+ * charged days of the week. Every whole week of the rental then charges the
+ * capped number of days, except for the few weeks that contain a holiday, which
+ * are adjusted one by one.
+ * 
+ * A policy never changes once it is created.
+ */
+public final class ChargePolicy {
+
+	public static final int NO_WEEKLY_CAP = 7;
+
+	/**
+	 * The policy that rules are applied to: every day is charged, with no cap and
+	 * no minimum
+	 */
+	public static final ChargePolicy CHARGE_EVERY_DAY = new ChargePolicy(ALL_DAYS, true, NO_WEEKLY_CAP, 0);
+
+	private static final int DAYS_PER_WEEK = 7;
+
+	private final int chargedDaysOfWeek;
+	private final boolean holidayCharge;
+	private final int weeklyCapDays;
+	private final int minimumChargeDays;
+
+	private ChargePolicy(int chargedDaysOfWeek, boolean holidayCharge, int weeklyCapDays, int minimumChargeDays) {
+		this.chargedDaysOfWeek = chargedDaysOfWeek & ALL_DAYS;
+		this.holidayCharge = holidayCharge;
+		this.weeklyCapDays = Math.min(weeklyCapDays, NO_WEEKLY_CAP);
+		this.minimumChargeDays = minimumChargeDays;
+	}
+
+	/**
+	 * Applies rules, in order, to the policy that charges every day
+	 * 
+	 * @param rules The rules of a tool type
+	 * @return The compiled policy
+	 */
+	public static ChargePolicy compile(Collection<? extends ChargeRule> rules) {
+		ChargePolicy policy = CHARGE_EVERY_DAY;
+		for (ChargeRule rule : rules) {
+			policy = rule.applyTo(policy);
+		}
+		return policy;
+	}
+
+	/**
+	 * Determines how many days to charge for during the rental period
+	 * 
+	 * @param checkoutDate    The date that the rental begins
+	 * @param dayCount        The number of days before the rental must be returned
+	 * @param holidayCalendar The holidays observed during the rental
+	 * @return The number of days to charge the customer for
+	 */
+	public int getChargeDays(LocalDate checkoutDate, int dayCount, HolidayCalendar holidayCalendar) {
+		if (dayCount < 1) {
+			return 0;
+		}
+
+		// The prompt states that rental days are measured from the day after checkout
+		// through and including the return date.
+		final long firstDay = checkoutDate.toEpochDay() + 1;
+		final long lastDay = firstDay + dayCount - 1;
+
+		if (!isWeeklyCapActive()) {
+			int chargeDays = countDaysOfWeek(firstDay, dayCount, chargedDaysOfWeek);
+			if (!holidayCharge) {
+				chargeDays -= holidayCalendar.countHolidays(firstDay, lastDay, chargedDaysOfWeek);
+			}
+			return applyMinimumCharge(chargeDays);
+		}
+		return applyMinimumCharge(getCappedChargeDays(firstDay, dayCount, holidayCalendar));
+	}
+
+	/**
+	 * Raises a number of charge days to the minimum charge
+	 */
+	public int applyMinimumCharge(int chargeDays) {
+		return Math.max(chargeDays, minimumChargeDays);
+	}
+
+	/**
+	 * Returns true if the weekly cap is lower than the number of charged days in
+	 * a week, so that it can change the charge
+	 */
+	public boolean isWeeklyCapActive() {
+		return weeklyCapDays < Integer.bitCount(chargedDaysOfWeek);
+	}
+
+	/**
+	 * Counts the charge days with the weekly cap applied to each week of the
+	 * rental
+	 */
+	private int getCappedChargeDays(long firstDay, int dayCount, HolidayCalendar holidayCalendar) {
+		final int fullWeeks = dayCount / DAYS_PER_WEEK;
+		final long partialWeekFirstDay = firstDay + (long) fullWeeks * DAYS_PER_WEEK;
+		final int partialWeekDays = countDaysOfWeek(partialWeekFirstDay, dayCount % DAYS_PER_WEEK,
+				chargedDaysOfWeek);
+		final int fullWeekDays = Integer.bitCount(chargedDaysOfWeek);
+
+		int chargeDays = fullWeeks * weeklyCapDays + Math.min(weeklyCapDays, partialWeekDays);
+		if (holidayCharge) {
+			return chargeDays;
+		}
+
+		// Only weeks holding a charged holiday can fall below the cap
+		final long[] holidays = holidayCalendar.getHolidayEpochDays(firstDay, firstDay + dayCount - 1,
+				chargedDaysOfWeek);
+		int i = 0;
+		while (i < holidays.length) {
+			final long week = (holidays[i] - firstDay) / DAYS_PER_WEEK;
+			int holidaysInWeek = 0;
+			while (i < holidays.length && (holidays[i] - firstDay) / DAYS_PER_WEEK == week) {
+				holidaysInWeek++;
+				i++;
+			}
+			final int weekDays = week < fullWeeks ? fullWeekDays : partialWeekDays;
+			chargeDays += Math.min(weeklyCapDays, weekDays - holidaysInWeek) - Math.min(weeklyCapDays, weekDays);
+		}
+		return chargeDays;
+	}
+
+	/*
+	 * Each of these returns a copy of the policy with one setting changed. They
+	 * are used by ChargeRules.
+	 */
+
+	public ChargePolicy withChargedDaysOfWeek(int daysOfWeekMask) {
+		return new ChargePolicy(daysOfWeekMask, holidayCharge, weeklyCapDays, minimumChargeDays);
+	}
+
+	public ChargePolicy withHolidayCharge(boolean charge) {
+		return new ChargePolicy(chargedDaysOfWeek, charge, weeklyCapDays, minimumChargeDays);
+	}
+
+	public ChargePolicy withWeeklyCapDays(int capDays) {
+		return new ChargePolicy(chargedDaysOfWeek, holidayCharge, capDays, minimumChargeDays);
+	}
+
+	public ChargePolicy withMinimumChargeDays(int minimumDays) {
+		return new ChargePolicy(chargedDaysOfWeek, holidayCharge, weeklyCapDays, minimumDays);
+	}
+
+	public int getChargedDaysOfWeek() {
+		return chargedDaysOfWeek;
+	}
+
+	public boolean isHolidayCharge() {
+		return holidayCharge;
+	}
+
+	public int getWeeklyCapDays() {
+		return weeklyCapDays;
+	}
+
+	public int getMinimumChargeDays() {
+		return minimumChargeDays;
+	}
+
+	@Override
+	public String toString() {
+		return "chargedDaysOfWeek=" + Integer.toBinaryString(chargedDaysOfWeek) + " holidayCharge=" + holidayCharge
+				+ " weeklyCapDays=" + weeklyCapDays + " minimumChargeDays=" + minimumChargeDays;
+	}
+
+}
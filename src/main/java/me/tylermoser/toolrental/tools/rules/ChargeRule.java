@@ -0,0 +1,21 @@
+package me.tylermoser.toolrental.tools.rules;
+
+/**
+ * A single rule about what a rental is charged for, such as "weekends are
+ * free" or "charge at most 5 days a week".
+ * 
+ * Rules are not evaluated per quote. Each rule adjusts a ChargePolicy, and a
+ * tool type's rules are folded into one policy when its pricing is created, so
+ * the cost of a quote does not depend on how many rules there are.
+ */
+@FunctionalInterface
+public interface ChargeRule {
+
+	/**
+	 * Returns the policy with this rule applied
+	 * 
+	 * @param policy The policy built from the rules before this one
+	 */
+	ChargePolicy applyTo(ChargePolicy policy);
+
+}
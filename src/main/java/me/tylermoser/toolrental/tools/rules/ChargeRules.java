@@ -0,0 +1,112 @@
+package me.tylermoser.toolrental.tools.rules;
+
+/**
+ * The standard charge rules. Rules are applied in order, so a later rule
+ * overrides an earlier one where they disagree, except for the weekly cap and
+ * minimum charge, which only ever become stricter.
+ * 
+ * Note: The rules are small named classes rather than lambdas. Every tool type
+ * compiles its rules when it is created, and the first lambda in a JVM costs
+ * several milliseconds to bootstrap, which showed up in startup times.
+ */
+public final class ChargeRules {
+
+	private ChargeRules() {
+	}
+
+	/**
+	 * Charges for the days of the week in the mask, and no others
+	 * 
+	 * @param daysOfWeekMask Bit 0 is Monday and bit 6 is Sunday
+	 */
+	public static ChargeRule chargeDaysOfWeek(int daysOfWeekMask) {
+		return new ChargeDaysOfWeek(daysOfWeekMask);
+	}
+
+	/**
+	 * Decides whether a holiday is charged when it falls on a charged day of the
+	 * week
+	 */
+	public static ChargeRule chargeHolidays(boolean holidayCharge) {
+		return new ChargeHolidays(holidayCharge);
+	}
+
+	/**
+	 * Charges for at most a number of days in each week of the rental. Weeks are
+	 * counted from the first day of the rental, not from Monday.
+	 */
+	public static ChargeRule weeklyCap(int maximumDaysPerWeek) {
+		if (maximumDaysPerWeek < 0) {
+			throw new IllegalArgumentException("A weekly cap cannot be negative.");
+		}
+		return new WeeklyCap(maximumDaysPerWeek);
+	}
+
+	/**
+	 * Charges for at least a number of days, however few days of the rental
+	 * would otherwise be charged
+	 */
+	public static ChargeRule minimumChargeDays(int minimumDays) {
+		if (minimumDays < 0) {
+			throw new IllegalArgumentException("A minimum charge cannot be negative.");
+		}
+		return new MinimumChargeDays(minimumDays);
+	}
+
+	private static final class ChargeDaysOfWeek implements ChargeRule {
+
+		private final int daysOfWeekMask;
+
+		ChargeDaysOfWeek(int daysOfWeekMask) {
+			this.daysOfWeekMask = daysOfWeekMask;
+		}
+
+		@Override
+		public ChargePolicy applyTo(ChargePolicy policy) {
+			return policy.withChargedDaysOfWeek(daysOfWeekMask);
+		}
+	}
+
+	private static final class ChargeHolidays implements ChargeRule {
+
+		private final boolean holidayCharge;
+
+		ChargeHolidays(boolean holidayCharge) {
+			this.holidayCharge = holidayCharge;
+		}
+
+		@Override
+		public ChargePolicy applyTo(ChargePolicy policy) {
+			return policy.withHolidayCharge(holidayCharge);
+		}
+	}
+
+	private static final class WeeklyCap implements ChargeRule {
+
+		private final int maximumDaysPerWeek;
+
+		WeeklyCap(int maximumDaysPerWeek) {
+			this.maximumDaysPerWeek = maximumDaysPerWeek;
+		}
+
+		@Override
+		public ChargePolicy applyTo(ChargePolicy policy) {
+			return policy.withWeeklyCapDays(Math.min(policy.getWeeklyCapDays(), maximumDaysPerWeek));
+		}
+	}
+
+	private static final class MinimumChargeDays implements ChargeRule {
+
+		private final int minimumDays;
+
+		MinimumChargeDays(int minimumDays) {
+			this.minimumDays = minimumDays;
+		}
+
+		@Override
+		public ChargePolicy applyTo(ChargePolicy policy) {
+			return policy.withMinimumChargeDays(Math.max(policy.getMinimumChargeDays(), minimumDays));
+		}
+	}
+
+}
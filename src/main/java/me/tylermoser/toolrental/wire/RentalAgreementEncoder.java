@@ -0,0 +1,130 @@
+package me.tylermoser.toolrental.wire;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static me.tylermoser.toolrental.wire.WireLayout.CHARGE_DAYS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.CHECKOUT_EPOCH_DAY_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.DAILY_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.DISCOUNT_AMOUNT_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.DISCOUNT_PERCENT_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.ENCODED_LENGTH_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.FINAL_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.MAX_STRING_BYTES;
+import static me.tylermoser.toolrental.wire.WireLayout.PRE_DISCOUNT_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.RENTAL_DAYS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.TOOL_CODE_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.VERSION;
+import static me.tylermoser.toolrental.wire.WireLayout.VERSION_OFFSET;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import me.tylermoser.toolrental.RentalAgreement;
+
+/**
+ * Writes rental agreements in the compact binary format described by
+ * WireLayout, for services that would otherwise have to parse the text report.
+ * 
+ * Agreements are written straight into a caller-supplied ByteBuffer, which can
+ * be a direct buffer or a memory-mapped file. Tool codes, types and brands that
+ * are plain ASCII, which is all of them in practice, are copied a character at
+ * a time, so encoding creates no objects.
+ */
+public final class RentalAgreementEncoder {
+
+	private RentalAgreementEncoder() {
+	}
+
+	/**
+	 * Writes an agreement at the buffer's current position, and moves the position
+	 * past it
+	 * 
+	 * @param rentalAgreement The agreement to write
+	 * @param buffer          The destination of the encoded agreement
+	 * @return The number of bytes written
+	 * @throws BufferOverflowException  If the agreement does not fit in the
+	 *                                  remaining space in the buffer. Nothing is
+	 *                                  written.
+	 * @throws IllegalArgumentException If the tool code, type or brand is longer
+	 *                                  than 255 bytes
+	 * @throws ArithmeticException      If the checkout date or the daily charge
+	 *                                  does not fit in the four bytes the format
+	 *                                  gives it. Nothing is written.
+	 */
+	public static int encode(RentalAgreement rentalAgreement, ByteBuffer buffer) {
+		final int encodedLength = getEncodedLength(rentalAgreement);
+		if (buffer.remaining() < encodedLength) {
+			throw new BufferOverflowException();
+		}
+		final int checkoutEpochDay = Math.toIntExact(rentalAgreement.getCheckoutEpochDay());
+		final int dailyRentalChargeCents = Math.toIntExact(rentalAgreement.getDailyRentalChargeCents());
+
+		final int start = buffer.position();
+		buffer.putShort(start + ENCODED_LENGTH_OFFSET, (short) encodedLength);
+		buffer.put(start + VERSION_OFFSET, VERSION);
+		buffer.put(start + DISCOUNT_PERCENT_OFFSET, (byte) rentalAgreement.getDiscountPercent());
+		buffer.putInt(start + CHECKOUT_EPOCH_DAY_OFFSET, checkoutEpochDay);
+		buffer.putInt(start + RENTAL_DAYS_OFFSET, rentalAgreement.getRentalDays());
+		buffer.putInt(start + CHARGE_DAYS_OFFSET, rentalAgreement.getChargeDays());
+		buffer.putInt(start + DAILY_CHARGE_CENTS_OFFSET, dailyRentalChargeCents);
+		buffer.putLong(start + PRE_DISCOUNT_CHARGE_CENTS_OFFSET, rentalAgreement.getPreDiscountChargeCents());
+		buffer.putLong(start + DISCOUNT_AMOUNT_CENTS_OFFSET, rentalAgreement.getDiscountAmountCents());
+		buffer.putLong(start + FINAL_CHARGE_CENTS_OFFSET, rentalAgreement.getFinalChargeCents());
+
+		int offset = start + TOOL_CODE_OFFSET;
+		offset = putString(buffer, offset, rentalAgreement.getToolCode());
+		offset = putString(buffer, offset, rentalAgreement.getToolType());
+		putString(buffer, offset, rentalAgreement.getToolBrand());
+
+		buffer.position(start + encodedLength);
+		return encodedLength;
+	}
+
+	/**
+	 * Returns the number of bytes encode() will write for an agreement
+	 */
+	public static int getEncodedLength(RentalAgreement rentalAgreement) {
+		return TOOL_CODE_OFFSET + 3 + getUtf8Length(rentalAgreement.getToolCode())
+				+ getUtf8Length(rentalAgreement.getToolType()) + getUtf8Length(rentalAgreement.getToolBrand());
+	}
+
+	/**
+	 * Writes a length-prefixed string at an offset
+	 * 
+	 * @return The offset just after the string
+	 */
+	private static int putString(ByteBuffer buffer, int offset, String value) {
+		if (isAscii(value)) {
+			buffer.put(offset, (byte) value.length());
+			for (int i = 0; i < value.length(); i++) {
+				buffer.put(offset + 1 + i, (byte) value.charAt(i));
+			}
+			return offset + 1 + value.length();
+		}
+
+		final byte[] bytes = value.getBytes(UTF_8);
+		buffer.put(offset, (byte) bytes.length);
+		for (int i = 0; i < bytes.length; i++) {
+			buffer.put(offset + 1 + i, bytes[i]);
+		}
+		return offset + 1 + bytes.length;
+	}
+
+	private static int getUtf8Length(String value) {
+		final int length = isAscii(value) ? value.length() : value.getBytes(UTF_8).length;
+		if (length > MAX_STRING_BYTES) {
+			throw new IllegalArgumentException(
+					"\"" + value + "\" is longer than " + MAX_STRING_BYTES + " bytes and cannot be encoded.");
+		}
+		return length;
+	}
+
+	private static boolean isAscii(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,138 @@
+package me.tylermoser.toolrental.wire;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static me.tylermoser.toolrental.wire.WireLayout.CHARGE_DAYS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.CHECKOUT_EPOCH_DAY_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.DAILY_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.DISCOUNT_AMOUNT_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.DISCOUNT_PERCENT_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.ENCODED_LENGTH_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.FINAL_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.PRE_DISCOUNT_CHARGE_CENTS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.RENTAL_DAYS_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.TOOL_CODE_OFFSET;
+import static me.tylermoser.toolrental.wire.WireLayout.VERSION;
+import static me.tylermoser.toolrental.wire.WireLayout.VERSION_OFFSET;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable view over a rental agreement encoded by RentalAgreementEncoder.
+ * 
+ * The flyweight is pointed at an encoded agreement with wrap(), and reads each
+ * field straight out of the buffer when its getter is called. One flyweight can
+ * step through a whole buffer of agreements without creating any objects. Only
+ * the string getters allocate.
+ * 
+ * A flyweight is not thread-safe, but any number of them can read the same
+ * buffer at once, since they never move the buffer's position.
+ */
+public class RentalAgreementFlyweight {
+
+	private ByteBuffer buffer;
+	private int offset;
+
+	/**
+	 * Points the flyweight at an encoded agreement
+	 * 
+	 * @param buffer The buffer holding the agreement
+	 * @param offset The index of the first byte of the agreement
+	 * @return This flyweight
+	 * @throws IllegalArgumentException If the bytes are not an agreement in a
+	 *                                  known version of the format
+	 */
+	public RentalAgreementFlyweight wrap(ByteBuffer buffer, int offset) {
+		if (buffer.get(offset + VERSION_OFFSET) != VERSION) {
+			throw new IllegalArgumentException("Unknown rental agreement format version "
+					+ buffer.get(offset + VERSION_OFFSET) + " at offset " + offset + ".");
+		}
+		this.buffer = buffer;
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Checks the tool code without creating a String
+	 * 
+	 * @param code An ASCII tool code
+	 * @return True if the agreement is for the tool
+	 */
+	public boolean isToolCode(String code) {
+		final int codeOffset = offset + TOOL_CODE_OFFSET;
+		final int length = buffer.get(codeOffset) & 0xFF;
+		if (length != code.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(codeOffset + 1 + i) != code.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getEncodedLength() {
+		return buffer.getShort(offset + ENCODED_LENGTH_OFFSET) & 0xFFFF;
+	}
+
+	public String getToolCode() {
+		return getString(offset + TOOL_CODE_OFFSET);
+	}
+
+	public String getToolType() {
+		return getString(skipString(offset + TOOL_CODE_OFFSET));
+	}
+
+	public String getToolBrand() {
+		return getString(skipString(skipString(offset + TOOL_CODE_OFFSET)));
+	}
+
+	public int getRentalDays() {
+		return buffer.getInt(offset + RENTAL_DAYS_OFFSET);
+	}
+
+	public long getCheckoutEpochDay() {
+		return buffer.getInt(offset + CHECKOUT_EPOCH_DAY_OFFSET);
+	}
+
+	public long getDueEpochDay() {
+		return getCheckoutEpochDay() + getRentalDays();
+	}
+
+	public long getDailyRentalChargeCents() {
+		return buffer.getInt(offset + DAILY_CHARGE_CENTS_OFFSET);
+	}
+
+	public int getChargeDays() {
+		return buffer.getInt(offset + CHARGE_DAYS_OFFSET);
+	}
+
+	public long getPreDiscountChargeCents() {
+		return buffer.getLong(offset + PRE_DISCOUNT_CHARGE_CENTS_OFFSET);
+	}
+
+	public int getDiscountPercent() {
+		return buffer.get(offset + DISCOUNT_PERCENT_OFFSET);
+	}
+
+	public long getDiscountAmountCents() {
+		return buffer.getLong(offset + DISCOUNT_AMOUNT_CENTS_OFFSET);
+	}
+
+	public long getFinalChargeCents() {
+		return buffer.getLong(offset + FINAL_CHARGE_CENTS_OFFSET);
+	}
+
+	private String getString(int stringOffset) {
+		final byte[] bytes = new byte[buffer.get(stringOffset) & 0xFF];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(stringOffset + 1 + i);
+		}
+		return new String(bytes, UTF_8);
+	}
+
+	private int skipString(int stringOffset) {
+		return stringOffset + 1 + (buffer.get(stringOffset) & 0xFF);
+	}
+
+}
@@ -0,0 +1,49 @@
+package me.tylermoser.toolrental.wire;
+
+/**
+ * The binary encoding of a rental agreement.
+ * 
+ * Every number has a fixed offset, so a reader can go straight to any field
+ * without decoding the ones before it. The three strings follow the fixed
+ * fields, each as a one byte length and then UTF-8 bytes. The due date is not
+ * stored, since it is always the checkout date plus the rental days. All
+ * numbers are big-endian, the default order of a ByteBuffer.
+ * 
+ * <pre>
+ * offset  size  field
+ *      0     2  encoded length in bytes, unsigned
+ *      2     1  format version
+ *      3     1  discount percent
+ *      4     4  checkout date, epoch day
+ *      8     4  rental days
+ *     12     4  charge days
+ *     16     4  daily rental charge, cents
+ *     20     8  pre-discount charge, cents
+ *     28     8  discount amount, cents
+ *     36     8  final charge, cents
+ *     44     1  tool code length, then the tool code
+ *      .     1  tool type length, then the tool type
+ *      .     1  tool brand length, then the tool brand
+ * </pre>
+ */
+final class WireLayout {
+
+	static final byte VERSION = 1;
+	static final int MAX_STRING_BYTES = 255;
+
+	static final int ENCODED_LENGTH_OFFSET = 0;
+	static final int VERSION_OFFSET = 2;
+	static final int DISCOUNT_PERCENT_OFFSET = 3;
+	static final int CHECKOUT_EPOCH_DAY_OFFSET = 4;
+	static final int RENTAL_DAYS_OFFSET = 8;
+	static final int CHARGE_DAYS_OFFSET = 12;
+	static final int DAILY_CHARGE_CENTS_OFFSET = 16;
+	static final int PRE_DISCOUNT_CHARGE_CENTS_OFFSET = 20;
+	static final int DISCOUNT_AMOUNT_CENTS_OFFSET = 28;
+	static final int FINAL_CHARGE_CENTS_OFFSET = 36;
+	static final int TOOL_CODE_OFFSET = 44;
+
+	private WireLayout() {
+	}
+
+}
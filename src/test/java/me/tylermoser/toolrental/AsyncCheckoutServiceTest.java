@@ -0,0 +1,166 @@
+package me.tylermoser.toolrental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import me.tylermoser.toolrental.exceptions.InvalidDiscountException;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class AsyncCheckoutServiceTest {
+
+	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
+
+	private CheckoutService checkoutService;
+	private AsyncCheckoutService asyncCheckoutService;
+
+	@Before
+	public void setup() {
+		checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		asyncCheckoutService = new AsyncCheckoutService(checkoutService, 2, 1, 2);
+	}
+
+	@After
+	public void teardown() {
+		asyncCheckoutService.close();
+	}
+
+	@Test
+	public void checkoutAsync_validRequest_notifiesListenerBeforeCompleting() {
+		final List<RentalAgreement> persisted = new CopyOnWriteArrayList<>();
+		asyncCheckoutService.addAsyncRentalListener(persisted::add);
+
+		final RentalAgreement rentalAgreement = asyncCheckoutService.checkoutAsync("JAKR", 9, 0, JULY_SECOND_2020)
+				.join();
+
+		assertEquals(checkoutService.quote("JAKR", 9, 0, JULY_SECOND_2020).getReport(),
+				rentalAgreement.getReport());
+		assertEquals(List.of(rentalAgreement), persisted);
+		assertEquals(1, checkoutService.getMetrics().getRentalCount());
+		assertEquals(0, asyncCheckoutService.getInFlightCount());
+	}
+
+	@Test
+	public void checkoutAsync_invalidDiscount_completesExceptionally() {
+		try {
+			asyncCheckoutService.checkoutAsync("JAKR", 5, 101, JULY_SECOND_2020).join();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof InvalidDiscountException);
+		}
+		assertEquals(1, checkoutService.getMetrics().getValidationFailureCount());
+	}
+
+	@Test
+	public void checkoutAsync_tooManyInFlight_rejectsUntilOneCompletes() throws InterruptedException {
+		final CountDownLatch persistenceBlocked = new CountDownLatch(1);
+		asyncCheckoutService.addAsyncRentalListener(rentalAgreement -> {
+			try {
+				persistenceBlocked.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		final CompletableFuture<RentalAgreement> first = asyncCheckoutService.checkoutAsync("JAKR", 5, 0,
+				JULY_SECOND_2020);
+		final CompletableFuture<RentalAgreement> second = asyncCheckoutService.checkoutAsync("LADW", 5, 0,
+				JULY_SECOND_2020);
+		final CompletableFuture<RentalAgreement> rejected = asyncCheckoutService.checkoutAsync("LADW", 3, 0,
+				JULY_SECOND_2020);
+
+		assertTrue(rejected.isCompletedExceptionally());
+		try {
+			rejected.join();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+		assertEquals(2, asyncCheckoutService.getInFlightCount());
+		assertEquals(1, asyncCheckoutService.getRejectedCount());
+
+		persistenceBlocked.countDown();
+		first.join();
+		second.join();
+		assertEquals(0, asyncCheckoutService.getInFlightCount());
+		assertEquals("LADW", asyncCheckoutService.checkoutAsync("LADW", 3, 0, JULY_SECOND_2020).join().getToolCode());
+	}
+
+	@Test
+	public void getAgreementPublisher_subscriber_receivesAgreements() throws InterruptedException {
+		final List<String> codes = new CopyOnWriteArrayList<>();
+		final CountDownLatch received = new CountDownLatch(2);
+		asyncCheckoutService.getAgreementPublisher().subscribe(new Flow.Subscriber<RentalAgreement>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(RentalAgreement rentalAgreement) {
+				codes.add(rentalAgreement.getToolCode());
+				received.countDown();
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		asyncCheckoutService.checkoutAsync("JAKR", 5, 0, JULY_SECOND_2020).join();
+		asyncCheckoutService.checkoutAsync("LADW", 5, 0, JULY_SECOND_2020).join();
+
+		assertTrue(received.await(10, TimeUnit.SECONDS));
+		assertEquals(List.of("JAKR", "LADW"), codes);
+	}
+
+	@Test
+	public void getAgreementPublisher_subscriberNeverRequests_dropsAgreementsInsteadOfStalling() {
+		asyncCheckoutService.getAgreementPublisher().subscribe(new Flow.Subscriber<RentalAgreement>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+			}
+
+			@Override
+			public void onNext(RentalAgreement rentalAgreement) {
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		// The subscriber's buffer holds two agreements, so the rest are dropped
+		for (int i = 0; i < 5; i++) {
+			asyncCheckoutService.checkoutAsync("JAKR", 1, 0, JULY_SECOND_2020.plusDays(i)).join();
+		}
+
+		assertEquals(3, asyncCheckoutService.getDroppedCount());
+		assertEquals(5, checkoutService.getMetrics().getRentalCount());
+	}
+}
@@ -0,0 +1,134 @@
+package me.tylermoser.toolrental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import me.tylermoser.toolrental.availability.AvailabilityIndex;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.journal.JournalEntry;
+import me.tylermoser.toolrental.journal.RentalAgreementJournal;
+import me.tylermoser.toolrental.metrics.CheckoutMetrics;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class BulkCheckoutRunnerTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final CheckoutService checkoutService = new CheckoutService();
+
+	@Before
+	public void setup() {
+		checkoutService.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKD", "DeWalt"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+	}
+
+	@Test
+	public void run_mixOfValidAndInvalidRows_writesResultsInInputOrder() throws Exception {
+		final String input = "# code,dayCount,discountPercent,checkoutDate\n"
+				+ "JAKR,5,101,09/03/15\n"
+				+ "LADW,3,10,07/02/20\n"
+				+ "\n"
+				+ "NONE,5,0,07/02/15\n"
+				+ "JAKD,six,0,09/03/15\n"
+				+ "CHNS,5,25\n"
+				+ "JAKR,4,50,07/02/20\n";
+		final StringWriter output = new StringWriter();
+
+		final BulkCheckoutSummary summary = new BulkCheckoutRunner(checkoutService, 2, 3)
+				.run(new BufferedReader(new StringReader(input)), output);
+
+		final String expected = "Line 2: The discount percentage 101 is not within the acceptable range of 0 to 100.\n\n"
+				+ checkoutService.quote("LADW", 3, 10, LocalDate.of(2020, 7, 2)).getReport() + "\n\n"
+				+ "Line 5: There is no tool in inventory with code NONE.\n\n"
+				+ "Line 6: For input string: \"six\"\n\n"
+				+ "Line 7: Expected 4 fields but found 3 in \"CHNS,5,25\".\n\n"
+				+ checkoutService.quote("JAKR", 4, 50, LocalDate.of(2020, 7, 2)).getReport() + "\n\n";
+		assertEquals(expected, output.toString());
+		assertEquals(6, summary.getRowCount());
+		assertEquals(2, summary.getRentalCount());
+		assertEquals(4, summary.getFailureCount());
+	}
+
+	@Test
+	public void run_manyChunks_writesEveryRowInOrder() throws Exception {
+		final StringBuilder input = new StringBuilder();
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			final LocalDate checkoutDate = LocalDate.of(2015, 1, 1).plusDays(i % 400);
+			input.append("JAKR,").append(1 + i % 20).append(",").append(i % 100).append(",")
+					.append(String.format("%02d/%02d/%02d", checkoutDate.getMonthValue(),
+							checkoutDate.getDayOfMonth(), checkoutDate.getYear() % 100))
+					.append("\n");
+			expected.append(checkoutService.quote("JAKR", 1 + i % 20, i % 100, checkoutDate).getReport())
+					.append("\n\n");
+		}
+		final StringWriter output = new StringWriter();
+
+		final BulkCheckoutSummary summary = new BulkCheckoutRunner(checkoutService, 64, 4)
+				.run(new BufferedReader(new StringReader(input.toString())), output);
+
+		assertEquals(expected.toString(), output.toString());
+		assertEquals(10_000, summary.getRentalCount());
+	}
+
+	@Test
+	public void run_journalAppendFails_failsOnlyThatRowAndCancelsItsRental() throws Exception {
+		final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+		final CheckoutService trackingService = new CheckoutService(new Inventory(), HolidayCalendar.getDefault(),
+				new CheckoutMetrics(), availabilityIndex);
+		trackingService.addToolToInventory(new Ladder("LADW", "Werner"));
+		trackingService.addToolToInventory(new Ladder("LADDER-WERNER-16FT", "Werner"));
+		trackingService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		final String input = "LADW,3,10,07/02/20\n"
+				+ "LADDER-WERNER-16FT,3,10,07/02/20\n"
+				+ "JAKR,4,50,07/02/20\n";
+		final StringWriter output = new StringWriter();
+
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(temporaryFolder.newFile().toPath())) {
+			final BulkCheckoutSummary summary = new BulkCheckoutRunner(trackingService, journal, 1, 2)
+					.run(new BufferedReader(new StringReader(input)), output);
+
+			assertEquals(2, summary.getRentalCount());
+			assertEquals(1, summary.getFailureCount());
+			assertTrue(output.toString(), output.toString().contains("Line 2: The rental could not be journaled."));
+			assertEquals(0, availabilityIndex.getReservationCount("LADDER-WERNER-16FT"));
+			// Rows run in parallel, so they may be journaled in any order
+			final Set<String> journaledCodes = new HashSet<>();
+			for (JournalEntry entry : journal.replay()) {
+				journaledCodes.add(entry.getToolCode());
+			}
+			assertEquals(new HashSet<>(Arrays.asList("LADW", "JAKR")), journaledCodes);
+			assertEquals(2, journal.size());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_zeroChunkSize_throwsException() {
+		new BulkCheckoutRunner(checkoutService, 0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_zeroParallelism_throwsException() {
+		new BulkCheckoutRunner(checkoutService, 1, 0);
+	}
+
+}
@@ -0,0 +1,68 @@
+package me.tylermoser.toolrental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import me.tylermoser.toolrental.availability.AvailabilityIndex;
+import me.tylermoser.toolrental.exceptions.ToolUnavailableException;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.metrics.CheckoutMetrics;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Tool;
+
+public class CheckoutServiceAvailabilityTest {
+
+	private static final LocalDate JULY_SECOND_2015 = LocalDate.of(2015, 7, 2);
+
+	private final CheckoutService checkoutService = new CheckoutService(new Inventory(),
+			HolidayCalendar.getDefault(), new CheckoutMetrics(), new AvailabilityIndex());
+	private final Tool ridgid = new Jackhammer("JAKR", "Ridgid");
+	private final Tool dewalt = new Jackhammer("JAKD", "DeWalt");
+
+	@Before
+	public void setup() {
+		checkoutService.addToolToInventory(ridgid);
+		checkoutService.addToolToInventory(dewalt);
+	}
+
+	@Test
+	public void checkout_toolAlreadyRented_throwsValidationExceptionUntilCancelled() {
+		final RentalAgreement rentalAgreement = checkoutService.checkout("JAKR", 9, 0, JULY_SECOND_2015);
+
+		try {
+			checkoutService.checkout("JAKR", 1, 0, JULY_SECOND_2015.plusDays(8));
+			throw new AssertionError("The same tool was rented twice.");
+		} catch (ToolUnavailableException e) {
+			assertEquals(1, checkoutService.getMetrics().snapshot().getValidationFailureCount());
+		}
+		assertEquals(Arrays.asList(dewalt),
+				checkoutService.findAvailableTools("Jackhammer", JULY_SECOND_2015.plusDays(8), 1));
+
+		assertTrue(checkoutService.cancelRental(rentalAgreement));
+		checkoutService.checkout("JAKR", 1, 0, JULY_SECOND_2015.plusDays(8));
+		checkoutService.checkout("JAKR", 1, 0, JULY_SECOND_2015.plusDays(9));
+	}
+
+	@Test
+	public void checkoutAll_overlappingRequests_acceptsFirstInRequestOrder() {
+		final List<CheckoutResult> results = checkoutService.checkoutAll(Arrays.asList(
+				new CheckoutRequest("JAKR", 5, 0, JULY_SECOND_2015),
+				new CheckoutRequest("JAKR", 5, 0, JULY_SECOND_2015.plusDays(4)),
+				new CheckoutRequest("JAKD", 5, 0, JULY_SECOND_2015.plusDays(4)),
+				new CheckoutRequest("JAKR", 5, 0, JULY_SECOND_2015.plusDays(5))));
+
+		assertTrue(results.get(0).isSuccessful());
+		assertTrue(results.get(1).getValidationFailure() instanceof ToolUnavailableException);
+		assertTrue(results.get(2).isSuccessful());
+		assertTrue(results.get(3).isSuccessful());
+	}
+
+}
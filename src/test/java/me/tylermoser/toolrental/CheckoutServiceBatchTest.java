@@ -0,0 +1,131 @@
+package me.tylermoser.toolrental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import me.tylermoser.toolrental.exceptions.InvalidDayCountException;
+import me.tylermoser.toolrental.exceptions.InvalidDiscountException;
+import me.tylermoser.toolrental.exceptions.ToolNotFoundException;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+public class CheckoutServiceBatchTest {
+
+	private static final LocalDate JULY_SECOND_2015 = LocalDate.of(2015, 7, 2);
+	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
+	private static final LocalDate SEPT_THIRD_2015 = LocalDate.of(2015, 9, 3);
+
+	private final CheckoutService checkoutService = new CheckoutService();
+
+	@Before
+	public void setup() {
+		checkoutService.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKD", "DeWalt"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+	}
+
+	@Test
+	public void checkoutAll_mixOfValidAndInvalidRequests_returnsResultsInRequestOrder() {
+		final List<CheckoutResult> results = checkoutService.checkoutAll(Arrays.asList(
+				new CheckoutRequest("JAKR", 5, 101, SEPT_THIRD_2015),
+				new CheckoutRequest("LADW", 3, 10, JULY_SECOND_2020),
+				new CheckoutRequest("CHNS", 5, 25, JULY_SECOND_2015),
+				new CheckoutRequest("NONE", 5, 0, JULY_SECOND_2015),
+				new CheckoutRequest("JAKD", 6, 0, SEPT_THIRD_2015),
+				new CheckoutRequest("JAKR", 0, 0, JULY_SECOND_2015),
+				new CheckoutRequest("JAKR", 9, 0, JULY_SECOND_2015),
+				new CheckoutRequest("JAKR", 4, 50, JULY_SECOND_2020)));
+
+		assertEquals(8, results.size());
+		assertFailure(results.get(0), InvalidDiscountException.class);
+		assertFinalCharge(results.get(1), "$3.58");
+		assertFinalCharge(results.get(2), "$3.35");
+		assertFailure(results.get(3), ToolNotFoundException.class);
+		assertFinalCharge(results.get(4), "$8.97");
+		assertFailure(results.get(5), InvalidDayCountException.class);
+		assertFinalCharge(results.get(6), "$14.95");
+		assertFinalCharge(results.get(7), "$1.50");
+	}
+
+	@Test
+	public void checkoutAll_manyRepeatedRequests_matchesSingleCheckouts() {
+		final List<CheckoutRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			final String code = Arrays.asList("CHNS", "LADW", "JAKD", "JAKR").get(i % 4);
+			requests.add(new CheckoutRequest(code, 1 + i % 30, i % 101, JULY_SECOND_2015.plusDays(i % 90)));
+		}
+
+		final List<CheckoutResult> results = checkoutService.checkoutAll(requests);
+
+		for (int i = 0; i < requests.size(); i++) {
+			final CheckoutRequest request = requests.get(i);
+			final RentalAgreement expected = checkoutService.checkout(request.getCode(), request.getDayCount(),
+					request.getDiscountPercent(), request.getCheckoutDate());
+			assertTrue(results.get(i).isSuccessful());
+			assertEquals(expected.getReport(), results.get(i).getRentalAgreement().getReport());
+		}
+	}
+
+	@Test
+	public void checkoutAll_throwingListener_stillReturnsEveryAgreement() {
+		final List<RentalAgreement> notified = new CopyOnWriteArrayList<>();
+		checkoutService.addRentalListener(rentalAgreement -> {
+			throw new IllegalStateException("The listener is broken.");
+		});
+		checkoutService.addRentalListener(notified::add);
+
+		final RentalAgreement single = checkoutService.checkout("LADW", 3, 10, JULY_SECOND_2020);
+		final List<CheckoutResult> results = checkoutService.checkoutAll(
+				Arrays.asList(new CheckoutRequest("JAKR", 9, 0, JULY_SECOND_2015),
+						new CheckoutRequest("JAKR", 4, 50, JULY_SECOND_2020)));
+
+		assertEquals("$3.58", single.getFinalCharge());
+		assertFinalCharge(results.get(0), "$14.95");
+		assertFinalCharge(results.get(1), "$1.50");
+		assertEquals(3, notified.size());
+		assertEquals(3, checkoutService.getMetrics().getListenerFailureCount());
+	}
+
+	@Test
+	public void checkoutAll_nullAndUnrepresentableRequests_failOnlyThoseRequests() {
+		checkoutService.addToolToInventory(new Tool("YCHT", "Azimut", "Yacht", 1e15, true, true, true));
+
+		final List<CheckoutResult> results = checkoutService.checkoutAll(Arrays.asList(
+				new CheckoutRequest("JAKR", 9, 0, JULY_SECOND_2015), null,
+				new CheckoutRequest("YCHT", 1000, 0, JULY_SECOND_2015),
+				new CheckoutRequest(null, 3, 0, JULY_SECOND_2015)));
+
+		assertFinalCharge(results.get(0), "$14.95");
+		assertFalse(results.get(1).isSuccessful());
+		assertTrue(results.get(1).getFailure() instanceof NullPointerException);
+		assertFalse(results.get(2).isSuccessful());
+		assertTrue(results.get(2).getFailure() instanceof ArithmeticException);
+		assertNull(results.get(2).getValidationFailure());
+		assertFailure(results.get(3), ToolNotFoundException.class);
+		assertEquals(2, checkoutService.getMetrics().getUnexpectedFailureCount());
+	}
+
+	private static void assertFinalCharge(CheckoutResult result, String finalCharge) {
+		assertTrue(result.toString(), result.isSuccessful());
+		assertEquals(finalCharge, result.getRentalAgreement().getFinalCharge());
+	}
+
+	private static void assertFailure(CheckoutResult result, Class<?> failureType) {
+		assertFalse(result.isSuccessful());
+		assertEquals(failureType, result.getValidationFailure().getClass());
+	}
+}
@@ -0,0 +1,156 @@
+package me.tylermoser.toolrental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import me.tylermoser.toolrental.exceptions.ToolNotFoundException;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+/**
+ * A stress test that runs the checkouts from CheckoutServiceTest from many
+ * threads at once, while other threads keep changing the inventory.
+ */
+public class CheckoutServiceConcurrencyTest {
+
+	private static final int CHECKOUT_THREADS = 8;
+	private static final int CHECKOUTS_PER_THREAD = 20_000;
+	private static final int TEMPORARY_TOOLS = 500;
+
+	private static final List<ExpectedCheckout> EXPECTED_CHECKOUTS = Arrays.asList(
+			new ExpectedCheckout("LADW", 3, 10, LocalDate.of(2020, 7, 2), 2, "$3.58"),
+			new ExpectedCheckout("CHNS", 5, 25, LocalDate.of(2015, 7, 2), 3, "$3.35"),
+			new ExpectedCheckout("JAKD", 6, 0, LocalDate.of(2015, 9, 3), 3, "$8.97"),
+			new ExpectedCheckout("JAKR", 9, 0, LocalDate.of(2015, 7, 2), 5, "$14.95"),
+			new ExpectedCheckout("JAKR", 4, 50, LocalDate.of(2020, 7, 2), 1, "$1.50"));
+
+	private final CheckoutService checkoutService = new CheckoutService();
+	private final AtomicBoolean running = new AtomicBoolean(true);
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		checkoutService.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKD", "DeWalt"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		executor = Executors.newFixedThreadPool(CHECKOUT_THREADS + 2);
+	}
+
+	@After
+	public void teardown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void checkout_fromManyThreadsWhileInventoryChanges_returnsCorrectAgreements() throws Exception {
+		final CountDownLatch start = new CountDownLatch(1);
+
+		final List<Future<?>> inventoryChanges = new ArrayList<>();
+		inventoryChanges.add(executor.submit(() -> addAndRemoveTemporaryTools(start)));
+		inventoryChanges.add(executor.submit(() -> checkoutTemporaryTools(start)));
+
+		final List<Future<Integer>> checkouts = new ArrayList<>();
+		for (int thread = 0; thread < CHECKOUT_THREADS; thread++) {
+			final int offset = thread;
+			checkouts.add(executor.submit(() -> checkoutStandardTools(start, offset)));
+		}
+
+		start.countDown();
+		int completedCheckouts = 0;
+		for (Future<Integer> checkout : checkouts) {
+			completedCheckouts += checkout.get(2, TimeUnit.MINUTES);
+		}
+		running.set(false);
+		for (Future<?> inventoryChange : inventoryChanges) {
+			inventoryChange.get(1, TimeUnit.MINUTES);
+		}
+
+		assertEquals(CHECKOUT_THREADS * CHECKOUTS_PER_THREAD, completedCheckouts);
+	}
+
+	private int checkoutStandardTools(CountDownLatch start, int offset) throws InterruptedException {
+		start.await();
+		for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+			final ExpectedCheckout expected = EXPECTED_CHECKOUTS.get((i + offset) % EXPECTED_CHECKOUTS.size());
+			final RentalAgreement rentalAgreement = checkoutService.checkout(expected.code, expected.dayCount,
+					expected.discountPercent, expected.checkoutDate);
+
+			assertEquals(expected.code, rentalAgreement.getToolCode());
+			assertEquals(expected.chargeDays, rentalAgreement.getChargeDays());
+			assertEquals(expected.finalCharge, rentalAgreement.getFinalCharge());
+		}
+		return CHECKOUTS_PER_THREAD;
+	}
+
+	private Void addAndRemoveTemporaryTools(CountDownLatch start) throws InterruptedException {
+		start.await();
+		final List<Tool> temporaryTools = new ArrayList<>();
+		for (int i = 0; i < TEMPORARY_TOOLS; i++) {
+			temporaryTools.add(new Ladder("TMP" + i, "Werner"));
+		}
+		while (running.get()) {
+			for (Tool tool : temporaryTools) {
+				checkoutService.addToolToInventory(tool);
+			}
+			for (Tool tool : temporaryTools) {
+				assertTrue(tool.getCode(), checkoutService.getInventory().removeTool(tool));
+			}
+		}
+		return null;
+	}
+
+	private Void checkoutTemporaryTools(CountDownLatch start) throws InterruptedException {
+		start.await();
+		int i = 0;
+		while (running.get()) {
+			final String code = "TMP" + (i++ % TEMPORARY_TOOLS);
+			try {
+				final RentalAgreement rentalAgreement = checkoutService.checkout(code, 3, 10, LocalDate.of(2020, 7, 2));
+				assertEquals(code, rentalAgreement.getToolCode());
+				assertEquals("$3.58", rentalAgreement.getFinalCharge());
+			} catch (ToolNotFoundException e) {
+				// The tool was removed between adds, which is expected
+			}
+		}
+		return null;
+	}
+
+	private static class ExpectedCheckout {
+
+		private final String code;
+		private final int dayCount;
+		private final int discountPercent;
+		private final LocalDate checkoutDate;
+		private final int chargeDays;
+		private final String finalCharge;
+
+		ExpectedCheckout(String code, int dayCount, int discountPercent, LocalDate checkoutDate, int chargeDays,
+				String finalCharge) {
+			this.code = code;
+			this.dayCount = dayCount;
+			this.discountPercent = discountPercent;
+			this.checkoutDate = checkoutDate;
+			this.chargeDays = chargeDays;
+			this.finalCharge = finalCharge;
+		}
+	}
+}
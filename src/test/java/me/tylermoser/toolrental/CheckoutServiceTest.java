@@ -40,12 +40,15 @@ public class CheckoutServiceTest {
 	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
 	private static final LocalDate JULY_SECOND_2015 = LocalDate.of(2015, 7, 2);
 
+	private CheckoutService checkoutService;
+
 	@Before
 	public void setup() {
-		CheckoutService.addToolToInventory(new Chainsaw(CHNS, STIHL));
-		CheckoutService.addToolToInventory(new Ladder(LADW, WERNER));
-		CheckoutService.addToolToInventory(new Jackhammer(JAKD, DEWALT));
-		CheckoutService.addToolToInventory(new Jackhammer(JAKR, RIDGID));
+		checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Chainsaw(CHNS, STIHL));
+		checkoutService.addToolToInventory(new Ladder(LADW, WERNER));
+		checkoutService.addToolToInventory(new Jackhammer(JAKD, DEWALT));
+		checkoutService.addToolToInventory(new Jackhammer(JAKR, RIDGID));
 	}
 
 	/**
@@ -61,7 +64,7 @@ public class CheckoutServiceTest {
 	@Test(expected = InvalidDiscountException.class)
 	public void checkout_ridgidJackhammer_onSeptThird2015_for5days_at101PercentDiscount_throwsValidationException() {
 		try {
-			CheckoutService.checkout(JAKR, 5, 101, SEPT_THIRD_2015);
+			checkoutService.checkout(JAKR, 5, 101, SEPT_THIRD_2015);
 		} catch (InvalidDiscountException e) {
 			assertTrue(e.getMessage().contains("101"));
 			System.out.println(e.getMessage());
@@ -85,7 +88,7 @@ public class CheckoutServiceTest {
 		final int rentalDays = 3;
 		final int discountPercent = 10;
 
-		RentalAgreement rentalAgreement = CheckoutService.checkout(LADW, rentalDays, discountPercent, JULY_SECOND_2020);
+		RentalAgreement rentalAgreement = checkoutService.checkout(LADW, rentalDays, discountPercent, JULY_SECOND_2020);
 
 		assertEquals(LADW, rentalAgreement.getToolCode());
 		assertEquals(LADDER, rentalAgreement.getToolType());
@@ -121,7 +124,7 @@ public class CheckoutServiceTest {
 		final int rentalDays = 5;
 		final int discountPercent = 25;
 
-		RentalAgreement rentalAgreement = CheckoutService.checkout(CHNS, rentalDays, discountPercent, JULY_SECOND_2015);
+		RentalAgreement rentalAgreement = checkoutService.checkout(CHNS, rentalDays, discountPercent, JULY_SECOND_2015);
 
 		// The prompt states that the Fourth of July is observed on the closest
 		// weekday. There is no exception for tools that do not charge on weekends, but
@@ -162,7 +165,7 @@ public class CheckoutServiceTest {
 		final int rentalDays = 6;
 		final int discountPercent = 0;
 
-		RentalAgreement rentalAgreement = CheckoutService.checkout(JAKD, rentalDays, discountPercent, SEPT_THIRD_2015);
+		RentalAgreement rentalAgreement = checkoutService.checkout(JAKD, rentalDays, discountPercent, SEPT_THIRD_2015);
 
 		assertEquals(JAKD, rentalAgreement.getToolCode());
 		assertEquals(JACKHAMMER, rentalAgreement.getToolType());
@@ -202,7 +205,7 @@ public class CheckoutServiceTest {
 		final int rentalDays = 9;
 		final int discountPercent = 0;
 
-		RentalAgreement rentalAgreement = CheckoutService.checkout(JAKR, rentalDays, discountPercent, JULY_SECOND_2015);
+		RentalAgreement rentalAgreement = checkoutService.checkout(JAKR, rentalDays, discountPercent, JULY_SECOND_2015);
 
 		assertEquals(JAKR, rentalAgreement.getToolCode());
 		assertEquals(JACKHAMMER, rentalAgreement.getToolType());
@@ -237,7 +240,7 @@ public class CheckoutServiceTest {
 		final int rentalDays = 4;
 		final int discountPercent = 50;
 
-		RentalAgreement rentalAgreement = CheckoutService.checkout(JAKR, rentalDays, discountPercent, JULY_SECOND_2020);
+		RentalAgreement rentalAgreement = checkoutService.checkout(JAKR, rentalDays, discountPercent, JULY_SECOND_2020);
 
 		assertEquals(JAKR, rentalAgreement.getToolCode());
 		assertEquals(JACKHAMMER, rentalAgreement.getToolType());
@@ -0,0 +1,95 @@
+package me.tylermoser.toolrental;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class RentalAgreementTest {
+
+	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
+
+	@Test
+	public void charges_halfCentDiscount_roundHalfUp() {
+		final RentalAgreement rentalAgreement = new RentalAgreement(new Jackhammer("JAKR", "Ridgid"), 4,
+				JULY_SECOND_2020, 1, 50);
+
+		assertEquals(299, rentalAgreement.getDailyRentalChargeCents());
+		assertEquals(299, rentalAgreement.getPreDiscountChargeCents());
+		assertEquals(150, rentalAgreement.getDiscountAmountCents());
+		assertEquals(150, rentalAgreement.getFinalChargeCents());
+	}
+
+	@Test
+	public void charges_summedAcrossManyAgreements_matchSumOfFormattedValues() {
+		long totalFinalChargeCents = 0;
+		for (int discountPercent = 0; discountPercent <= 100; discountPercent++) {
+			final RentalAgreement rentalAgreement = new RentalAgreement(new Chainsaw("CHNS", "Stihl"), 5,
+					JULY_SECOND_2020, 3, discountPercent);
+			totalFinalChargeCents += rentalAgreement.getFinalChargeCents();
+
+			final String formattedCents = rentalAgreement.getFinalCharge().replaceAll("[$.,]", "");
+			assertEquals(rentalAgreement.getFinalChargeCents(), Long.parseLong(formattedCents));
+		}
+
+		assertEquals(22574, totalFinalChargeCents);
+	}
+
+	@Test
+	public void charges_longRental_formatsWithGrouping() {
+		final RentalAgreement rentalAgreement = new RentalAgreement(new Ladder("LADW", "Werner"), 3650,
+				JULY_SECOND_2020, 3650, 0);
+
+		assertEquals(726350, rentalAgreement.getPreDiscountChargeCents());
+		assertEquals("$7,263.50", rentalAgreement.getPreDiscountCharge());
+		assertEquals("$0.00", rentalAgreement.getDiscountAmount());
+	}
+
+	@Test
+	public void appendCents_manyAmounts_matchesNumberFormat() {
+		final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+		final Random random = new Random(1);
+		for (int i = 0; i < 10_000; i++) {
+			final long cents = i < 2_000 ? i - 1_000 : random.nextLong() / 1_000;
+			final StringBuilder builder = new StringBuilder();
+			RentalAgreement.appendCents(builder, cents);
+			assertEquals(currencyFormat.format(BigDecimal.valueOf(cents, 2)), builder.toString());
+		}
+	}
+
+	@Test
+	public void getReport_calledTwice_returnsCachedReport() {
+		final RentalAgreement rentalAgreement = new RentalAgreement(new Ladder("LADW", "Werner"), 3, JULY_SECOND_2020,
+				2, 10);
+
+		assertSame(rentalAgreement.getReport(), rentalAgreement.getReport());
+	}
+
+	@Test
+	public void writeReport_toAppendableAndByteBuffer_matchesGetReport() throws IOException {
+		final RentalAgreement rentalAgreement = new RentalAgreement(new Ladder("LADW", "Werner"), 3, JULY_SECOND_2020,
+				2, 10);
+
+		final StringWriter writer = new StringWriter();
+		rentalAgreement.writeReport(writer);
+		assertEquals(rentalAgreement.getReport(), writer.toString());
+
+		final ByteBuffer buffer = ByteBuffer.allocate(rentalAgreement.getReportByteLength());
+		rentalAgreement.writeReport(buffer);
+		assertEquals(rentalAgreement.getReport(), new String(buffer.array(), UTF_8));
+	}
+}
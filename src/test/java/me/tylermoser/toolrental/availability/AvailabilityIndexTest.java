@@ -0,0 +1,135 @@
+package me.tylermoser.toolrental.availability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.exceptions.ToolUnavailableException;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+public class AvailabilityIndexTest {
+
+	private static final LocalDate JULY_2 = LocalDate.of(2020, 7, 2);
+
+	private final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+
+	@Test
+	public void reserve_dayCountPastIntegerEpochDays_blocksOverlappingRentals() {
+		availabilityIndex.reserve("JAKR", JULY_2, Integer.MAX_VALUE);
+
+		assertFalse(availabilityIndex.isAvailable("JAKR", JULY_2.plusDays(10), 3));
+		assertTrue(availabilityIndex.isAvailable("JAKR", JULY_2.minusDays(3), 3));
+		try {
+			availabilityIndex.reserve("JAKR", JULY_2.plusDays(10), 3);
+		} catch (ToolUnavailableException e) {
+			assertEquals(1, availabilityIndex.getReservationCount("JAKR"));
+			return;
+		}
+		throw new AssertionError("The overlapping rental was reserved.");
+	}
+
+	@Test
+	public void reserve_overlappingRange_throwsException() {
+		availabilityIndex.reserve("JAKR", JULY_2, 5);
+
+		try {
+			availabilityIndex.reserve("JAKR", JULY_2.plusDays(4), 3);
+		} catch (ToolUnavailableException e) {
+			assertEquals("The tool JAKR is already rented for part of 07/06/20 to 07/09/20.", e.getMessage());
+			return;
+		} finally {
+			assertEquals(1, availabilityIndex.getReservationCount("JAKR"));
+		}
+		throw new AssertionError("The overlapping reservation was accepted.");
+	}
+
+	@Test
+	public void reserve_adjacentRanges_succeeds() {
+		availabilityIndex.reserve("JAKR", JULY_2.plusDays(5), 5);
+		availabilityIndex.reserve("JAKR", JULY_2, 5);
+		availabilityIndex.reserve("JAKR", JULY_2.plusDays(10), 1);
+		availabilityIndex.reserve("JAKD", JULY_2, 10);
+
+		assertEquals(3, availabilityIndex.getReservationCount("JAKR"));
+		assertFalse(availabilityIndex.isAvailable("JAKR", JULY_2.minusDays(1), 2));
+		assertTrue(availabilityIndex.isAvailable("JAKR", JULY_2.minusDays(1), 1));
+		assertTrue(availabilityIndex.isAvailable("JAKR", JULY_2.plusDays(11), 30));
+	}
+
+	@Test
+	public void release_thenReserve_succeeds() {
+		availabilityIndex.reserve("JAKR", JULY_2, 5);
+
+		assertFalse(availabilityIndex.release("JAKR", JULY_2, 4));
+		assertTrue(availabilityIndex.release("JAKR", JULY_2, 5));
+		availabilityIndex.reserve("JAKR", JULY_2.plusDays(2), 5);
+		assertEquals(1, availabilityIndex.getReservationCount("JAKR"));
+	}
+
+	@Test
+	public void findAvailableTools_returnsFreeToolsOfType() {
+		final Tool ridgid = new Jackhammer("JAKR", "Ridgid");
+		final Tool dewalt = new Jackhammer("JAKD", "DeWalt");
+		final Tool werner = new Ladder("LADW", "Werner");
+		availabilityIndex.reserve("JAKR", JULY_2, 3);
+
+		assertEquals(Arrays.asList(dewalt),
+				availabilityIndex.findAvailableTools(Arrays.asList(ridgid, dewalt, werner), "Jackhammer", JULY_2, 1));
+		assertEquals(Arrays.asList(ridgid, dewalt), availabilityIndex
+				.findAvailableTools(Arrays.asList(ridgid, dewalt, werner), "Jackhammer", JULY_2.plusDays(3), 1));
+	}
+
+	@Test
+	public void reserve_concurrentOverlappingRanges_acceptsOnlyDisjointRanges() throws Exception {
+		final int threadCount = 8;
+		final int weekCount = 520;
+		final Queue<Long> acceptedFirstDays = new ConcurrentLinkedQueue<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threadCount; t++) {
+				final int offset = t % 7;
+				futures.add(executor.submit(() -> {
+					// Every thread tries to book the same weeks, starting on different days
+					for (int week = 0; week < weekCount; week++) {
+						final LocalDate checkoutDate = JULY_2.plusDays(week * 7L + offset);
+						try {
+							availabilityIndex.reserve("JAKR", checkoutDate, 7);
+							acceptedFirstDays.add(checkoutDate.toEpochDay());
+						} catch (ToolUnavailableException e) {
+							// Another thread booked part of this week first
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		final List<Long> firstDays = new ArrayList<>(acceptedFirstDays);
+		Collections.sort(firstDays);
+		assertEquals(firstDays.size(), availabilityIndex.getReservationCount("JAKR"));
+		for (int i = 1; i < firstDays.size(); i++) {
+			assertTrue(firstDays.get(i) >= firstDays.get(i - 1) + 7);
+		}
+	}
+
+}
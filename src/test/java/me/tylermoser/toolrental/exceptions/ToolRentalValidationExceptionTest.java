@@ -0,0 +1,33 @@
+package me.tylermoser.toolrental.exceptions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ToolRentalValidationExceptionTest {
+
+	@Test
+	public void constructor_doesNotCaptureStackTrace() {
+		assertEquals(0, new InvalidDayCountException(0).getStackTrace().length);
+		assertEquals(0, new InvalidDiscountException(101).getStackTrace().length);
+		assertEquals(0, new ToolNotFoundException("NONE").getStackTrace().length);
+		assertEquals(0, new DuplicateToolCodeException("JAKR").getStackTrace().length);
+	}
+
+	@Test
+	public void getMessage_calledTwice_buildsMessageOnce() {
+		final ToolNotFoundException exception = new ToolNotFoundException("NONE");
+
+		assertEquals("There is no tool in inventory with code NONE.", exception.getMessage());
+		assertSame(exception.getMessage(), exception.getMessage());
+		assertEquals(exception.getMessage(), exception.toString());
+	}
+
+	@Test
+	public void getters_returnRejectedValues() {
+		assertEquals(-3, new InvalidDayCountException(-3).getDayCount());
+		assertEquals(101, new InvalidDiscountException(101).getDiscount());
+		assertEquals("NONE", new ToolNotFoundException("NONE").getCode());
+	}
+}
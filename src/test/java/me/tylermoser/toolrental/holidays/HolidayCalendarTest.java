@@ -0,0 +1,141 @@
+package me.tylermoser.toolrental.holidays;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.WEEKDAYS;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.WEEKEND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class HolidayCalendarTest {
+
+	private static final HolidayCalendar CALENDAR = HolidayCalendar.getDefault();
+
+	@Test
+	public void isHoliday_observedFourthOfJulyAndLaborDay_returnsTrue() {
+		// The 4th of July 2020 was a Saturday, so it was observed on Friday the 3rd
+		assertTrue(CALENDAR.isHoliday(LocalDate.of(2020, 7, 3)));
+		assertFalse(CALENDAR.isHoliday(LocalDate.of(2020, 7, 4)));
+		// The 4th of July 2021 was a Sunday, so it was observed on Monday the 5th
+		assertTrue(CALENDAR.isHoliday(LocalDate.of(2021, 7, 5)));
+		assertTrue(CALENDAR.isHoliday(LocalDate.of(2015, 9, 7)));
+		assertFalse(CALENDAR.isHoliday(LocalDate.of(2015, 9, 1)));
+	}
+
+	@Test
+	public void countHolidays_tenYears_countsTwoPerYear() {
+		final long first = LocalDate.of(2010, 1, 1).toEpochDay();
+		final long last = LocalDate.of(2019, 12, 31).toEpochDay();
+
+		assertEquals(20, CALENDAR.countHolidays(first, last));
+		assertEquals(20, CALENDAR.countHolidays(first, last, WEEKDAYS));
+		assertEquals(0, CALENDAR.countHolidays(first, last, WEEKEND));
+	}
+
+	@Test
+	public void countHolidays_outsideOfInitialCache_growsCache() {
+		final long first = LocalDate.of(1600, 1, 1).toEpochDay();
+		final long last = LocalDate.of(2499, 12, 31).toEpochDay();
+
+		assertEquals(1800, CALENDAR.countHolidays(first, last));
+	}
+
+	@Test
+	public void countHolidays_regionalHolidayOnWeekend_isCountedOnWeekend() {
+		final Holiday christmas = year -> LocalDate.of(year, Month.DECEMBER, 25);
+		final HolidayCalendar regionalCalendar = new HolidayCalendar(
+				Arrays.asList(StandardHoliday.OBSERVED_FOURTH_OF_JULY, StandardHoliday.LABOR_DAY, christmas));
+		// Christmas 2021 was a Saturday
+		final long first = LocalDate.of(2021, 1, 1).toEpochDay();
+		final long last = LocalDate.of(2021, 12, 31).toEpochDay();
+
+		assertEquals(3, regionalCalendar.countHolidays(first, last));
+		assertEquals(1, regionalCalendar.countHolidays(first, last, WEEKEND));
+	}
+
+	@Test
+	public void countHolidays_duplicateHolidays_areCountedOnce() {
+		final HolidayCalendar duplicateCalendar = new HolidayCalendar(
+				Arrays.asList(StandardHoliday.LABOR_DAY, StandardHoliday.LABOR_DAY));
+		final long day = LocalDate.of(2015, 9, 7).toEpochDay();
+
+		assertEquals(1, duplicateCalendar.countHolidays(day, day));
+	}
+
+	@Test
+	public void countHolidays_multiMillionDayRange_countsWithoutGrowingCachePastWindow() {
+		final HolidayCalendar calendar = new HolidayCalendar(Arrays.asList(StandardHoliday.values()));
+		final long first = LocalDate.of(2020, 7, 3).toEpochDay();
+		final long last = first + 200_000_000 - 1;
+
+		long expected = 0;
+		long expectedWeekend = 0;
+		final int lastYear = LocalDate.ofEpochDay(last).getYear();
+		for (int year = 2020; year <= lastYear; year++) {
+			for (StandardHoliday holiday : StandardHoliday.values()) {
+				final LocalDate date = holiday.getObservedDate(year);
+				if (date.toEpochDay() >= first && date.toEpochDay() <= last) {
+					expected++;
+					expectedWeekend += date.getDayOfWeek().getValue() >= 6 ? 1 : 0;
+				}
+			}
+		}
+
+		assertEquals(expected, calendar.countHolidays(first, last));
+		assertEquals(expectedWeekend, calendar.countHolidays(first, last, WEEKEND));
+		assertEquals(2199, calendar.getLastCachedYear());
+		assertEquals(2, calendar.getHolidayEpochDays(last - 366, last, WEEKDAYS).length);
+	}
+
+	@Test
+	public void isHoliday_observedInThePreviousYearAtEdgeOfCache_returnsTrue() {
+		// Observed on the last day of the year before, as a Saturday New Year's Day is
+		final Holiday newYearsEve = year -> LocalDate.of(year - 1, Month.DECEMBER, 31);
+		final HolidayCalendar calendar = new HolidayCalendar(Arrays.asList(newYearsEve));
+		final int lastYear = calendar.getLastCachedYear();
+
+		assertTrue(calendar.isHoliday(LocalDate.of(lastYear, 12, 31)));
+		assertTrue(calendar.isHoliday(LocalDate.of(lastYear + 1, 12, 31)));
+		assertEquals(calendar.getLastCachedYear() - calendar.getFirstCachedYear() + 1,
+				calendar.countHolidays(LocalDate.of(calendar.getFirstCachedYear(), 1, 1).toEpochDay(),
+						LocalDate.of(calendar.getLastCachedYear(), 12, 31).toEpochDay()));
+	}
+
+	@Test
+	public void countHolidays_easterPastGrowthWindow_countsEveryYear() {
+		final HolidayCalendar calendar = new HolidayCalendar(Arrays.asList(HolidayCalendarTest::getEaster));
+		final long first = LocalDate.of(3000, 1, 1).toEpochDay();
+		final long last = LocalDate.of(4999, 12, 31).toEpochDay();
+
+		long expectedMonday = 0;
+		for (int year = 3000; year <= 4999; year++) {
+			// Easter is always a Sunday, so shift it to count a day of the week that varies
+			expectedMonday += getEaster(year).getDayOfMonth() % 2;
+		}
+
+		assertEquals(2000, calendar.countHolidays(first, last));
+		assertEquals(0, calendar.countHolidays(first, last, WEEKDAYS));
+		final HolidayCalendar shifted = new HolidayCalendar(Arrays.asList(
+				year -> getEaster(year).plusDays(getEaster(year).getDayOfMonth() % 2)));
+		assertEquals(expectedMonday, shifted.countHolidays(first, last, 1));
+	}
+
+	/**
+	 * Easter Sunday in the Gregorian calendar, which does not repeat every 400
+	 * years
+	 */
+	private static LocalDate getEaster(int year) {
+		final int a = year % 19;
+		final int b = year / 100;
+		final int c = year % 100;
+		final int d = (19 * a + b - b / 4 - (b - (8 * b + 13) / 25) + 15) % 30;
+		final int e = (32 + 2 * (b % 4) + 2 * (c / 4) - d - c % 4) % 7;
+		final int f = d + e - 7 * ((a + 11 * d + 22 * e) / 451) + 114;
+		return LocalDate.of(year, f / 31, f % 31 + 1);
+	}
+}
@@ -0,0 +1,115 @@
+package me.tylermoser.toolrental.http;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.LocalDate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.availability.AvailabilityIndex;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.journal.RentalAgreementJournal;
+import me.tylermoser.toolrental.metrics.CheckoutMetrics;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class CheckoutHttpServerTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final CheckoutService checkoutService = new CheckoutService(new Inventory(),
+			HolidayCalendar.getDefault(), new CheckoutMetrics(), new AvailabilityIndex());
+	private final HttpClient client = HttpClient.newHttpClient();
+	private RentalAgreementJournal journal;
+	private CheckoutHttpServer server;
+
+	@Before
+	public void setup() throws Exception {
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		journal = new RentalAgreementJournal(temporaryFolder.newFile().toPath());
+		server = new CheckoutHttpServer(checkoutService, journal, new InetSocketAddress("127.0.0.1", 0));
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.stop(0);
+		journal.close();
+	}
+
+	@Test
+	public void quote_validRequest_returnsAgreementWithoutReserving() throws Exception {
+		final HttpResponse<String> response = get("/quote?code=LADW&days=3&discount=10&date=2020-07-02");
+
+		assertEquals(200, response.statusCode());
+		assertEquals(checkoutService.quote("LADW", 3, 10, LocalDate.of(2020, 7, 2)).getReport(), response.body());
+		assertEquals(200, get("/quote?code=LADW&days=3&discount=10&date=2020-07-02").statusCode());
+	}
+
+	@Test
+	public void checkout_repeatedRequest_returnsConflict() throws Exception {
+		assertEquals(200, post("/checkout", "code=JAKR&days=9&date=2015-07-02").statusCode());
+
+		final HttpResponse<String> response = post("/checkout", "code=JAKR&days=1&date=2015-07-05");
+		assertEquals(409, response.statusCode());
+		assertEquals("The tool JAKR is already rented for part of 07/05/15 to 07/06/15.\n", response.body());
+	}
+
+	@Test
+	public void checkout_validRequest_isJournaledBeforeResponding() throws Exception {
+		final HttpResponse<String> response = post("/checkout", "code=LADW&days=3&discount=10&date=2020-07-02");
+
+		assertEquals(200, response.statusCode());
+		assertEquals(1, journal.size());
+		assertEquals("LADW", journal.replay().get(0).getToolCode());
+	}
+
+	@Test
+	public void checkout_journalAppendFails_returnsUnavailableAndCancelsRental() throws Exception {
+		checkoutService.addToolToInventory(new Ladder("LADDER-WERNER-16FT", "Werner"));
+
+		assertEquals(503, post("/checkout", "code=LADDER-WERNER-16FT&days=3&date=2020-07-02").statusCode());
+		assertEquals(503, post("/checkout", "code=LADDER-WERNER-16FT&days=3&date=2020-07-02").statusCode());
+		assertEquals(0, journal.size());
+	}
+
+	@Test
+	public void invalidRequests_returnClientErrors() throws Exception {
+		assertEquals(400, get("/quote?code=LADW&days=3&discount=101&date=2020-07-02").statusCode());
+		assertEquals(400, get("/quote?code=LADW&days=three&date=2020-07-02").statusCode());
+		assertEquals(400, get("/quote?code=LADW&days=3").statusCode());
+		assertEquals(400, get("/quote?code=LADW&days=2000000000&date=2020-07-02").statusCode());
+		assertEquals(404, get("/quote?code=NONE&days=3&date=2020-07-02").statusCode());
+		assertEquals(405, get("/checkout?code=LADW&days=3&date=2020-07-02").statusCode());
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(String path, String form) throws Exception {
+		return client.send(HttpRequest.newBuilder(uri(path))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(BodyPublishers.ofString(form)).build(), BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + server.getPort() + path);
+	}
+
+}
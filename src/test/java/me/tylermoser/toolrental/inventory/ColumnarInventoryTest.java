@@ -0,0 +1,66 @@
+package me.tylermoser.toolrental.inventory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.exceptions.DuplicateToolCodeException;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+public class ColumnarInventoryTest {
+
+	private static final LocalDate JULY_SECOND_2015 = LocalDate.of(2015, 7, 2);
+
+	@Test
+	public void findRow_everyTool_matchesOriginalTool() {
+		final List<Tool> tools = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			tools.add(i % 3 == 0 ? new Ladder("LAD" + i, "Werner")
+					: i % 3 == 1 ? new Chainsaw("CHN" + i, "Stihl") : new Jackhammer("JAK" + i, "Brand" + (i % 7)));
+		}
+		final ColumnarInventory inventory = new ColumnarInventory(tools);
+
+		assertEquals(tools.size(), inventory.size());
+		for (Tool tool : tools) {
+			final int row = inventory.findRow(tool.getCode());
+			assertEquals(tool.getCode(), inventory.getCode(row));
+			assertEquals(tool.getBrand(), inventory.getBrand(row));
+			assertSame(tool.getType(), inventory.getToolType(row));
+			assertEquals(tool.getNumberOfRentalDays(JULY_SECOND_2015, 9), inventory.getNumberOfRentalDays(row,
+					JULY_SECOND_2015, 9, HolidayCalendar.getDefault()));
+		}
+		assertEquals(3, inventory.getToolTypeCount());
+	}
+
+	@Test
+	public void findTool_unknownCode_returnsNull() {
+		final ColumnarInventory inventory = new ColumnarInventory(
+				Arrays.asList(new Ladder("LADW", "Werner"), new Jackhammer("JAKR", "Ridgid")));
+
+		assertEquals(-1, inventory.findRow("LAD"));
+		assertEquals(-1, inventory.findRow(null));
+		assertNull(inventory.findTool("JAKD"));
+		assertEquals("Ridgid", inventory.findTool("JAKR").getBrand());
+	}
+
+	@Test
+	public void constructor_emptyCatalog_findsNothing() {
+		assertEquals(-1, new ColumnarInventory(new ArrayList<Tool>()).findRow("LADW"));
+	}
+
+	@Test(expected = DuplicateToolCodeException.class)
+	public void constructor_duplicateCodes_throwsValidationException() {
+		new ColumnarInventory(Arrays.asList(new Ladder("LADW", "Werner"), new Ladder("LADW", "Werner")));
+	}
+}
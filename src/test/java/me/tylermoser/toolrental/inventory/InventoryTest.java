@@ -0,0 +1,94 @@
+package me.tylermoser.toolrental.inventory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.exceptions.DuplicateToolCodeException;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+public class InventoryTest {
+
+	private final Inventory inventory = new Inventory();
+
+	@Test
+	public void findTool_afterAdd_returnsTool() {
+		final Tool chainsaw = new Chainsaw("CHNS", "Stihl");
+		inventory.addTool(chainsaw);
+
+		assertSame(chainsaw, inventory.findTool("CHNS"));
+		assertNull(inventory.findTool("LADW"));
+		assertNull(inventory.findTool(null));
+	}
+
+	@Test(expected = DuplicateToolCodeException.class)
+	public void addTool_duplicateCode_throwsValidationException() {
+		inventory.addTool(new Jackhammer("JAKR", "Ridgid"));
+		inventory.addTool(new Jackhammer("JAKR", "DeWalt"));
+	}
+
+	@Test
+	public void removeTool_differentToolWithSameCode_leavesOriginalInPlace() {
+		final Tool ridgid = new Jackhammer("JAKR", "Ridgid");
+		inventory.addTool(ridgid);
+
+		assertFalse(inventory.removeTool(new Jackhammer("JAKR", "Ridgid")));
+		assertSame(ridgid, inventory.findTool("JAKR"));
+		assertTrue(inventory.removeTool(ridgid));
+		assertNull(inventory.findTool("JAKR"));
+	}
+
+	@Test
+	public void reload_replacesEntireInventory() {
+		inventory.addTool(new Chainsaw("CHNS", "Stihl"));
+		inventory.reload(Arrays.asList(new Ladder("LADW", "Werner"), new Jackhammer("JAKD", "DeWalt")));
+
+		assertNull(inventory.findTool("CHNS"));
+		assertEquals("Werner", inventory.findTool("LADW").getBrand());
+		assertEquals(2, inventory.size());
+	}
+
+	@Test
+	public void reload_duplicateCodes_leavesInventoryUnchanged() {
+		inventory.addTool(new Chainsaw("CHNS", "Stihl"));
+		try {
+			inventory.reload(Arrays.asList(new Ladder("LADW", "Werner"), new Ladder("LADW", "Werner")));
+			fail();
+		} catch (DuplicateToolCodeException e) {
+			assertTrue(e.getMessage().contains("LADW"));
+		}
+
+		assertEquals(1, inventory.size());
+		assertEquals("Stihl", inventory.findTool("CHNS").getBrand());
+	}
+
+	@Test
+	public void getToolsOfType_afterAddRemoveAndReload_returnsOnlyThatType() {
+		final Tool ridgid = new Jackhammer("JAKR", "Ridgid");
+		final Tool dewalt = new Jackhammer("JAKD", "DeWalt");
+		inventory.addTool(ridgid);
+		inventory.addTool(dewalt);
+		inventory.addTool(new Ladder("LADW", "Werner"));
+		inventory.removeTool(dewalt);
+
+		assertEquals(new HashSet<>(Arrays.asList(ridgid)), new HashSet<>(inventory.getToolsOfType("Jackhammer")));
+		assertTrue(inventory.getToolsOfType("Chainsaw").isEmpty());
+
+		final Tool chainsaw = new Chainsaw("CHNS", "Stihl");
+		inventory.reload(Arrays.asList(chainsaw, dewalt));
+		assertEquals(new HashSet<>(Arrays.asList(chainsaw)), new HashSet<>(inventory.getToolsOfType("Chainsaw")));
+		assertEquals(new HashSet<>(Arrays.asList(dewalt)), new HashSet<>(inventory.getToolsOfType("Jackhammer")));
+		assertTrue(inventory.getToolsOfType("Ladder").isEmpty());
+	}
+}
@@ -0,0 +1,161 @@
+package me.tylermoser.toolrental.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class RentalAgreementJournalTest {
+
+	private static final LocalDate FIRST_CHECKOUT = LocalDate.of(2020, 7, 2);
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final CheckoutService checkoutService = new CheckoutService();
+
+	public RentalAgreementJournalTest() {
+		checkoutService.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+	}
+
+	@Test
+	public void replay_afterReopen_returnsEveryAgreementInOrder() throws Exception {
+		final Path path = temporaryFolder.newFile().toPath();
+		final String[] codes = { "CHNS", "LADW", "JAKR" };
+
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(path, 100, TimeUnit.MICROSECONDS)) {
+			long lastSequence = -1;
+			for (int i = 0; i < 1000; i++) {
+				lastSequence = journal.append(checkout(codes[i % codes.length], i));
+			}
+			journal.awaitDurable(lastSequence);
+			assertEquals(999, lastSequence);
+		}
+
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(path)) {
+			final List<JournalEntry> entries = journal.replay();
+			assertEquals(1000, entries.size());
+			for (int i = 0; i < entries.size(); i++) {
+				assertEntryMatches(checkout(codes[i % codes.length], i), entries.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void open_withTornRecord_ignoresItAndOverwritesItOnAppend() throws Exception {
+		final Path path = temporaryFolder.newFile().toPath();
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(path)) {
+			journal.append(checkout("CHNS", 0));
+			journal.append(checkout("LADW", 1));
+		}
+
+		// Simulate a crash part way through writing the second record
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4), JournalRecordLayout.HEADER_SIZE + JournalRecordLayout.RECORD_SIZE
+					+ JournalRecordLayout.CHECKSUM_OFFSET);
+		}
+
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(path)) {
+			assertEquals(1, journal.size());
+			assertEquals(1, journal.append(checkout("JAKR", 2)));
+
+			final JournalCursor cursor = journal.cursor();
+			cursor.next();
+			assertEquals("CHNS", cursor.getToolCode());
+			cursor.next();
+			assertEntryMatches(checkout("JAKR", 2), cursor.toEntry());
+			assertFalse(cursor.next());
+		}
+	}
+
+	@Test
+	public void open_recordWithChargesMissing_ignoresIt() throws Exception {
+		final Path path = temporaryFolder.newFile().toPath();
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(path)) {
+			journal.append(checkout("CHNS", 0));
+			journal.append(checkout("LADW", 1));
+		}
+
+		// Simulate a crash where the page holding the checksum reached the disk, but
+		// the page holding the final charge did not
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(8), JournalRecordLayout.HEADER_SIZE + JournalRecordLayout.RECORD_SIZE
+					+ JournalRecordLayout.FINAL_CHARGE_CENTS_OFFSET);
+		}
+
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(path)) {
+			assertEquals(1, journal.size());
+			assertEntryMatches(checkout("CHNS", 0), journal.replay().get(0));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void append_toolCodeTooLong_throwsException() throws Exception {
+		checkoutService.addToolToInventory(new Ladder("LADDER-WITH-A-LONG-CODE", "Werner"));
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(temporaryFolder.newFile().toPath())) {
+			journal.append(checkoutService.checkout("LADDER-WITH-A-LONG-CODE", 3, 0, FIRST_CHECKOUT));
+		}
+	}
+
+	@Test
+	public void append_checkoutDateTooLargeForRecord_appendsNothing() throws Exception {
+		try (RentalAgreementJournal journal = new RentalAgreementJournal(temporaryFolder.newFile().toPath())) {
+			journal.append(checkout("CHNS", 0));
+			try {
+				journal.append(checkoutService.checkout("LADW", 3, 0, LocalDate.of(10_000_000, 7, 2)));
+				fail();
+			} catch (ArithmeticException e) {
+				// Expected
+			}
+			assertEquals(1, journal.size());
+			assertEquals(1, journal.append(checkout("JAKR", 1)));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void open_notAJournal_throwsException() throws Exception {
+		final Path path = temporaryFolder.newFile().toPath();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap("code,brand,type\n".getBytes("UTF-8")));
+		}
+		new RentalAgreementJournal(path).close();
+	}
+
+	private RentalAgreement checkout(String code, int i) {
+		return checkoutService.checkout(code, 1 + i % 30, i % 101, FIRST_CHECKOUT.plusDays(i));
+	}
+
+	private static void assertEntryMatches(RentalAgreement expected, JournalEntry actual) {
+		assertEquals(expected.getToolCode(), actual.getToolCode());
+		assertEquals(expected.getCheckoutEpochDay(), actual.getCheckoutDate().toEpochDay());
+		assertEquals(expected.getDueEpochDay(), actual.getDueDate().toEpochDay());
+		assertEquals(expected.getRentalDays(), actual.getRentalDays());
+		assertEquals(expected.getChargeDays(), actual.getChargeDays());
+		assertEquals(expected.getDiscountPercent(), actual.getDiscountPercent());
+		assertEquals(expected.getDailyRentalChargeCents(), actual.getDailyRentalChargeCents());
+		assertEquals(expected.getPreDiscountChargeCents(), actual.getPreDiscountChargeCents());
+		assertEquals(expected.getDiscountAmountCents(), actual.getDiscountAmountCents());
+		assertEquals(expected.getFinalChargeCents(), actual.getFinalChargeCents());
+	}
+
+}
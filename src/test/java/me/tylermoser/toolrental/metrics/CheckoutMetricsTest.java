@@ -0,0 +1,104 @@
+package me.tylermoser.toolrental.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.exceptions.ToolRentalValidationException;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class CheckoutMetricsTest {
+
+	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
+
+	@Test
+	public void snapshot_afterCheckouts_countsRentalsAndFailuresByType() {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+
+		checkoutService.checkout("LADW", 3, 10, JULY_SECOND_2020);
+		checkoutService.checkout("LADW", 3, 10, JULY_SECOND_2020);
+		checkoutService.checkout("JAKR", 4, 50, JULY_SECOND_2020);
+		checkoutExpectingFailure(checkoutService, "JAKR", 4, 101);
+		checkoutExpectingFailure(checkoutService, "JAKR", 0, 0);
+		checkoutExpectingFailure(checkoutService, "NONE", 1, 0);
+		checkoutExpectingFailure(checkoutService, "NONE", 1, 0);
+
+		final CheckoutMetricsSnapshot snapshot = checkoutService.getMetrics().snapshot();
+		assertEquals(7, snapshot.getCheckoutCount());
+		assertEquals(3, snapshot.getRentalCount());
+		assertEquals(Long.valueOf(2), snapshot.getRentalsByToolCode().get("LADW"));
+		assertEquals(Long.valueOf(1), snapshot.getRentalsByToolCode().get("JAKR"));
+		assertEquals(4, snapshot.getValidationFailureCount());
+		assertEquals(Long.valueOf(1), snapshot.getValidationFailuresByType().get("InvalidDiscountException"));
+		assertEquals(Long.valueOf(1), snapshot.getValidationFailuresByType().get("InvalidDayCountException"));
+		assertEquals(Long.valueOf(2), snapshot.getValidationFailuresByType().get("ToolNotFoundException"));
+		assertEquals(7, snapshot.getLatency().getCount());
+	}
+
+	@Test
+	public void register_withPlatformMBeanServer_exposesAttributes() throws Exception {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.checkout("LADW", 3, 10, JULY_SECOND_2020);
+
+		final String objectName = "me.tylermoser.toolrental:type=CheckoutMetrics,name=CheckoutMetricsTest";
+		checkoutService.getMetrics().register(objectName);
+		try {
+			final Object rentalCount = ManagementFactory.getPlatformMBeanServer()
+					.getAttribute(new ObjectName(objectName), "RentalCount");
+			assertEquals(1L, rentalCount);
+		} finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(objectName));
+		}
+	}
+
+	@Test
+	public void latencyHistogram_recordedValues_reportsPercentilesWithinBucketPrecision() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 10_000; nanos++) {
+			histogram.record(nanos);
+		}
+
+		final LatencySnapshot snapshot = histogram.snapshot();
+		assertEquals(10_000, snapshot.getCount());
+		assertEquals(10_000, snapshot.getMaxNanos());
+		assertEquals(5_000.5, snapshot.getMeanNanos(), 0.001);
+		assertWithinPrecision(5_000, snapshot.getP50Nanos());
+		assertWithinPrecision(9_900, snapshot.getP99Nanos());
+	}
+
+	@Test
+	public void latencyHistogram_bucketBounds_containEveryValue() {
+		for (long value = 0; value < 100_000; value++) {
+			final int bucket = LatencyHistogram.getBucket(value);
+			assertTrue(value <= LatencyHistogram.getBucketUpperBound(bucket));
+			assertTrue(bucket == 0 || value > LatencyHistogram.getBucketUpperBound(bucket - 1));
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucket(Long.MAX_VALUE)));
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue(expected + " vs " + actual, actual >= expected && actual <= expected * 1.125);
+	}
+
+	private static void checkoutExpectingFailure(CheckoutService checkoutService, String code, int dayCount,
+			int discountPercent) {
+		try {
+			checkoutService.checkout(code, dayCount, discountPercent, JULY_SECOND_2020);
+			fail();
+		} catch (ToolRentalValidationException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package me.tylermoser.toolrental.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class RevenueAggregatorTest {
+
+	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
+
+	@Test
+	public void record_checkoutsThroughListener_rollsUpByTypeBrandAndWeek() {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		checkoutService.addToolToInventory(new Jackhammer("JAKD", "DeWalt"));
+		final RevenueAggregator aggregator = new RevenueAggregator();
+		checkoutService.addRentalListener(aggregator);
+
+		final RentalAgreement ladder = checkoutService.checkout("LADW", 3, 10, JULY_SECOND_2020);
+		final RentalAgreement ridgid = checkoutService.checkout("JAKR", 4, 50, JULY_SECOND_2020);
+		final RentalAgreement dewalt = checkoutService.checkout("JAKD", 6, 0, LocalDate.of(2015, 9, 3));
+		checkoutService.quote("JAKD", 6, 0, LocalDate.of(2015, 9, 3));
+
+		assertEquals(3, aggregator.getAgreementCount());
+		assertEquals(358 + 150 + 897, aggregator.getRevenueCents());
+		assertEquals(358, aggregator.getRevenueCentsByToolType("Ladder"));
+		assertEquals(150 + 897, aggregator.getRevenueCentsByToolType("Jackhammer"));
+		assertEquals(150, aggregator.getRevenueCentsByBrand("Ridgid"));
+		assertEquals(0, aggregator.getRevenueCentsByBrand("Stihl"));
+		// 6/29/20 is the Monday of the week of 7/2/20
+		assertEquals(358 + 150, aggregator.getRevenueCentsForWeek(LocalDate.of(2020, 7, 5)));
+		assertEquals(Long.valueOf(358 + 150), aggregator.getRevenueCentsByWeek().get(LocalDate.of(2020, 6, 29)));
+		assertEquals(897, aggregator.getRevenueCentsForWeek(LocalDate.of(2015, 8, 31)));
+		assertEquals(0, aggregator.getRevenueCentsForWeek(LocalDate.of(2020, 7, 6)));
+		assertEquals(ladder.getRentalDays(), aggregator.getRentalDays("LADW"));
+		assertEquals(0.5, aggregator.getUtilization("JAKR", 8), 0.0);
+		assertEquals(1.0, aggregator.getUtilization("JAKD", dewalt.getRentalDays() - 1), 0.0);
+		assertEquals(ridgid.getFinalChargeCents(), aggregator.getRevenueCentsByBrand().get("Ridgid").longValue());
+	}
+
+	@Test
+	public void record_concurrentAgreements_totalsMatchSequentialSum() throws Exception {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Ladder("LADW", "Werner"));
+		final RentalAgreement agreement = checkoutService.checkout("LADW", 3, 10, JULY_SECOND_2020);
+		final RevenueAggregator aggregator = new RevenueAggregator();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 25_000; i++) {
+						aggregator.record(agreement);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(100_000, aggregator.getAgreementCount());
+		assertEquals(100_000 * agreement.getFinalChargeCents(), aggregator.getRevenueCentsByToolType("Ladder"));
+		assertEquals(300_000, aggregator.getRentalDays("LADW"));
+	}
+}
@@ -0,0 +1,82 @@
+package me.tylermoser.toolrental.pricing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.ToolTypeRegistry;
+
+public class QuoteCacheTest {
+
+	private static final LocalDate JULY_SECOND_2015 = LocalDate.of(2015, 7, 2);
+
+	private final QuoteCache quoteCache = new QuoteCache(1024);
+	private final HolidayCalendar holidayCalendar = HolidayCalendar.getDefault();
+
+	@Test
+	public void getQuote_sameToolType_sharesCachedQuote() throws IOException {
+		final ToolTypeRegistry registry = load("Jackhammer,2.99,true,false,false\n");
+		final Tool ridgid = new Tool("JAKR", "Ridgid", registry.getToolType("Jackhammer"));
+		final Tool dewalt = new Tool("JAKD", "DeWalt", registry.getToolType("Jackhammer"));
+
+		final Quote quote = quoteCache.getQuote(ridgid.getPricing(), JULY_SECOND_2015, 9, holidayCalendar);
+
+		assertEquals(5, quote.getChargeDays());
+		assertEquals(1495, quote.getPreDiscountChargeCents());
+		assertSame(quote, quoteCache.getQuote(dewalt.getPricing(), JULY_SECOND_2015, 9, holidayCalendar));
+		assertEquals(1, quoteCache.getHitCount());
+		assertEquals(1, quoteCache.getMissCount());
+	}
+
+	@Test
+	public void getQuote_afterPriceReload_recalculatesQuote() throws IOException {
+		final ToolTypeRegistry registry = load("Jackhammer,2.99,true,false,false\n");
+		final Tool ridgid = new Tool("JAKR", "Ridgid", registry.getToolType("Jackhammer"));
+		quoteCache.getQuote(ridgid.getPricing(), JULY_SECOND_2015, 9, holidayCalendar);
+
+		registry.reload(new StringReader("Jackhammer,3.49,true,true,true\n"));
+		final Quote quote = quoteCache.getQuote(ridgid.getPricing(), JULY_SECOND_2015, 9, holidayCalendar);
+
+		assertEquals(9, quote.getChargeDays());
+		assertEquals(3141, quote.getPreDiscountChargeCents());
+		assertEquals(2, quoteCache.getMissCount());
+	}
+
+	@Test
+	public void getQuote_moreQuotesThanMaximumSize_evictsLeastRecentlyUsed() throws IOException {
+		final Tool ridgid = new Tool("JAKR", "Ridgid", load("Jackhammer,2.99,true,false,false\n")
+				.getToolType("Jackhammer"));
+
+		for (int day = 0; day < 5000; day++) {
+			quoteCache.getQuote(ridgid.getPricing(), JULY_SECOND_2015.plusDays(day), 7, holidayCalendar);
+		}
+
+		assertTrue(quoteCache.size() <= 1024);
+		assertEquals(5000, quoteCache.size() + quoteCache.getEvictionCount());
+
+		// The most recent quote is still cached
+		quoteCache.getQuote(ridgid.getPricing(), JULY_SECOND_2015.plusDays(4999), 7, holidayCalendar);
+		assertEquals(1, quoteCache.getHitCount());
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void newQuote_chargeTooLargeForLong_throwsException() {
+		new Quote(new ToolPricing(Long.MAX_VALUE / 2, true, true, true), 3);
+	}
+
+	private static ToolTypeRegistry load(String csv) throws IOException {
+		final ToolTypeRegistry registry = new ToolTypeRegistry();
+		registry.reload(new StringReader(csv));
+		return registry;
+	}
+
+}
@@ -0,0 +1,73 @@
+package me.tylermoser.toolrental.pricing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.ColumnarInventory;
+import me.tylermoser.toolrental.tools.ChargeDayCounter;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.ToolType;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+public class RangePricerTest {
+
+	private final HolidayCalendar holidayCalendar = HolidayCalendar.getDefault();
+
+	@Test
+	public void rentalRange_everyDaysOfWeekMask_matchesDirectCount() {
+		final Random random = new Random(19);
+		for (int i = 0; i < 200; i++) {
+			final LocalDate checkoutDate = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(365 * 40));
+			final int dayCount = 1 + random.nextInt(i % 2 == 0 ? 15 : 2000);
+			final RentalRange range = new RentalRange(checkoutDate, dayCount, holidayCalendar);
+
+			final long firstDay = checkoutDate.toEpochDay() + 1;
+			for (int mask = 0; mask <= ChargeDayCounter.ALL_DAYS; mask++) {
+				final int days = ChargeDayCounter.countDaysOfWeek(firstDay, dayCount, mask);
+				final int holidays = holidayCalendar.countHolidays(firstDay, firstDay + dayCount - 1, mask);
+				assertEquals(days, range.getChargeDays(mask, true));
+				assertEquals(days - holidays, range.getChargeDays(mask, false));
+			}
+		}
+	}
+
+	@Test
+	public void priceAll_mixedInventory_matchesPricingEachTool() {
+		final List<Tool> tools = new ArrayList<>();
+		for (int i = 0; i < 800; i++) {
+			final int flags = i % 8;
+			// Each of these tools has its own tool type, covering every combination of flags
+			tools.add(new Tool("T" + i, "Brand" + (i % 5), "Type" + flags, 1.49 + flags, (flags & 1) != 0,
+					(flags & 2) != 0, (flags & 4) != 0));
+		}
+		tools.add(new Tool("CAP", "Brand", new ToolType("Capped", new ToolPricing(999, true, true, false,
+				Arrays.asList(ChargeRules.weeklyCap(5), ChargeRules.minimumChargeDays(2))))));
+		tools.add(new Tool("MIN", "Brand", new ToolType("Minimum", new ToolPricing(499, true, false, false,
+				Arrays.asList(ChargeRules.minimumChargeDays(3))))));
+		final ColumnarInventory inventory = new ColumnarInventory(tools);
+		final long[] chargeCents = new long[inventory.size()];
+
+		final Random random = new Random(20);
+		for (int i = 0; i < 50; i++) {
+			final LocalDate checkoutDate = LocalDate.of(2010, 1, 1).plusDays(random.nextInt(365 * 15));
+			final int dayCount = 1 + random.nextInt(60);
+			RangePricer.priceAll(inventory, new RentalRange(checkoutDate, dayCount, holidayCalendar), chargeCents);
+
+			for (int row = 0; row < inventory.size(); row++) {
+				final Tool tool = tools.get(row);
+				assertEquals(tool.getNumberOfRentalDays(checkoutDate, dayCount) * tool.getDailyChargeCents(),
+						chargeCents[row]);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package me.tylermoser.toolrental.pricing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.exceptions.InvalidCheckoutDateCountException;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+public class StartDateSweepTest {
+
+	private final HolidayCalendar holidayCalendar = HolidayCalendar.getDefault();
+
+	private final List<ToolPricing> pricings = Arrays.asList(new ToolPricing(199, true, true, false),
+			new ToolPricing(149, true, false, true), new ToolPricing(299, true, false, false),
+			new ToolPricing(100, false, true, false),
+			new ToolPricing(999, true, true, false, Arrays.asList(ChargeRules.minimumChargeDays(4))),
+			new ToolPricing(999, true, true, false, Arrays.asList(ChargeRules.weeklyCap(5))));
+
+	@Test
+	public void sweep_randomRanges_matchesPricingEachCheckoutDate() {
+		final Random random = new Random(23);
+		for (int i = 0; i < 100; i++) {
+			final LocalDate firstCheckoutDate = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(365 * 30));
+			final int checkoutDateCount = random.nextInt(120);
+			final int dayCount = 1 + random.nextInt(i % 2 == 0 ? 10 : 400);
+			for (ToolPricing pricing : pricings) {
+				final PriceCurve curve = StartDateSweep.sweep(pricing, firstCheckoutDate, checkoutDateCount, dayCount,
+						holidayCalendar);
+
+				assertEquals(checkoutDateCount, curve.size());
+				for (int day = 0; day < checkoutDateCount; day++) {
+					final LocalDate checkoutDate = firstCheckoutDate.plusDays(day);
+					final int expected = pricing.getNumberOfRentalDays(checkoutDate, dayCount, holidayCalendar);
+					assertEquals(pricing + " from " + checkoutDate, expected, curve.getChargeDays(day));
+					assertEquals(expected * pricing.getDailyChargeCents(), curve.getPreDiscountChargeCents(day));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void getCheapestCheckoutDates_jackhammerOverFourthOfJuly_returnsCheapestEarliestFirst() {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+
+		final PriceCurve curve = checkoutService.quoteCheckoutDates("JAKR", 3, LocalDate.of(2020, 6, 29), 7);
+
+		// Checking out on 7/2 covers the observed 4th of July (Friday 7/3) and the
+		// weekend, so nothing is charged. 7/1 and 7/3 each charge for one day.
+		assertEquals(Arrays.asList(LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 3)),
+				curve.getCheapestCheckoutDates(3));
+		assertEquals(0, curve.getChargeDays(3));
+		assertEquals(7, curve.getCheapestCheckoutDates(100).size());
+	}
+
+	@Test
+	public void sweep_rentalOfBillionsOfDays_matchesPricingEachCheckoutDate() {
+		final LocalDate firstCheckoutDate = LocalDate.of(2020, 6, 29);
+		final int dayCount = Integer.MAX_VALUE - 1;
+		for (ToolPricing pricing : pricings.subList(0, 5)) {
+			final PriceCurve curve = StartDateSweep.sweep(pricing, firstCheckoutDate, 10, dayCount, holidayCalendar);
+
+			for (int day = 0; day < 10; day++) {
+				assertEquals(pricing.getNumberOfRentalDays(firstCheckoutDate.plusDays(day), dayCount, holidayCalendar),
+						curve.getChargeDays(day));
+			}
+			assertEquals(10, curve.getCheapestCheckoutDates(10).size());
+		}
+	}
+
+	@Test(expected = InvalidCheckoutDateCountException.class)
+	public void quoteCheckoutDates_negativeCheckoutDateCount_throwsException() {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		checkoutService.quoteCheckoutDates("JAKR", 3, LocalDate.of(2020, 6, 29), -1);
+	}
+
+	@Test(expected = InvalidCheckoutDateCountException.class)
+	public void quoteCheckoutDates_tooManyCheckoutDates_throwsException() {
+		final CheckoutService checkoutService = new CheckoutService();
+		checkoutService.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+		checkoutService.quoteCheckoutDates("JAKR", 3, LocalDate.of(2020, 6, 29), Integer.MAX_VALUE);
+	}
+}
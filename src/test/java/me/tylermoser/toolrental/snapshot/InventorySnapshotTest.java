@@ -0,0 +1,149 @@
+package me.tylermoser.toolrental.snapshot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+import me.tylermoser.toolrental.inventory.Inventory;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+import me.tylermoser.toolrental.tools.ToolPricing;
+import me.tylermoser.toolrental.tools.ToolType;
+import me.tylermoser.toolrental.tools.rules.ChargeRules;
+
+public class InventorySnapshotTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void load_afterWrite_checkoutsMatchOriginalInventory() throws IOException {
+		final ToolType scaffold = new ToolType("Scaffold", new ToolPricing(999, true, true, false,
+				Arrays.asList(ChargeRules.weeklyCap(5), ChargeRules.minimumChargeDays(2))));
+		final List<Tool> tools = new ArrayList<>(Arrays.asList(new Chainsaw("CHNS", "Stihl"),
+				new Ladder("LADW", "Werner"), new Jackhammer("JAKD", "DeWalt"), new Jackhammer("JAKR", "Ridgid"),
+				new Tool("SCAF", "Werner", scaffold), new Tool("SCÄF", "Bauer", scaffold)));
+		final Path path = temporaryFolder.newFile().toPath();
+
+		InventorySnapshot.write(path, tools, HolidayCalendar.getDefault());
+		final InventorySnapshot snapshot = InventorySnapshot.load(path);
+
+		assertEquals(tools.size(), snapshot.getTools().size());
+		assertEquals(4, snapshot.getToolTypes().size());
+		assertSame(snapshot.getTools().get(4).getType(), snapshot.getTools().get(5).getType());
+		assertEquals("SCÄF", snapshot.getTools().get(5).getCode());
+
+		final CheckoutService original = new CheckoutService();
+		original.reloadInventory(tools);
+		final CheckoutService loaded = new CheckoutService(new Inventory(), snapshot.getHolidayCalendar());
+		loaded.reloadInventory(snapshot.getTools());
+		for (Tool tool : tools) {
+			for (int dayCount = 1; dayCount <= 40; dayCount += 3) {
+				final LocalDate checkoutDate = LocalDate.of(2020, 6, 25).plusDays(dayCount);
+				assertEquals(original.quote(tool.getCode(), dayCount, 10, checkoutDate).getReport(),
+						loaded.quote(tool.getCode(), dayCount, 10, checkoutDate).getReport());
+			}
+		}
+	}
+
+	@Test
+	public void load_afterWrite_holidayCalendarMatchesOriginal() throws IOException {
+		final Path path = temporaryFolder.newFile().toPath();
+		final HolidayCalendar original = HolidayCalendar.getDefault();
+
+		InventorySnapshot.write(path, new ArrayList<>(), original);
+		final HolidayCalendar loaded = InventorySnapshot.load(path).getHolidayCalendar();
+
+		assertEquals(original.getHolidays(), loaded.getHolidays());
+		assertEquals(original.getFirstCachedYear(), loaded.getFirstCachedYear());
+		final long first = LocalDate.of(original.getFirstCachedYear(), 1, 1).toEpochDay();
+		final long last = LocalDate.of(original.getLastCachedYear(), 12, 31).toEpochDay();
+		assertArrayEquals(original.getHolidayEpochDays(first, last, 0b1111111),
+				loaded.getHolidayEpochDays(first, last, 0b1111111));
+		// Years outside of the snapshot are still worked out from the holidays
+		final long farFuture = LocalDate.of(2400, 1, 1).toEpochDay();
+		assertEquals(original.countHolidays(farFuture, farFuture + 365), loaded.countHolidays(farFuture,
+				farFuture + 365));
+	}
+
+	@Test(expected = IOException.class)
+	public void load_notASnapshot_throwsException() throws IOException {
+		final Path path = temporaryFolder.newFile().toPath();
+		Files.write(path, "Ladder,1.99,true,true,false\nChainsaw,1.49,true,false,true\n".getBytes());
+		InventorySnapshot.load(path);
+	}
+
+	@Test
+	public void load_afterWrite_returnsSourceVersion() throws IOException {
+		final Path path = temporaryFolder.newFile().toPath();
+
+		InventorySnapshot.write(path, Arrays.asList(new Ladder("LADW", "Werner")), HolidayCalendar.getDefault(),
+				0x1234_5678_9ABCL);
+
+		assertEquals(0x1234_5678_9ABCL, InventorySnapshot.load(path).getSourceVersion());
+	}
+
+	@Test(expected = IOException.class)
+	public void load_truncatedSnapshot_throwsException() throws IOException {
+		final Path path = writeSnapshot();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 5);
+		}
+		InventorySnapshot.load(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void load_negativeToolCount_throwsException() throws IOException {
+		final Path path = writeSnapshot();
+		overwriteInt(path, SnapshotLayout.TOOL_COUNT_OFFSET, -1);
+		InventorySnapshot.load(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void load_hugeHolidayDateCount_throwsException() throws IOException {
+		final Path path = writeSnapshot();
+		overwriteInt(path, SnapshotLayout.HOLIDAY_DATE_COUNT_OFFSET, Integer.MAX_VALUE);
+		InventorySnapshot.load(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void load_brandIndexOutOfRange_throwsException() throws IOException {
+		final Path path = writeSnapshot();
+		// The last tool ends with its brand index and then its tool type index
+		final long brandIndexPosition = Files.size(path) - 8;
+		overwriteInt(path, brandIndexPosition, 7);
+		InventorySnapshot.load(path);
+	}
+
+	private Path writeSnapshot() throws IOException {
+		final Path path = temporaryFolder.newFile().toPath();
+		InventorySnapshot.write(path, Arrays.asList(new Chainsaw("CHNS", "Stihl"), new Ladder("LADW", "Werner")),
+				HolidayCalendar.getDefault());
+		return path;
+	}
+
+	private static void overwriteInt(Path path, long position, int value) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4).putInt(value).flip(), position);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package me.tylermoser.toolrental.stores;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import me.tylermoser.toolrental.CheckoutService;
+import me.tylermoser.toolrental.exceptions.StoreNotFoundException;
+import me.tylermoser.toolrental.exceptions.ToolNotFoundException;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+
+public class StoreCheckoutServiceTest {
+
+	private static final LocalDate JULY_SECOND_2020 = LocalDate.of(2020, 7, 2);
+
+	// The customer is in Chicago
+	private static final double LATITUDE = 41.88;
+	private static final double LONGITUDE = -87.63;
+
+	private final StoreCheckoutService storeCheckoutService = new StoreCheckoutService();
+
+	@Before
+	public void setup() {
+		final CheckoutService milwaukee = storeCheckoutService.addStore(new Store("MKE", "Milwaukee", 43.04, -87.91));
+		milwaukee.addToolToInventory(new Ladder("LADW", "Werner"));
+		milwaukee.addToolToInventory(new Jackhammer("JAKR", "Ridgid"));
+
+		final CheckoutService evanston = storeCheckoutService.addStore(new Store("EVN", "Evanston", 42.05, -87.68));
+		evanston.addToolToInventory(new Ladder("LADW", "Werner"));
+		evanston.addToolToInventory(new Chainsaw("CHNS", "Stihl"));
+
+		storeCheckoutService.addStore(new Store("NYC", "New York", 40.71, -74.01)).addToolToInventory(
+				new Jackhammer("JAKD", "DeWalt"));
+	}
+
+	@Test
+	public void checkout_sameCodeInTwoStores_rentsFromEachStoreSeparately() {
+		storeCheckoutService.checkout("EVN", "LADW", 3, 10, JULY_SECOND_2020);
+		storeCheckoutService.checkout("MKE", "LADW", 3, 10, JULY_SECOND_2020);
+
+		assertEquals(1, storeCheckoutService.getCheckoutService("EVN").getMetrics().getRentalCount());
+		assertEquals(1, storeCheckoutService.getCheckoutService("MKE").getMetrics().getRentalCount());
+		assertEquals(0, storeCheckoutService.getCheckoutService("NYC").getMetrics().getRentalCount());
+	}
+
+	@Test(expected = ToolNotFoundException.class)
+	public void checkout_toolFromAnotherStore_throwsException() {
+		storeCheckoutService.checkout("EVN", "JAKR", 3, 10, JULY_SECOND_2020);
+	}
+
+	@Test(expected = StoreNotFoundException.class)
+	public void checkout_unknownStore_throwsException() {
+		storeCheckoutService.checkout("LAX", "LADW", 3, 10, JULY_SECOND_2020);
+	}
+
+	@Test
+	public void findNearestStoreWithTool_nearestStoreRented_returnsNextNearest() {
+		assertEquals("EVN", storeCheckoutService.findNearestStoreWithTool("Ladder", JULY_SECOND_2020, 3, LATITUDE,
+				LONGITUDE).getStore().getId());
+
+		storeCheckoutService.checkout("EVN", "LADW", 5, 0, JULY_SECOND_2020.minusDays(1));
+		final StoreMatch match = storeCheckoutService.findNearestStoreWithTool("Ladder", JULY_SECOND_2020, 3,
+				LATITUDE, LONGITUDE);
+
+		assertEquals("MKE", match.getStore().getId());
+		assertEquals("LADW", match.getTools().get(0).getCode());
+		assertEquals(130, match.getDistanceKilometers(), 10);
+		assertNull(storeCheckoutService.findNearestStoreWithTool("Auger", JULY_SECOND_2020, 3, LATITUDE,
+				LONGITUDE));
+	}
+
+	@Test
+	public void findNearestStoreWithToolCode_codeInOneStore_returnsThatStore() {
+		assertEquals("NYC", storeCheckoutService.findNearestStoreWithToolCode("JAKD", LATITUDE, LONGITUDE)
+				.getStore().getId());
+		assertEquals("MKE", storeCheckoutService.findNearestStoreWithToolCode("JAKR", LATITUDE, LONGITUDE)
+				.getStore().getId());
+		assertNull(storeCheckoutService.findNearestStoreWithToolCode("NONE", LATITUDE, LONGITUDE));
+	}
+}
@@ -0,0 +1,146 @@
+package me.tylermoser.toolrental.tools;
+
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
+import static java.time.LocalDate.of;
+import static java.time.Month.JULY;
+import static java.time.Month.SEPTEMBER;
+import static java.time.temporal.TemporalAdjusters.firstInMonth;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+
+/**
+ * Differential tests comparing the arithmetic charge day calculation against
+ * a day-by-day implementation, which is kept below as a reference.
+ */
+public class ToolTest {
+
+	private static final long SEED = 20150703L;
+	private static final int ITERATIONS = 500;
+	private static final LocalDate EARLIEST_CHECKOUT = LocalDate.of(1990, 1, 1);
+	private static final int CHECKOUT_DATE_RANGE_DAYS = 365 * 60;
+	private static final int MAX_DAY_COUNT = 3650;
+
+	private static final List<Tool> TOOLS = Arrays.asList(new Chainsaw("CHNS", "Stihl"), new Ladder("LADW", "Werner"),
+			new Jackhammer("JAKR", "Ridgid"), new TestTool(true, true, true), new TestTool(true, false, false),
+			new TestTool(true, true, false), new TestTool(true, false, true), new TestTool(false, true, false),
+			new TestTool(false, true, true), new TestTool(false, false, false));
+
+	@Test
+	public void getNumberOfRentalDays_randomCheckouts_matchesDayByDayCount() {
+		final Random random = new Random(SEED);
+		for (int i = 0; i < ITERATIONS; i++) {
+			final LocalDate checkoutDate = EARLIEST_CHECKOUT.plusDays(random.nextInt(CHECKOUT_DATE_RANGE_DAYS));
+			final int dayCount = 1 + random.nextInt(MAX_DAY_COUNT);
+			for (Tool tool : TOOLS) {
+				assertRentalDaysMatch(tool, checkoutDate, dayCount);
+			}
+		}
+	}
+
+	@Test
+	public void getNumberOfRentalDays_shortRentalsAroundHolidays_matchesDayByDayCount() {
+		for (int year = 2010; year <= 2030; year++) {
+			final LocalDate lastCheckoutDate = of(year, SEPTEMBER, 10);
+			for (LocalDate checkoutDate = of(year, JULY, 1); checkoutDate.isBefore(lastCheckoutDate); checkoutDate = checkoutDate.plusDays(1)) {
+				for (int dayCount = 1; dayCount <= 14; dayCount++) {
+					for (Tool tool : TOOLS) {
+						assertRentalDaysMatch(tool, checkoutDate, dayCount);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void getNumberOfRentalDays_zeroDays_returnsZero() {
+		for (Tool tool : TOOLS) {
+			assertEquals(0, tool.getNumberOfRentalDays(of(2020, JULY, 2), 0));
+		}
+	}
+
+	@Test
+	public void getNumberOfRentalDays_rentalPastHolidayCacheWindow_matchesDayByDayCount() {
+		// Ends in the 2840s, past the years the holiday cache may grow to
+		for (int i = 0; i < 3; i++) {
+			assertRentalDaysMatch(TOOLS.get(i), of(2020, JULY, 2), 300_000);
+		}
+		assertTrue(HolidayCalendar.getDefault().getLastCachedYear() < 3000);
+	}
+
+	private static void assertRentalDaysMatch(Tool tool, LocalDate checkoutDate, int dayCount) {
+		assertEquals(tool.getToolType() + " from " + checkoutDate + " for " + dayCount + " days",
+				countRentalDaysOneByOne(tool, checkoutDate, dayCount),
+				tool.getNumberOfRentalDays(checkoutDate, dayCount));
+	}
+
+	/*
+	 * A reference for Tool::getNumberOfRentalDays that visits every day in the
+	 * rental period. It is the original implementation, plus the weekday charge
+	 * flag that tool types have gained since.
+	 */
+
+	private static int countRentalDaysOneByOne(Tool tool, LocalDate checkoutDate, int dayCount) {
+		checkoutDate = checkoutDate.plusDays(1);
+		return (int) checkoutDate.datesUntil(checkoutDate.plusDays(dayCount)).filter(date -> isRentalDay(tool, date))
+				.count();
+	}
+
+	private static boolean isRentalDay(Tool tool, LocalDate date) {
+		if (!tool.isWeekendCharge() && isWeekend(date)) {
+			return false;
+		} else if (!tool.isWeekdayCharge() && !isWeekend(date)) {
+			return false;
+		} else if (!tool.isHolidayCharge() && isHoliday(date)) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+
+	private static boolean isWeekend(LocalDate date) {
+		return DayOfWeek.SATURDAY.equals(date.getDayOfWeek()) || DayOfWeek.SUNDAY.equals(date.getDayOfWeek());
+	}
+
+	private static boolean isHoliday(LocalDate date) {
+		return isObservedFourthOfJuly(date) || isLaborDay(date);
+	}
+
+	private static boolean isObservedFourthOfJuly(LocalDate date) {
+		int dateYear = date.getYear();
+		LocalDate julyFourth = of(dateYear, JULY, 4);
+		if (julyFourth.getDayOfWeek().equals(SATURDAY)) {
+			julyFourth = of(dateYear, JULY, 3);
+		} else if (julyFourth.getDayOfWeek().equals(SUNDAY)) {
+			julyFourth = of(dateYear, JULY, 5);
+		}
+		return date.equals(julyFourth);
+	}
+
+	private static boolean isLaborDay(LocalDate date) {
+		LocalDate laborDay = of(date.getYear(), SEPTEMBER, 1).with(firstInMonth(MONDAY));
+		return date.equals(laborDay);
+	}
+
+	/**
+	 * A tool with configurable charge flags, used to cover combinations that the
+	 * standard tools do not
+	 */
+	private static class TestTool extends Tool {
+
+		TestTool(boolean weekdayCharge, boolean weekendCharge, boolean holidayCharge) {
+			super("TEST", "Test", "Test", 1.00, weekdayCharge, weekendCharge, holidayCharge);
+		}
+	}
+}
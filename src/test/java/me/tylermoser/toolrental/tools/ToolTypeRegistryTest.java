@@ -0,0 +1,92 @@
+package me.tylermoser.toolrental.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+
+public class ToolTypeRegistryTest {
+
+	private static final String TOOL_TYPES = "# type,dailyCharge,weekdayCharge,weekendCharge,holidayCharge\n"
+			+ "Ladder,1.99,true,true,false\n" + "\n" + "Jackhammer,2.99,true,false,false\n";
+
+	@Test
+	public void getDefault_loadsBundledToolTypes() {
+		final ToolType ladder = ToolTypeRegistry.getDefault().getToolType("Ladder");
+
+		assertEquals(199, ladder.getPricing().getDailyChargeCents());
+		assertTrue(ladder.getPricing().isWeekendCharge());
+		assertFalse(ladder.getPricing().isHolidayCharge());
+		assertSame(ladder, new Ladder("LADW", "Werner").getType());
+		assertSame(new Ladder("LAD1", "Werner").getType(), new Ladder("LAD2", "Little Giant").getType());
+	}
+
+	@Test
+	public void reload_newPrices_updatesExistingTools() throws IOException {
+		final ToolTypeRegistry registry = load(TOOL_TYPES);
+		final Tool ladder = new Tool("LADW", "Werner", registry.getToolType("Ladder"));
+		final ToolPricing originalPricing = ladder.getPricing();
+
+		registry.reload(new StringReader("Ladder,2.49,true,false,false\nJackhammer,2.99,true,false,false\n"));
+
+		assertEquals(249, ladder.getDailyChargeCents());
+		assertFalse(ladder.isWeekendCharge());
+		assertEquals(199, originalPricing.getDailyChargeCents());
+		assertSame(ladder.getType(), registry.getToolType("Ladder"));
+		// 7/3/20 is the observed 4th of July, and 7/4 and 7/5 are a weekend
+		assertEquals(0, ladder.getNumberOfRentalDays(LocalDate.of(2020, 7, 2), 3));
+	}
+
+	@Test
+	public void reload_invalidLine_leavesPricesUnchanged() throws IOException {
+		final ToolTypeRegistry registry = load(TOOL_TYPES);
+		try {
+			registry.reload(new StringReader("Ladder,0.01,true,true,true\nJackhammer,2.999,true,false,false\n"));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("line 2"));
+		}
+
+		assertEquals(199, registry.getToolType("Ladder").getPricing().getDailyChargeCents());
+	}
+
+	@Test
+	public void reload_weeklyCapAndMinimum_appliesChargeRules() throws IOException {
+		final ToolPricing scaffold = load("Scaffold,9.99,true,true,true,5,2\n").getToolType("Scaffold").getPricing();
+
+		assertEquals(5, scaffold.getChargePolicy().getWeeklyCapDays());
+		assertEquals(2, scaffold.getChargePolicy().getMinimumChargeDays());
+		assertEquals(10, scaffold.getNumberOfRentalDays(LocalDate.of(2020, 7, 2), 14, HolidayCalendar.getDefault()));
+		assertEquals(2, scaffold.getNumberOfRentalDays(LocalDate.of(2020, 7, 2), 1, HolidayCalendar.getDefault()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void reload_weeklyCapOverSevenDays_throwsException() throws IOException {
+		load("Scaffold,9.99,true,true,true,8,0\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void reload_missingField_throwsException() throws IOException {
+		load("Ladder,1.99,true,true\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getToolType_unknownName_throwsException() throws IOException {
+		load(TOOL_TYPES).getToolType("Chainsaw");
+	}
+
+	private static ToolTypeRegistry load(String csv) throws IOException {
+		final ToolTypeRegistry registry = new ToolTypeRegistry();
+		registry.reload(new StringReader(csv));
+		return registry;
+	}
+}
@@ -0,0 +1,121 @@
+package me.tylermoser.toolrental.tools.rules;
+
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.WEEKDAYS;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.WEEKEND;
+import static me.tylermoser.toolrental.tools.ChargeDayCounter.isDayOfWeekInMask;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.holidays.HolidayCalendar;
+
+/**
+ * Differential tests comparing compiled charge policies against a week by week
+ * count of every day in the rental.
+ */
+public class ChargePolicyTest {
+
+	private static final long SEED = 20150703L;
+	private static final int ITERATIONS = 2_000;
+	private static final LocalDate EARLIEST_CHECKOUT = LocalDate.of(1990, 1, 1);
+	private static final int CHECKOUT_DATE_RANGE_DAYS = 365 * 60;
+	private static final int MAX_DAY_COUNT = 1000;
+
+	private static final HolidayCalendar CALENDAR = HolidayCalendar.getDefault();
+
+	private static final List<ChargePolicy> POLICIES = Arrays.asList(
+			policy(ChargeRules.chargeDaysOfWeek(WEEKDAYS), ChargeRules.chargeHolidays(false),
+					ChargeRules.weeklyCap(3)),
+			policy(ChargeRules.weeklyCap(5), ChargeRules.minimumChargeDays(4)),
+			policy(ChargeRules.chargeDaysOfWeek(WEEKDAYS | WEEKEND), ChargeRules.chargeHolidays(false),
+					ChargeRules.weeklyCap(6)),
+			policy(ChargeRules.chargeDaysOfWeek(WEEKEND), ChargeRules.chargeHolidays(false),
+					ChargeRules.weeklyCap(1)),
+			policy(ChargeRules.chargeDaysOfWeek(WEEKDAYS), ChargeRules.chargeHolidays(false),
+					ChargeRules.minimumChargeDays(3)),
+			policy(ChargeRules.chargeHolidays(false), ChargeRules.weeklyCap(0)));
+
+	@Test
+	public void getChargeDays_randomCheckouts_matchesWeekByWeekCount() {
+		final Random random = new Random(SEED);
+		for (int i = 0; i < ITERATIONS; i++) {
+			final LocalDate checkoutDate = EARLIEST_CHECKOUT.plusDays(random.nextInt(CHECKOUT_DATE_RANGE_DAYS));
+			final int dayCount = 1 + random.nextInt(MAX_DAY_COUNT);
+			for (ChargePolicy policy : POLICIES) {
+				assertChargeDaysMatch(policy, checkoutDate, dayCount);
+			}
+		}
+	}
+
+	@Test
+	public void getChargeDays_shortRentalsAroundHolidays_matchesWeekByWeekCount() {
+		for (int year = 2015; year <= 2025; year++) {
+			for (LocalDate checkoutDate = LocalDate.of(year, 6, 20); checkoutDate
+					.isBefore(LocalDate.of(year, 9, 10)); checkoutDate = checkoutDate.plusDays(1)) {
+				for (int dayCount = 1; dayCount <= 21; dayCount++) {
+					for (ChargePolicy policy : POLICIES) {
+						assertChargeDaysMatch(policy, checkoutDate, dayCount);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void compile_rulesApplyInOrder() {
+		final ChargePolicy policy = policy(ChargeRules.weeklyCap(4), ChargeRules.weeklyCap(6),
+				ChargeRules.minimumChargeDays(2), ChargeRules.minimumChargeDays(1),
+				ChargeRules.chargeDaysOfWeek(WEEKEND), ChargeRules.chargeDaysOfWeek(WEEKDAYS));
+
+		assertEquals(WEEKDAYS, policy.getChargedDaysOfWeek());
+		assertEquals(4, policy.getWeeklyCapDays());
+		assertEquals(2, policy.getMinimumChargeDays());
+		assertTrue(policy.isWeeklyCapActive());
+		assertFalse(policy(ChargeRules.chargeDaysOfWeek(WEEKDAYS), ChargeRules.weeklyCap(5)).isWeeklyCapActive());
+	}
+
+	@Test
+	public void compile_noRules_chargesEveryDay() {
+		assertEquals(ChargePolicy.CHARGE_EVERY_DAY, ChargePolicy.compile(Collections.emptyList()));
+	}
+
+	@Test
+	public void getChargeDays_zeroDays_returnsZeroDespiteMinimum() {
+		assertEquals(0, policy(ChargeRules.minimumChargeDays(3)).getChargeDays(LocalDate.of(2020, 7, 2), 0, CALENDAR));
+	}
+
+	private static ChargePolicy policy(ChargeRule... rules) {
+		return ChargePolicy.compile(Arrays.asList(rules));
+	}
+
+	private static void assertChargeDaysMatch(ChargePolicy policy, LocalDate checkoutDate, int dayCount) {
+		assertEquals(policy + " from " + checkoutDate + " for " + dayCount + " days",
+				countChargeDaysWeekByWeek(policy, checkoutDate, dayCount),
+				policy.getChargeDays(checkoutDate, dayCount, CALENDAR));
+	}
+
+	private static int countChargeDaysWeekByWeek(ChargePolicy policy, LocalDate checkoutDate, int dayCount) {
+		final long firstDay = checkoutDate.toEpochDay() + 1;
+		int total = 0;
+		for (int weekStart = 0; weekStart < dayCount; weekStart += 7) {
+			int week = 0;
+			for (int day = weekStart; day < Math.min(weekStart + 7, dayCount); day++) {
+				final long epochDay = firstDay + day;
+				if (isDayOfWeekInMask(epochDay, policy.getChargedDaysOfWeek())
+						&& (policy.isHolidayCharge() || !CALENDAR.isHoliday(LocalDate.ofEpochDay(epochDay)))) {
+					week++;
+				}
+			}
+			total += Math.min(week, policy.getWeeklyCapDays());
+		}
+		return Math.max(total, policy.getMinimumChargeDays());
+	}
+}
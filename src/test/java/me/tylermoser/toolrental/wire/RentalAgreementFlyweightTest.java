@@ -0,0 +1,101 @@
+package me.tylermoser.toolrental.wire;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import me.tylermoser.toolrental.RentalAgreement;
+import me.tylermoser.toolrental.tools.Chainsaw;
+import me.tylermoser.toolrental.tools.Jackhammer;
+import me.tylermoser.toolrental.tools.Ladder;
+import me.tylermoser.toolrental.tools.Tool;
+
+public class RentalAgreementFlyweightTest {
+
+	@Test
+	public void wrap_bufferOfEncodedAgreements_readsEveryField() {
+		final Tool[] tools = { new Chainsaw("CHNS", "Stihl"), new Ladder("LADW", "Werner"),
+				new Jackhammer("JAKR", "Ridgid"), new Jackhammer("JAKÉ", "Bosch Königsbrunn") };
+		final List<RentalAgreement> rentalAgreements = new ArrayList<>();
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+		for (int i = 0; i < 500; i++) {
+			final Tool tool = tools[i % tools.length];
+			final int dayCount = 1 + i % 40;
+			final LocalDate checkoutDate = LocalDate.of(2015, 6, 1).plusDays(i);
+			final RentalAgreement rentalAgreement = new RentalAgreement(tool, dayCount, checkoutDate,
+					tool.getNumberOfRentalDays(checkoutDate, dayCount), i % 101);
+			rentalAgreements.add(rentalAgreement);
+			assertEquals(RentalAgreementEncoder.getEncodedLength(rentalAgreement),
+					RentalAgreementEncoder.encode(rentalAgreement, buffer));
+		}
+
+		final RentalAgreementFlyweight flyweight = new RentalAgreementFlyweight();
+		int offset = 0;
+		for (RentalAgreement expected : rentalAgreements) {
+			flyweight.wrap(buffer, offset);
+			assertEquals(expected.getToolCode(), flyweight.getToolCode());
+			assertEquals(expected.getToolType(), flyweight.getToolType());
+			assertEquals(expected.getToolBrand(), flyweight.getToolBrand());
+			assertEquals(expected.getRentalDays(), flyweight.getRentalDays());
+			assertEquals(expected.getCheckoutEpochDay(), flyweight.getCheckoutEpochDay());
+			assertEquals(expected.getDueEpochDay(), flyweight.getDueEpochDay());
+			assertEquals(expected.getDailyRentalChargeCents(), flyweight.getDailyRentalChargeCents());
+			assertEquals(expected.getChargeDays(), flyweight.getChargeDays());
+			assertEquals(expected.getPreDiscountChargeCents(), flyweight.getPreDiscountChargeCents());
+			assertEquals(expected.getDiscountPercent(), flyweight.getDiscountPercent());
+			assertEquals(expected.getDiscountAmountCents(), flyweight.getDiscountAmountCents());
+			assertEquals(expected.getFinalChargeCents(), flyweight.getFinalChargeCents());
+			assertEquals(expected.getToolCode().equals("JAKR"), flyweight.isToolCode("JAKR"));
+			offset += flyweight.getEncodedLength();
+		}
+		assertEquals(buffer.position(), offset);
+	}
+
+	@Test
+	public void encode_ladderAgreement_isAFractionOfTheReportSize() {
+		final RentalAgreement rentalAgreement = new RentalAgreement(new Ladder("LADW", "Werner"), 3,
+				LocalDate.of(2020, 7, 2), 2, 10);
+
+		assertEquals(63, RentalAgreementEncoder.getEncodedLength(rentalAgreement));
+		assertTrue(rentalAgreement.getReportByteLength() > 3 * 63);
+	}
+
+	@Test
+	public void encode_notEnoughSpace_writesNothing() {
+		final RentalAgreement rentalAgreement = new RentalAgreement(new Ladder("LADW", "Werner"), 3,
+				LocalDate.of(2020, 7, 2), 2, 10);
+		final ByteBuffer buffer = ByteBuffer.allocate(62);
+
+		try {
+			RentalAgreementEncoder.encode(rentalAgreement, buffer);
+			fail("The agreement was written past the end of the buffer.");
+		} catch (BufferOverflowException e) {
+			assertEquals(0, buffer.position());
+			assertEquals(0, buffer.get(2));
+		}
+	}
+
+	@Test
+	public void encode_dailyChargeTooLargeForFormat_writesNothing() {
+		final Tool yacht = new Tool("YCHT", "Azimut", "Yacht", 30_000_000.00, true, true, true);
+		final RentalAgreement rentalAgreement = new RentalAgreement(yacht, 1, LocalDate.of(2020, 7, 2), 1, 0);
+		final ByteBuffer buffer = ByteBuffer.allocate(128);
+
+		try {
+			RentalAgreementEncoder.encode(rentalAgreement, buffer);
+			fail("The daily charge was truncated.");
+		} catch (ArithmeticException e) {
+			assertEquals(0, buffer.position());
+			assertEquals(0, buffer.get(2));
+		}
+	}
+
+}